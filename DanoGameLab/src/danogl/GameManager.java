@@ -29,6 +29,8 @@ public class GameManager {
     private GameGUIComponent gameGUIComponent;
     private Camera camera;
     private NotifyOfMouseActions mouseActionNotifier;
+    private int objectsDrawnLastFrame = 0;
+    private int objectsCulledLastFrame = 0;
 
     /**
      * Creates a new full-screen window with a default title.
@@ -115,9 +117,11 @@ public class GameManager {
      *                  by the velocity to get an estimate of the difference in position).
      */
     public void update(float deltaTime) {
-        //update all objects and look for collisions.
-        for(GameObject obj : gameObjects)
-            obj.update(deltaTime);
+        //update all non-static objects and look for collisions.
+        try(var objects = gameObjects.openNonStaticCursor()) {
+            for(GameObject obj : objects)
+                obj.update(deltaTime);
+        }
         if(camera != null)
             camera.update(deltaTime);
         gameObjects.update(deltaTime);
@@ -127,11 +131,62 @@ public class GameManager {
     /**
      * Called automatically every frame. Only use this method for rendering;
      * any logical calculations should be made in update.
+     * Objects in world coordinates that are entirely outside of the camera's view
+     * are skipped (culled).
      * @param g A utility object for drawing shapes, text, and images.
      */
     public void render(Graphics2D g) {
-        for (GameObject obj : gameObjects)
-            obj.render(g, camera);
+        objectsDrawnLastFrame = 0;
+        objectsCulledLastFrame = 0;
+        try(var objects = gameObjects.openCursor()) {
+            for(GameObject obj : objects) {
+                if(obj.renderer().getRenderable() == null)
+                    continue;
+                if(!isInView(obj)) {
+                    objectsCulledLastFrame++;
+                    continue;
+                }
+                obj.render(g, camera);
+                objectsDrawnLastFrame++;
+            }
+        }
+    }
+
+    /**
+     * The number of objects drawn by the last invocation of render.
+     * Objects with no renderable are not counted.
+     */
+    public int getObjectsDrawnLastFrame() {
+        return objectsDrawnLastFrame;
+    }
+
+    /**
+     * The number of objects the last invocation of render skipped since they
+     * were outside of the camera's view.
+     */
+    public int getObjectsCulledLastFrame() {
+        return objectsCulledLastFrame;
+    }
+
+    //whether the object's bounds intersect the camera's view. objects in camera coordinates
+    //(and all objects, when there is no camera) are always considered in view.
+    private boolean isInView(GameObject obj) {
+        if(camera == null || obj.getCoordinateSpace() == CoordinateSpace.CAMERA_COORDINATES)
+            return true;
+        var topLeft = obj.getTopLeftCorner();
+        var dimensions = obj.getDimensions();
+        float halfWidth = Math.abs(dimensions.x())/2, halfHeight = Math.abs(dimensions.y())/2;
+        float centerX = topLeft.x() + dimensions.x()/2, centerY = topLeft.y() + dimensions.y()/2;
+        if(obj.renderer().getRenderableAngle() != 0) {
+            //a rotated object stays within the circle around its center
+            halfWidth = halfHeight = (float)Math.sqrt(halfWidth*halfWidth + halfHeight*halfHeight);
+        }
+        var viewTopLeft = camera.getTopLeftCorner();
+        var viewDimensions = camera.getDimensions();
+        return centerX + halfWidth >= viewTopLeft.x()
+                && centerX - halfWidth <= viewTopLeft.x() + viewDimensions.x()
+                && centerY + halfHeight >= viewTopLeft.y()
+                && centerY - halfHeight <= viewTopLeft.y() + viewDimensions.y();
     }
 
     /**
@@ -170,12 +225,14 @@ public class GameManager {
         var mouseScreenPos = params.getMouseScreenPos();
         var mouseWorldPos = params.getMouseWorldPos();
 
-        for(var obj : gameObjects.reverseOrder()) {
-            var mousePos =
-                    obj.getCoordinateSpace() == CoordinateSpace.CAMERA_COORDINATES?
-                    mouseScreenPos: mouseWorldPos;
-            if(obj.containsPoint(mousePos)) {
-                obj.onMouseAction(params);
+        try(var objects = gameObjects.openReverseCursor()) {
+            for(var obj : objects) {
+                var mousePos =
+                        obj.getCoordinateSpace() == CoordinateSpace.CAMERA_COORDINATES?
+                        mouseScreenPos: mouseWorldPos;
+                if(obj.containsPoint(mousePos)) {
+                    obj.onMouseAction(params);
+                }
             }
         }
     }
@@ -13,6 +13,7 @@ import danogl.util.MutableVector2;
 import danogl.util.Vector2;
 
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents an object in the game. For example, an object has dimensions, a certain
@@ -21,6 +22,9 @@ import java.awt.*;
  * @author Dan Nirel
  */
 public class GameObject {
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private final int id = nextId.getAndIncrement();
     private RendererComponent renderer;
     private Transform transform;
     private GameObjectPhysics physics;
@@ -59,8 +63,11 @@ public class GameObject {
      *                  pos += deltaTime*velocity
      */
     public void update(float deltaTime) {
-        transform.update(deltaTime);
-        transform.setAccelerationEnabled(true); //might be cancelled when resolving collisions
+        physics.updateSleepState(transform);
+        if(!physics.isSleeping()) {
+            transform.update(deltaTime);
+            transform.setAccelerationEnabled(true); //might be cancelled when resolving collisions
+        }
         renderer.update(deltaTime);
         if(components != null) {
             for (var component : components)
@@ -69,6 +76,26 @@ public class GameObject {
         }
     }
 
+    /**
+     * Return the object to the state it had when it was constructed with the given
+     * arguments, so that it can be reused rather than replaced by a new object
+     * (for example, by an object pool). Its components are removed, and its transform,
+     * renderer and sleep state are reset. Its id, tag, coordinate space and physics
+     * properties (collider, mass etc.) are kept.
+     * <br>Should be called once the object was removed from its GameObjectCollection,
+     * before it is added again.
+     * @param topLeftCorner Position of the object, in window coordinates (pixels).
+     * @param dimensions Width and height in window coordinates.
+     * @param renderable The renderable representing the object. Can be null.
+     */
+    public void reset(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        transform.reset(topLeftCorner, dimensions);
+        renderer.reset(renderable);
+        physics.wakeUp();
+        if(components != null)
+            components.clear();
+    }
+
     /**
      * An overload of {@link #render(Graphics2D, Camera)} for the default camera.
      */
@@ -148,6 +175,7 @@ public class GameObject {
      */
     public void setCenter(Vector2 center) {
         transform.setCenter(center);
+        physics.wakeUp();
     }
 
     /**
@@ -163,6 +191,7 @@ public class GameObject {
      */
     public void setTopLeftCorner(Vector2 topLeftCorner) {
         transform.setTopLeftCorner(topLeftCorner);
+        physics.wakeUp();
     }
 
     /**
@@ -192,6 +221,15 @@ public class GameObject {
      */
     public void setDimensions(Vector2 dimensions) {
         transform.setDimensions(dimensions);
+        physics.wakeUp();
+    }
+
+    /**
+     * A number that identifies this object, assigned on construction.
+     * No two objects get the same id (unless more than 2^32 objects are constructed).
+     */
+    public int getId() {
+        return id;
     }
 
     /**
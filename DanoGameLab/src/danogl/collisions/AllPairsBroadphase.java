@@ -0,0 +1,30 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.function.BiConsumer;
+
+/**
+ * The simplest broadphase: every object of one layer is paired with
+ * every object of the other. Its cost grows with the product of the
+ * layers' sizes, but it has no overhead, which makes it a good choice
+ * for small games. This is the default broadphase of GameObjectCollection.
+ * @author Dan Nirel
+ */
+public class AllPairsBroadphase implements Broadphase {
+    @Override
+    public void findPairs(int layer1Id, ModifiableList<GameObject> layerObjs1,
+                          int layer2Id, ModifiableList<GameObject> layerObjs2,
+                          BiConsumer<GameObject, GameObject> handlePair) {
+        for(int ind1 = 0 ; ind1 < layerObjs1.size() ; ind1++) {
+            int ind2 = 0;
+            if(layerObjs1 == layerObjs2)
+                ind2 = ind1 + 1;
+            for(; ind2 < layerObjs2.size() ; ind2++) {
+                if(layerObjs1.get(ind1) != layerObjs2.get(ind2))
+                    handlePair.accept(layerObjs1.get(ind1), layerObjs2.get(ind2));
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.util.function.BiConsumer;
+
+/**
+ * The first stage of collision detection: given the objects of two layers
+ * that are set to collide, decides which pairs are close enough to be worth
+ * handing over to the (more expensive) narrow-phase.
+ * A broadphase may report pairs that end up not colliding, but must never
+ * skip a pair whose bounds overlap.
+ * @see GameObjectCollection#GameObjectCollection(Broadphase)
+ * @author Dan Nirel
+ */
+public interface Broadphase {
+    /**
+     * Notify the broadphase that a new frame has begun, before any call to
+     * {@link #findPairs} in that frame. Broadphases that keep state between frames
+     * may bring it up to date here.
+     */
+    default void onFrameStart() { }
+
+    /**
+     * Called when an object actually joins a layer (that is, when the collection's
+     * pending additions are applied).
+     */
+    default void onGameObjectAdded(GameObject obj, int layerId) { }
+
+    /**
+     * Called when an object actually leaves a layer (that is, when the collection's
+     * pending removals are applied).
+     */
+    default void onGameObjectRemoved(GameObject obj, int layerId) { }
+
+    /**
+     * Report the candidate pairs of two layers.
+     * @param layer1Id the id of the first layer.
+     * @param layerObjs1 the objects of the first layer.
+     * @param layer2Id the id of the second layer.
+     * @param layerObjs2 the objects of the second layer. May be the same list
+     *                   as layerObjs1, in which case each unordered pair
+     *                   should be reported at most once.
+     * @param handlePair to be called for every candidate pair, with the
+     *                   object of the first layer as its first argument.
+     */
+    void findPairs(int layer1Id, ModifiableList<GameObject> layerObjs1,
+                   int layer2Id, ModifiableList<GameObject> layerObjs2,
+                   BiConsumer<GameObject, GameObject> handlePair);
+}
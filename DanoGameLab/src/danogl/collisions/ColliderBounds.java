@@ -0,0 +1,34 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.collisions.AABB.AABBCollider;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * package-private. Computes the world-space bounding box of a GameObject's
+ * collider, as used by the broadphases.
+ * @author Dan Nirel
+ */
+final class ColliderBounds {
+    private ColliderBounds() { }
+
+    /**
+     * Writes into out the world-space bounds of go's collider.
+     * Colliders other than AABBs are assumed to be contained in the object's rectangle.
+     */
+    static void worldBounds(GameObject go, Rectangle2D.Float out) {
+        var corner = go.getTopLeftCorner();
+        var dimensions = go.getDimensions();
+        if(go.physics().collider() instanceof AABBCollider) {
+            var rect = ((AABBCollider)go.physics().collider()).getRectangle();
+            out.setRect(
+                    corner.x() + rect.x*dimensions.x(),
+                    corner.y() + rect.y*dimensions.y(),
+                    rect.width*dimensions.x(),
+                    rect.height*dimensions.y());
+            return;
+        }
+        out.setRect(corner.x(), corner.y(), dimensions.x(), dimensions.y());
+    }
+}
@@ -1,6 +1,7 @@
 package danogl.collisions;
 
 import danogl.GameObject;
+import danogl.components.TaskScheduler;
 import java.util.*;
 import java.util.List;
 
@@ -13,11 +14,37 @@ import java.util.List;
  */
 public class GameObjectCollection implements Iterable<GameObject> {
     protected CollisionResolver resolver = new CollisionResolver();
-    protected LayerManager layerManager = new LayerManager(this::handlePair);
+    protected LayerManager layerManager;
     private PairCollisionManager pairCollisionManager = new PairCollisionManager();
-    private Map<GameObjectPair, PairCollisionData> alreadyInCollision
-            = new HashMap<>();
+    private PairCollisionMap alreadyInCollision = new PairCollisionMap();
+    //the entries of alreadyInCollision that involve each object
+    private Map<GameObject, List<PairCollisionData>> collisionsOfObject = new IdentityHashMap<>();
     private GameObjectPair pair = new GameObjectPair();
+    private boolean exitCollisionsOfRemovedObjects = false;
+    private List<PairCollisionData> unvisitedCollisions = new ArrayList<>();
+    private int frame = 0;
+    private final TaskScheduler scheduler;
+
+    /**
+     * Construct a collection whose collisions are detected by pairing every object
+     * of a layer with every object of the layers it collides with.
+     * @see AllPairsBroadphase
+     */
+    public GameObjectCollection() {
+        this(new AllPairsBroadphase());
+    }
+
+    /**
+     * Construct a collection that uses the given broadphase to decide which pairs
+     * of objects are close enough to be checked for collisions.
+     * @param broadphase for example a {@link SpatialHashBroadphase} for large worlds.
+     */
+    public GameObjectCollection(Broadphase broadphase) {
+        if(broadphase == null)
+            throw new NullPointerException("Broadphase cannot be null");
+        layerManager = new LayerManager(this::handlePair, broadphase);
+        scheduler = new TaskScheduler(layerManager::contains);
+    }
 
     /**
      * Iterator for all the objects in all layers, in drawing order.
@@ -35,6 +62,34 @@ public class GameObjectCollection implements Iterable<GameObject> {
      */
     public Iterable<GameObject> reverseOrder() { return layerManager.reverseOrder(); }
 
+    /**
+     * Returns an Iterable of the GameObjects in this collection that are not static,
+     * in drawing order. These are the objects that should be updated every frame.
+     * @see danogl.components.GameObjectPhysics#setStatic(boolean)
+     */
+    public Iterable<GameObject> nonStaticObjects() { return layerManager.nonStaticObjects(); }
+
+    /**
+     * Opens a cursor over all the objects in all layers, in drawing order.
+     * Unlike {@link #iterator()}, the cursor is reused once it is closed, so iterating
+     * the collection every frame does not allocate. It should be closed when the iteration
+     * ends, even if it ends early, for example:
+     * <pre>try(var objects = gameObjects.openCursor()) { for(var obj : objects) {...} }</pre>
+     */
+    public LayerManager.Cursor openCursor() { return layerManager.openCursor(); }
+
+    /**
+     * Like {@link #openCursor()}, in reverse order of the drawing order.
+     * @see #reverseOrder()
+     */
+    public LayerManager.Cursor openReverseCursor() { return layerManager.openReverseCursor(); }
+
+    /**
+     * Like {@link #openCursor()}, over the objects that are not static.
+     * @see #nonStaticObjects()
+     */
+    public LayerManager.Cursor openNonStaticCursor() { return layerManager.openNonStaticCursor(); }
+
     /**
      * Add the specified GameObject.
      * Important note: the object will only be added at the end of
@@ -64,21 +119,31 @@ public class GameObjectCollection implements Iterable<GameObject> {
      * the nearest invocation of handleCollisions. Until such time,
      * traversal of the objects in this container using the foreach loop will still
      * show this object.
+     * The collisions the object is in, however, are forgotten immediately,
+     * and the objects it was colliding with are woken up (see GameObjectPhysics.isSleeping).
      * @param obj The GameObject to remove.
      * @param layerId id of the layer to remove object from
+     * @see #setExitCollisionsOfRemovedObjects(boolean)
      * @return false if the object does not exist in the collection, or it exists
      * but is already queued for removal, true if removal was successful.
      */
     public boolean removeGameObject(GameObject obj, int layerId) {
         boolean wasAnObjRemoved = layerManager.removeGameObject(obj, layerId);
         if(wasAnObjRemoved) {
-            List<GameObjectPair> keysToRemove = new ArrayList<>();
-            for(var pair : alreadyInCollision.keySet()) {
-                if(pair.getGameObject(0) == obj
-                        || pair.getGameObject(1) == obj)
-                    keysToRemove.add(pair);
+            var collisions = collisionsOfObject.remove(obj);
+            if(collisions != null) {
+                for(var collisionData : collisions) {
+                    var other = collisionData.go1() == obj ? collisionData.go2() : collisionData.go1();
+                    unindexCollision(other, collisionData);
+                    alreadyInCollision.remove(obj, other);
+                    //the other object may be sleeping on this one, and would not notice it is gone
+                    other.physics().wakeUp();
+                    if(exitCollisionsOfRemovedObjects) {
+                        obj.onCollisionExit(other);
+                        other.onCollisionExit(obj);
+                    }
+                }
             }
-            keysToRemove.forEach(alreadyInCollision::remove);
         }
         return wasAnObjRemoved;
     }
@@ -91,6 +156,16 @@ public class GameObjectCollection implements Iterable<GameObject> {
         return removeGameObject(obj, Layer.DEFAULT);
     }
 
+    /**
+     * Set whether removing an object that is in collision with other objects
+     * should end those collisions with onCollisionExit (on both objects).
+     * By default, the collisions are silently forgotten.
+     * @see #removeGameObject(GameObject, int)
+     */
+    public void setExitCollisionsOfRemovedObjects(boolean exitCollisionsOfRemovedObjects) {
+        this.exitCollisionsOfRemovedObjects = exitCollisionsOfRemovedObjects;
+    }
+
     /**
      * Register another implementation of PairCollisionHandler, which creates
      * the collision data of two objects implementing {@link Collider}.
@@ -102,10 +177,27 @@ public class GameObjectCollection implements Iterable<GameObject> {
     }
 
     /**
-     * Updates the internal structures of the collection. Does not update the objects themselves.
+     * Is the object in the collection, or queued for addition to it.
+     * An object queued for removal is not.
+     */
+    public boolean contains(GameObject obj) {
+        return layerManager.contains(obj);
+    }
+
+    /**
+     * The scheduler of the tasks of this collection's objects. It is advanced in update,
+     * and cancels the tasks of objects that are no longer in the collection when they are due.
+     * @see danogl.components.ScheduledTask#ScheduledTask(TaskScheduler, GameObject, float, boolean, Runnable)
+     */
+    public TaskScheduler scheduler() { return scheduler; }
+
+    /**
+     * Updates the internal structures of the collection, and runs the scheduled tasks
+     * that are due. Does not update the objects themselves.
      * @param deltaTime Time since last frame
      */
     public void update(float deltaTime) {
+        scheduler.update(deltaTime);
         layerManager.flushChanges();
     }
 
@@ -121,11 +213,13 @@ public class GameObjectCollection implements Iterable<GameObject> {
      * objects via the addGameObject/removeGameObject methods. This occurs after all
      * pair-handling already took place.
      * To alter the broadphase of the collision detection (which pairs should be
-     * checked for collisions), override this method and use the protected method
-     * handlePair.
+     * checked for collisions), supply a {@link Broadphase} to the constructor, or override
+     * this method and use the protected method handlePair.
      */
     public void handleCollisions() {
+        frame++;
         layerManager.handleCollisions();
+        handleUnvisitedCollisions();
     }
 
     /**
@@ -153,6 +247,12 @@ public class GameObjectCollection implements Iterable<GameObject> {
      * @return whether the pair collided or not.
      */
     protected boolean handlePair(GameObject obj1, GameObject obj2) {
+        var cachedCollisionData = alreadyInCollision.get(obj1, obj2);
+        //objects that are static or sleeping do not move, so they cannot start colliding.
+        //a collision they are already in is still handled, since a sleeping object
+        //might have been moved from outside
+        if(cachedCollisionData == null && !obj1.physics().isActive() && !obj2.physics().isActive())
+            return false;
         pair.setGameObject(0, obj1);
         pair.setGameObject(1, obj2);
         if(!pair.go1().shouldCollideWith(pair.go2()) ||
@@ -161,23 +261,33 @@ public class GameObjectCollection implements Iterable<GameObject> {
             return false;
         }
         //do they already intersect?
-        var cachedCollisionData = alreadyInCollision.getOrDefault(pair, null);
         if(cachedCollisionData != null) {
-            //then this is not the first time
+            //then this is not the first time.
+            //the cached data may hold the objects in the opposite order
+            var go1 = cachedCollisionData.go1();
+            var go2 = cachedCollisionData.go2();
+            cachedCollisionData.lastHandledFrame = frame;
             cachedCollisionData.onFrameStart();
             if(!cachedCollisionData.areColliding()) {
                 //then they did intersect but no longer
-                pair.go1().onCollisionExit(pair.go2());
-                pair.go2().onCollisionExit(pair.go1());
-                alreadyInCollision.remove(pair);
+                go1.physics().wakeUp();
+                go2.physics().wakeUp();
+                go1.onCollisionExit(go2);
+                go2.onCollisionExit(go1);
+                forgetCollision(cachedCollisionData);
                 return false;
             }
             //then they still intersect
-            pair.go1().onCollisionStay(pair.go2(), cachedCollisionData.getCollision(0));
-            pair.go2().onCollisionStay(pair.go1(), cachedCollisionData.getCollision(1));
-            if(resolver != null)
-                resolver.resolve(pair.go1(), cachedCollisionData.getCollision(0),
-                                 pair.go2(), cachedCollisionData.getCollision(1));
+            go1.onCollisionStay(go2, cachedCollisionData.getCollision(0));
+            go2.onCollisionStay(go1, cachedCollisionData.getCollision(1));
+            if(resolver != null) {
+                for(int contact = 0 ; contact < cachedCollisionData.getContactCount() ; contact++) {
+                    cachedCollisionData.selectContact(contact);
+                    resolver.resolve(go1, cachedCollisionData.getCollision(0),
+                                     go2, cachedCollisionData.getCollision(1));
+                }
+                cachedCollisionData.selectContact(0);
+            }
             return true;
         }
         //so far they weren't intersecting
@@ -185,11 +295,58 @@ public class GameObjectCollection implements Iterable<GameObject> {
         if(null == collisionData)
             return false; //then no collision
         //then colliding for first time
-        alreadyInCollision.put(collisionData, collisionData);
+        collisionData.lastHandledFrame = frame;
+        rememberCollision(collisionData);
+        pair.go1().physics().wakeUp();
+        pair.go2().physics().wakeUp();
         pair.go1().onCollisionEnter(pair.go2(), collisionData.getCollision(0));
         pair.go1().onCollisionStay(pair.go2(), collisionData.getCollision(0));
         pair.go2().onCollisionEnter(pair.go1(), collisionData.getCollision(1));
         pair.go2().onCollisionStay(pair.go1(), collisionData.getCollision(1));
         return true;
     }
+
+    private void rememberCollision(PairCollisionData collisionData) {
+        alreadyInCollision.put(collisionData);
+        collisionsOfObject.computeIfAbsent(collisionData.go1(), go -> new ArrayList<>()).add(collisionData);
+        collisionsOfObject.computeIfAbsent(collisionData.go2(), go -> new ArrayList<>()).add(collisionData);
+    }
+
+    private void forgetCollision(PairCollisionData collisionData) {
+        alreadyInCollision.remove(collisionData.go1(), collisionData.go2());
+        unindexCollision(collisionData.go1(), collisionData);
+        unindexCollision(collisionData.go2(), collisionData);
+    }
+
+    private void unindexCollision(GameObject obj, PairCollisionData collisionData) {
+        var collisions = collisionsOfObject.get(obj);
+        if(collisions == null)
+            return;
+        for(int i = 0 ; i < collisions.size() ; i++) {
+            if(collisions.get(i) == collisionData) {
+                //the order of the list is irrelevant
+                collisions.set(i, collisions.get(collisions.size()-1));
+                collisions.remove(collisions.size()-1);
+                break;
+            }
+        }
+        if(collisions.isEmpty())
+            collisionsOfObject.remove(obj);
+    }
+
+    /**
+     * A broadphase only reports pairs that are close to each other, so a pair that
+     * was colliding and moved far apart in a single frame (e.g., an object that was teleported)
+     * is not reported. Such pairs are handled here, so that they still exit the collision.
+     */
+    private void handleUnvisitedCollisions() {
+        for(int i = 0 ; i < alreadyInCollision.size() ; i++) {
+            var collisionData = alreadyInCollision.entryAt(i);
+            if(collisionData.lastHandledFrame != frame)
+                unvisitedCollisions.add(collisionData);
+        }
+        for(var collisionData : unvisitedCollisions)
+            handlePair(collisionData.go1(), collisionData.go2());
+        unvisitedCollisions.clear();
+    }
 }
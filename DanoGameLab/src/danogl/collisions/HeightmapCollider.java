@@ -0,0 +1,93 @@
+package danogl.collisions;
+
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * A collider made of equally-wide vertical columns side by side, such as the ground
+ * of a side-scrolling game. Each column is either empty, or solid between a top
+ * and a bottom. A single heightmap can replace the many box colliders that would
+ * otherwise make up a stretch of terrain.
+ * <br>Like all colliders, the columns are in object-coordinates: the columns span
+ * the object's width (0 to 1), and the tops and bottoms are relative to its height
+ * (0 being the object's top and 1 its bottom).
+ * @see HeightmapPairCollisionHandler
+ * @author Dan Nirel
+ */
+public class HeightmapCollider implements Collider {
+    public static final String HEIGHTMAP_COLLIDER_TYPE = "Heightmap";
+    private final float[] tops;
+    private final float[] bottoms;
+
+    /**
+     * Create a new heightmap collider whose columns are all empty.
+     * @param columnCount the number of columns.
+     */
+    public HeightmapCollider(int columnCount) {
+        if(columnCount <= 0)
+            throw new IllegalArgumentException("A heightmap must have at least one column");
+        tops = new float[columnCount];
+        bottoms = new float[columnCount];
+        clear();
+    }
+
+    @Override
+    public String colliderType() {
+        return HEIGHTMAP_COLLIDER_TYPE;
+    }
+
+    @Override
+    public boolean containsPoint(Vector2 point) {
+        if(point.x() < 0 || point.x() >= 1)
+            return false;
+        int column = (int)(point.x()*tops.length);
+        return isColumnSolid(column) && point.y() >= tops[column] && point.y() <= bottoms[column];
+    }
+
+    /**
+     * The number of columns.
+     */
+    public int getColumnCount() { return tops.length; }
+
+    /**
+     * Make a column solid between top and bottom (in object-coordinates).
+     */
+    public void setColumn(int column, float top, float bottom) {
+        if(bottom < top)
+            throw new IllegalArgumentException("A column's bottom cannot be above its top");
+        tops[column] = top;
+        bottoms[column] = bottom;
+    }
+
+    /**
+     * Make a column empty.
+     */
+    public void clearColumn(int column) {
+        tops[column] = Float.NaN;
+        bottoms[column] = Float.NaN;
+    }
+
+    /**
+     * Make all columns empty.
+     */
+    public void clear() {
+        Arrays.fill(tops, Float.NaN);
+        Arrays.fill(bottoms, Float.NaN);
+    }
+
+    /**
+     * Is the column solid (as opposed to empty).
+     */
+    public boolean isColumnSolid(int column) { return !Float.isNaN(tops[column]); }
+
+    /**
+     * The top of a solid column, in object-coordinates.
+     */
+    public float getColumnTop(int column) { return tops[column]; }
+
+    /**
+     * The bottom of a solid column, in object-coordinates.
+     */
+    public float getColumnBottom(int column) { return bottoms[column]; }
+}
@@ -0,0 +1,126 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.MutableVector2;
+import danogl.util.Vector2;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * package-private.
+ * Responsible for computing and caching the collision data for a GameObject whose
+ * collider is an AABB and a GameObject whose collider is a heightmap.
+ * @see HeightmapPairCollisionHandler
+ * @author Dan Nirel
+ */
+class HeightmapPairCollisionData extends PairCollisionData {
+    /**
+     * The collision info for one of the objects of the pair.
+     */
+    private class HeightmapCollision implements Collision {
+        private final int myIndex;
+        private final MutableVector2 normal = new MutableVector2(),
+                collisionPoint = new MutableVector2(),
+                penetrationArea = new MutableVector2(),
+                relativeVelocity = new MutableVector2();
+
+        HeightmapCollision(int myIndex) {
+            this.myIndex = myIndex;
+        }
+
+        @Override
+        public void onFrameStart() { }
+
+        @Override
+        public Vector2 getNormal() {
+            updateIntersectionRect();
+            var myRect = myIndex == heightmapIndex ? columnsWorld[selectedContact] : boxWorld;
+            normal.setXY((float)(myRect.getCenterX() - intersection.getCenterX()),
+                    (float)(myRect.getCenterY() - intersection.getCenterY()));
+            return normal.selfNormalize();
+        }
+
+        @Override
+        public Vector2 getCollisionPoint() {
+            updateIntersectionRect();
+            collisionPoint.setXY((float)intersection.getCenterX(), (float)intersection.getCenterY());
+            return collisionPoint;
+        }
+
+        @Override
+        public Vector2 getPenetrationArea() {
+            updateIntersectionRect();
+            penetrationArea.setXY(intersection.width, intersection.height);
+            return penetrationArea;
+        }
+
+        @Override
+        public Vector2 getRelativeVelocity() {
+            relativeVelocity.setXY(getGameObject(myIndex).getVelocity());
+            return relativeVelocity.selfSubtract(getGameObject(1-myIndex).getVelocity());
+        }
+    }
+
+    private final int heightmapIndex;
+    private Rectangle2D.Float boxWorld = new Rectangle2D.Float();
+    private Rectangle2D.Float[] columnsWorld = new Rectangle2D.Float[HeightmapPairCollisionHandler.MAX_CONTACTS];
+    //the intersection of the box with the column of the selected contact
+    private Rectangle2D.Float intersection = new Rectangle2D.Float();
+    private int contactCount = 0;
+    private int selectedContact = 0;
+    private boolean alreadyComputedIntersectionRectThisFrame = false;
+
+    /**
+     * @param heightmapIndex the index (0 or 1) of the object whose collider is the heightmap.
+     */
+    public HeightmapPairCollisionData(GameObject go1, GameObject go2, int heightmapIndex) {
+        super(go1, go2);
+        this.heightmapIndex = heightmapIndex;
+        for(int i = 0 ; i < columnsWorld.length ; i++)
+            columnsWorld[i] = new Rectangle2D.Float();
+        collision1 = new HeightmapCollision(0);
+        collision2 = new HeightmapCollision(1);
+    }
+
+    @Override
+    public void onFrameStart() {
+        alreadyComputedIntersectionRectThisFrame = false;
+        selectedContact = 0;
+    }
+
+    @Override
+    public boolean areColliding() {
+        updateIntersectionRect();
+        return contactCount > 0;
+    }
+
+    @Override
+    public int getContactCount() {
+        updateIntersectionRect();
+        return contactCount;
+    }
+
+    @Override
+    public void selectContact(int contact) {
+        updateIntersectionRect();
+        if(contact == selectedContact || contact >= contactCount)
+            return;
+        selectedContact = contact;
+        Rectangle2D.intersect(boxWorld, columnsWorld[contact], intersection);
+    }
+
+    private void updateIntersectionRect() {
+        if(alreadyComputedIntersectionRectThisFrame)
+            return;
+        contactCount = HeightmapPairCollisionHandler.calcContacts(
+                getGameObject(1-heightmapIndex), getGameObject(heightmapIndex),
+                boxWorld, columnsWorld);
+        if(contactCount > selectedContact)
+            Rectangle2D.intersect(boxWorld, columnsWorld[selectedContact], intersection);
+        else {
+            selectedContact = 0;
+            intersection.setRect(0, 0, 0, 0);
+        }
+        alreadyComputedIntersectionRectThisFrame = true;
+    }
+}
@@ -0,0 +1,124 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.collisions.AABB.AABBCollider;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Responsible for computing the intersection data of a GameObject whose collider
+ * is an AABB and a GameObject whose collider is a {@link HeightmapCollider}.
+ * Only the columns the AABB spans are examined.
+ * The pair collides like the AABB collides with the boxes of the (solid) columns it overlaps,
+ * so the normals and penetration areas are the same as if the columns were GameObjects
+ * with AABB colliders. Of the columns the AABB rests on or hangs from (overlaps more
+ * horizontally than vertically), only the deepest is a contact, and likewise of the columns
+ * it pushes against from the side, so a box standing on one column and walking into a taller
+ * one is resolved against both the floor and the wall.
+ * Is not responsible for resolving the collision.
+ * @author Dan Nirel
+ */
+public class HeightmapPairCollisionHandler implements PairCollisionHandler {
+    /** The maximal number of contacts of a pair: one per axis. */
+    static final int MAX_CONTACTS = 2;
+
+    private Rectangle2D.Float boxWorld = new Rectangle2D.Float();
+    private Rectangle2D.Float[] columnsWorld = {new Rectangle2D.Float(), new Rectangle2D.Float()};
+
+    @Override
+    public PairCollisionData computeCollisionData(GameObject go1, GameObject go2) {
+        if(!supportsPair(go1, go2))
+            return null;
+        boolean heightmapIsFirst = isHeightmap(go1);
+        var box = heightmapIsFirst ? go2 : go1;
+        var heightmap = heightmapIsFirst ? go1 : go2;
+        if(calcContacts(box, heightmap, boxWorld, columnsWorld) == 0)
+            return null;
+        return new HeightmapPairCollisionData(go1, go2, heightmapIsFirst ? 0 : 1);
+    }
+
+    @Override
+    public boolean supportsPair(GameObject go1, GameObject go2) {
+        return (isHeightmap(go1) && isAABB(go2)) || (isAABB(go1) && isHeightmap(go2));
+    }
+
+    /**
+     * Finds the contacts of a box with the solid columns of a heightmap: the column the box
+     * penetrates the deepest vertically, among the columns it overlaps more horizontally than
+     * vertically, and the column it penetrates the deepest horizontally, among the others.
+     * The contacts are ordered by the area of their overlap with the box, largest first.
+     * @param box a GameObject with an AABB collider.
+     * @param heightmap a GameObject with a heightmap collider.
+     * @param boxWorld updated to the world space rect of the box.
+     * @param columnsWorld an array of {@link #MAX_CONTACTS} rects. The first ones are updated
+     *                     to the world space rects of the contacts' columns.
+     * @return the number of contacts, 0 if the box overlaps none of the columns.
+     */
+    static int calcContacts(GameObject box, GameObject heightmap,
+                            Rectangle2D.Float boxWorld, Rectangle2D.Float[] columnsWorld) {
+        ColliderBounds.worldBounds(box, boxWorld);
+        var collider = (HeightmapCollider)heightmap.physics().collider();
+        var corner = heightmap.getTopLeftCorner();
+        var dimensions = heightmap.getDimensions();
+        float columnWidth = dimensions.x()/collider.getColumnCount();
+        if(!(columnWidth > 0))
+            return 0;
+
+        int firstColumn = Math.max(0, (int)Math.floor((boxWorld.x - corner.x())/columnWidth));
+        int lastColumn = Math.min(collider.getColumnCount()-1,
+                (int)Math.floor((boxWorld.x + boxWorld.width - corner.x())/columnWidth));
+        //the deepest column of each axis: index 0 for vertical contacts, 1 for horizontal ones
+        int verticalColumn = -1, horizontalColumn = -1;
+        float verticalDepth = 0, horizontalDepth = 0, verticalArea = 0, horizontalArea = 0;
+        for(int column = firstColumn ; column <= lastColumn ; column++) {
+            if(!collider.isColumnSolid(column))
+                continue;
+            float top = corner.y() + collider.getColumnTop(column)*dimensions.y();
+            float bottom = corner.y() + collider.getColumnBottom(column)*dimensions.y();
+            float left = corner.x() + column*columnWidth;
+            //overlap of the box with this column's rect
+            float width = Math.min(boxWorld.x + boxWorld.width, left + columnWidth)
+                    - Math.max(boxWorld.x, left);
+            float height = Math.min(boxWorld.y + boxWorld.height, bottom) - Math.max(boxWorld.y, top);
+            if(width <= 0 || height <= 0)
+                continue;
+            if(width > height) {
+                //a floor or a ceiling: penetrated by the height of the overlap
+                if(height < verticalDepth || (height == verticalDepth && width*height <= verticalArea))
+                    continue;
+                verticalColumn = column;
+                verticalDepth = height;
+                verticalArea = width*height;
+                columnsWorld[0].setRect(left, top, columnWidth, bottom - top);
+            }
+            else {
+                //a wall: penetrated by the width of the overlap
+                if(width < horizontalDepth || (width == horizontalDepth && width*height <= horizontalArea))
+                    continue;
+                horizontalColumn = column;
+                horizontalDepth = width;
+                horizontalArea = width*height;
+                columnsWorld[1].setRect(left, top, columnWidth, bottom - top);
+            }
+        }
+        if(verticalColumn < 0 && horizontalColumn < 0)
+            return 0;
+        if(horizontalColumn < 0)
+            return 1;
+        if(verticalColumn < 0 || horizontalArea > verticalArea) {
+            //the horizontal contact comes first
+            var temp = columnsWorld[0];
+            columnsWorld[0] = columnsWorld[1];
+            columnsWorld[1] = temp;
+        }
+        return verticalColumn < 0 ? 1 : 2;
+    }
+
+    private static boolean isHeightmap(GameObject go) {
+        return go.physics().collider().colliderType().equals(HeightmapCollider.HEIGHTMAP_COLLIDER_TYPE);
+    }
+
+    private static boolean isAABB(GameObject go) {
+        return go.physics().collider().colliderType().equals(AABBCollider.AABB_COLLIDER_TYPE);
+    }
+}
@@ -1,12 +1,11 @@
 package danogl.collisions;
 
 import danogl.GameObject;
-import danogl.util.ConcatIterator;
 import danogl.util.ModifiableList;
 
 import java.util.*;
 import java.util.function.BiConsumer;
-import java.util.stream.StreamSupport;
+import java.util.function.Consumer;
 
 /**
  * package-private, used in LayerManager
@@ -14,13 +13,20 @@ import java.util.stream.StreamSupport;
  */
 class LayerData {
     int layerId;
+    //the index of the layer in LayerManager's table of layers
+    int index;
     int drawOrder;
     ModifiableList<GameObject> objects = new ModifiableList<>(false);
-    Set<Integer> layersThisLayerCollidesWIth = new HashSet<>();
+    //updated every frame but never drawn, so the order of its objects is irrelevant
+    ModifiableList<GameObject> nonStaticObjects = new ModifiableList<>(false, false);
+    Consumer<GameObject> onObjectRemoved, onObjectAdded;
 
-    LayerData(int layerId) {
+    LayerData(int layerId, int index, Broadphase broadphase) {
         this.layerId = layerId;
+        this.index = index;
         this.drawOrder = layerId;
+        onObjectRemoved = obj -> broadphase.onGameObjectRemoved(obj, layerId);
+        onObjectAdded = obj -> broadphase.onGameObjectAdded(obj, layerId);
     }
 }
 
@@ -31,17 +37,123 @@ class LayerData {
  * @author Dan Nirel
  */
 public class LayerManager {
-    private ModifiableList<LayerData> layers = new ModifiableList<>(false);
+    private static final int INITIAL_LAYER_CAPACITY = 16;
+
+    /**
+     * A cursor over the objects of all flushed layers, layer by layer in draw-order
+     * (or in reverse). It is both the Iterator and an Iterable returning it, so it can be
+     * used in a foreach loop. A cursor opened with one of GameObjectCollection's open methods
+     * is reused once it is closed, so it should be closed, preferably with try-with-resources;
+     * a cursor that is not closed is simply not reused.
+     * @see GameObjectCollection#openCursor()
+     */
+    public final class Cursor implements Iterator<GameObject>, Iterable<GameObject>, AutoCloseable {
+        private final boolean reverse;
+        private final boolean nonStaticOnly;
+        private boolean isOpen = false;
+        private int layerIndex;
+        private int objectIndex;
+
+        private Cursor(boolean reverse, boolean nonStaticOnly) {
+            this.reverse = reverse;
+            this.nonStaticOnly = nonStaticOnly;
+        }
+
+        private Cursor reset() {
+            isOpen = true;
+            if(reverse) {
+                layerIndex = flushedLayerCount-1;
+                objectIndex = layerIndex < 0 ? -1 : objectsOf(layerIndex).size()-1;
+            }
+            else {
+                layerIndex = 0;
+                objectIndex = 0;
+            }
+            return this;
+        }
+
+        @Override
+        public Iterator<GameObject> iterator() {
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            //skip to the next layer with objects in it, or to the end of layers
+            if(reverse) {
+                while(objectIndex < 0 && layerIndex > 0) {
+                    layerIndex--;
+                    objectIndex = objectsOf(layerIndex).size()-1;
+                }
+                return objectIndex >= 0;
+            }
+            while(layerIndex < flushedLayerCount && objectIndex >= objectsOf(layerIndex).size()) {
+                layerIndex++;
+                objectIndex = 0;
+            }
+            return layerIndex < flushedLayerCount;
+        }
+
+        @Override
+        public GameObject next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            var element = objectsOf(layerIndex).get(objectIndex);
+            objectIndex += reverse ? -1 : 1;
+            return element;
+        }
+
+        /**
+         * Ends the iteration, so that the cursor can be reused if it was opened by one of
+         * the open methods. Closing a cursor that is not reused has no effect.
+         */
+        @Override
+        public void close() {
+            isOpen = false;
+        }
+
+        private ModifiableList<GameObject> objectsOf(int layerIndex) {
+            return nonStaticOnly ? layers[layerIndex].nonStaticObjects : layers[layerIndex].objects;
+        }
+    }
+
+    //all layers, indexed by their index (in order of creation), including layers
+    //created since the last flush. games have few layers, so ids are looked up by a linear scan.
+    private LayerData[] layerTable = new LayerData[INITIAL_LAYER_CAPACITY];
+    private int[] layerIds = new int[INITIAL_LAYER_CAPACITY];
+    private int layerCount = 0;
+    //bit (index1*layerCapacity + index2) is set iff the layers of the two indices collide
+    private long[] collisionMatrix = new long[bitsetWords(INITIAL_LAYER_CAPACITY)];
+
+    //the flushed layers, sorted by draw-order
+    private LayerData[] layers = new LayerData[INITIAL_LAYER_CAPACITY];
+    private int flushedLayerCount = 0;
     private boolean shouldReSortLayers = false;
+
+    //the colliding pairs of flushed layers, as consecutive pairs of indices into layers
+    private int[] collidingLayerPairs = new int[2*INITIAL_LAYER_CAPACITY];
+    private int collidingLayerPairCount = 0;
+    private boolean shouldRebuildCollidingPairs = true;
+
     private BiConsumer<GameObject, GameObject> handlePair;
+    private Broadphase broadphase;
+
+    //reused by the open methods while they are closed. the Iterables always create new cursors,
+    //since a foreach loop cannot close its cursor.
+    private final Cursor forwardCursor = new Cursor(false, false);
+    private final Cursor reverseCursor = new Cursor(true, false);
+    private final Cursor nonStaticCursor = new Cursor(false, true);
+    private final Iterable<GameObject> reverseIterable = () -> new Cursor(true, false).reset();
+    private final Iterable<GameObject> nonStaticIterable = () -> new Cursor(false, true).reset();
 
     /**
      * package-private constructor
      */
-    LayerManager(BiConsumer<GameObject, GameObject> handlePairCallback) {
+    LayerManager(BiConsumer<GameObject, GameObject> handlePairCallback, Broadphase broadphase) {
         this.handlePair = handlePairCallback;
-        layers.add(new LayerData(Layer.STATIC_OBJECTS));
-        layers.add(new LayerData(Layer.DEFAULT));
+        this.broadphase = broadphase;
+        createLayer(Layer.STATIC_OBJECTS);
+        createLayer(Layer.DEFAULT);
         shouldLayersCollide(Layer.STATIC_OBJECTS, Layer.DEFAULT, true);
         shouldLayersCollide(Layer.DEFAULT, Layer.DEFAULT, true);
     }
@@ -55,7 +167,7 @@ public class LayerManager {
         var layer2Data = getLayerData(layer2Id);
         if(layer1Data == null || layer2Data == null)
             return false;
-        return layer1Data.layersThisLayerCollidesWIth.contains(layer2Id);
+        return doLayersCollide(layer1Data, layer2Data);
     }
 
     /**
@@ -74,7 +186,10 @@ public class LayerManager {
      * @throws NoSuchElementException If the layer does not exist
      */
     public void setLayerDrawOrder(int layerId, int drawOrder) {
-        getLayerDataThrow(layerId).drawOrder = drawOrder;
+        var layerData = getLayerDataThrow(layerId);
+        if(layerData.drawOrder == drawOrder)
+            return;
+        layerData.drawOrder = drawOrder;
         shouldReSortLayers = true;
     }
 
@@ -85,24 +200,22 @@ public class LayerManager {
     public void shouldLayersCollide(int layer1Id, int layer2Id, boolean shouldCollide) {
         var layer1Data = getLayerDataThrow(layer1Id);
         var layer2Data = getLayerDataThrow(layer2Id);
-        if(shouldCollide) {
-            layer1Data.layersThisLayerCollidesWIth.add(layer2Id);
-            layer2Data.layersThisLayerCollidesWIth.add(layer1Id);
-        }
-        else {
-            layer1Data.layersThisLayerCollidesWIth.remove(layer2Id);
-            layer2Data.layersThisLayerCollidesWIth.remove(layer1Id);
-        }
+        if(doLayersCollide(layer1Data, layer2Data) == shouldCollide)
+            return;
+        setCollisionBit(layer1Data.index, layer2Data.index, shouldCollide);
+        setCollisionBit(layer2Data.index, layer1Data.index, shouldCollide);
+        shouldRebuildCollidingPairs = true;
     }
 
     void addGameObject(GameObject obj, int layerId) {
         var layerData = getLayerData(layerId);
-        if(layerData == null) {
-            layerData = new LayerData(layerId);
-            layers.add(layerData);
-            shouldReSortLayers = true;
-        }
-        layerData.objects.add(obj);
+        if(layerData == null)
+            layerData = createLayer(layerId);
+        if(!layerData.objects.add(obj))
+            return;
+        obj.physics().onLayerMembershipChanged(true);
+        if(!obj.physics().isStatic())
+            layerData.nonStaticObjects.add(obj);
     }
 
     boolean isLayerEmpty(int layerId) {
@@ -118,65 +231,150 @@ public class LayerManager {
         LayerData layerData = getLayerData(layerId);
         if(layerData == null)
             return false;
-        return layerData.objects.remove(obj);
+        layerData.nonStaticObjects.remove(obj);
+        if(!layerData.objects.remove(obj))
+            return false;
+        obj.physics().onLayerMembershipChanged(false);
+        return true;
+    }
+
+    //objects queued for addition count as contained, objects queued for removal do not
+    boolean contains(GameObject obj) {
+        for(int i = 0 ; i < layerCount ; i++) {
+            if(layerTable[i].objects.contains(obj))
+                return true;
+        }
+        return false;
     }
 
     void flushChanges() {
-        layers.flushChanges();
-        for(var layerData : layers)
-            layerData.objects.flushChanges();
+        //layers created since the last flush join the draw-order
+        for(; flushedLayerCount < layerCount ; flushedLayerCount++)
+            layers[flushedLayerCount] = layerTable[flushedLayerCount];
+        for(int i = 0 ; i < flushedLayerCount ; i++) {
+            var layerData = layers[i];
+            layerData.objects.flushChanges(layerData.onObjectRemoved, layerData.onObjectAdded);
+            layerData.nonStaticObjects.flushChanges();
+        }
         if(!shouldReSortLayers)
             return;
-        //re-sort layers
-        var newLayersList = new ModifiableList<LayerData>(false);
-        StreamSupport.stream(layers.spliterator(), false)
-                .sorted(Comparator.comparing(layerData->layerData.drawOrder))
-                .forEach(layerData->newLayersList.add(layerData));
-        layers = newLayersList;
-        layers.flushChanges();
+        //re-sort layers. the sort is stable, so layers of equal draw-order keep their order
+        Arrays.sort(layers, 0, flushedLayerCount, Comparator.comparingInt(layerData -> layerData.drawOrder));
         shouldReSortLayers = false;
+        shouldRebuildCollidingPairs = true;
     }
 
     Iterator<GameObject> iterator() {
-        return new ConcatIterator<GameObject>(
-                StreamSupport.stream(layers.spliterator(), false)
-                .map(layerData -> (Iterable<GameObject>)layerData.objects)
-                ::iterator);
+        return new Cursor(false, false).reset();
+    }
+
+    Cursor openCursor() {
+        return open(forwardCursor);
+    }
+
+    Cursor openReverseCursor() {
+        return open(reverseCursor);
+    }
+
+    Cursor openNonStaticCursor() {
+        return open(nonStaticCursor);
+    }
+
+    //the pooled cursor, or a new one if it is open (such as in a nested iteration)
+    private Cursor open(Cursor pooled) {
+        return pooled.isOpen ? new Cursor(pooled.reverse, pooled.nonStaticOnly).reset() : pooled.reset();
+    }
+
+    Iterable<GameObject> nonStaticObjects() {
+        return nonStaticIterable;
     }
 
     Iterable<GameObject> reverseOrder() {
-        return ()->new ConcatIterator<GameObject>(
-               StreamSupport.stream(layers.reverseOrder().spliterator(), false)
-               .map(layerData -> (Iterable<GameObject>)layerData.objects.reverseOrder())
-               ::iterator);
+        return reverseIterable;
     }
 
     void handleCollisions() {
-        for(int i = 0 ; i < layers.size() ; i++) {
-            for(int j = i ; j < layers.size() ; j++) {
-                if(!layers.get(i).layersThisLayerCollidesWIth.contains(
-                        layers.get(j).layerId))
+        broadphase.onFrameStart();
+        if(shouldRebuildCollidingPairs)
+            rebuildCollidingPairs();
+        for(int pair = 0 ; pair < collidingLayerPairCount ; pair++) {
+            var layer1Data = layers[collidingLayerPairs[2*pair]];
+            var layer2Data = layers[collidingLayerPairs[2*pair+1]];
+            broadphase.findPairs(layer1Data.layerId, layer1Data.objects,
+                    layer2Data.layerId, layer2Data.objects, handlePair);
+        }
+    }
+
+    //lists the pairs of flushed layers that collide, each pair in draw-order
+    private void rebuildCollidingPairs() {
+        collidingLayerPairCount = 0;
+        for(int i = 0 ; i < flushedLayerCount ; i++) {
+            for(int j = i ; j < flushedLayerCount ; j++) {
+                if(!doLayersCollide(layers[i], layers[j]))
                     continue;
-                handleLayers(layers.get(i).objects, layers.get(j).objects);
+                if(collidingLayerPairs.length < 2*(collidingLayerPairCount+1))
+                    collidingLayerPairs = Arrays.copyOf(collidingLayerPairs, 2*collidingLayerPairs.length);
+                collidingLayerPairs[2*collidingLayerPairCount] = i;
+                collidingLayerPairs[2*collidingLayerPairCount+1] = j;
+                collidingLayerPairCount++;
             }
         }
+        shouldRebuildCollidingPairs = false;
+    }
+
+    private LayerData createLayer(int layerId) {
+        if(layerCount == layerTable.length)
+            growLayerTable();
+        var layerData = new LayerData(layerId, layerCount, broadphase);
+        layerTable[layerCount] = layerData;
+        layerIds[layerCount] = layerId;
+        layerCount++;
+        shouldReSortLayers = true;
+        return layerData;
     }
 
-    private void handleLayers(
-            ModifiableList<GameObject> layerObjs1, ModifiableList<GameObject> layerObjs2) {
-        for(int ind1 = 0 ; ind1 < layerObjs1.size() ; ind1++) {
-            int ind2 = 0;
-            if(layerObjs1 == layerObjs2)
-                ind2 = ind1 + 1;
-            for(; ind2 < layerObjs2.size() ; ind2++) {
-                if(layerObjs1.get(ind1) != layerObjs2.get(ind2))
-                    handlePair.accept(layerObjs1.get(ind1), layerObjs2.get(ind2));
+    private void growLayerTable() {
+        int oldCapacity = layerTable.length;
+        int newCapacity = 2*oldCapacity;
+        long[] newMatrix = new long[bitsetWords(newCapacity)];
+        for(int i = 0 ; i < layerCount ; i++) {
+            for(int j = 0 ; j < layerCount ; j++) {
+                int oldBit = i*oldCapacity + j;
+                if((collisionMatrix[oldBit >>> 6] & (1L << oldBit)) != 0) {
+                    int newBit = i*newCapacity + j;
+                    newMatrix[newBit >>> 6] |= 1L << newBit;
+                }
             }
         }
+        collisionMatrix = newMatrix;
+        layerTable = Arrays.copyOf(layerTable, newCapacity);
+        layerIds = Arrays.copyOf(layerIds, newCapacity);
+        layers = Arrays.copyOf(layers, newCapacity);
+    }
+
+    private boolean doLayersCollide(LayerData layer1Data, LayerData layer2Data) {
+        int bit = layer1Data.index*layerTable.length + layer2Data.index;
+        return (collisionMatrix[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private void setCollisionBit(int index1, int index2, boolean value) {
+        int bit = index1*layerTable.length + index2;
+        if(value)
+            collisionMatrix[bit >>> 6] |= 1L << bit;
+        else
+            collisionMatrix[bit >>> 6] &= ~(1L << bit);
+    }
+
+    private static int bitsetWords(int layerCapacity) {
+        return (layerCapacity*layerCapacity + 63) / 64;
     }
 
     private LayerData getLayerData(int layerId) {
-        return layers.findFirst(data -> data.layerId == layerId);
+        for(int i = 0 ; i < layerCount ; i++) {
+            if(layerIds[i] == layerId)
+                return layerTable[i];
+        }
+        return null;
     }
 
     private LayerData getLayerDataThrow(int layerId) {
@@ -10,6 +10,10 @@ import danogl.GameObject;
  */
 public abstract class PairCollisionData extends GameObjectPair {
     protected Collision collision1, collision2;
+    //the last frame in which the pair was handled by GameObjectCollection
+    int lastHandledFrame;
+    //the index of the pair among the entries of the PairCollisionMap that caches it
+    int mapIndex;
 
     /**
      * Constructor. Who knew.
@@ -36,6 +40,20 @@ public abstract class PairCollisionData extends GameObjectPair {
      */
     public void onFrameStart() { }
 
+    /**
+     * The number of contacts between the two objects while they are colliding.
+     * Most pairs touch at a single contact, but some touch at several (such as a box in the corner
+     * of a floor and a wall), each of which is resolved separately. 1 by default.
+     */
+    public int getContactCount() { return 1; }
+
+    /**
+     * Make the collisions (see {@link #getCollision(int)}) describe the given contact,
+     * 0 being the main one. They describe the main contact at the beginning of every frame.
+     * @param contact between 0 and getContactCount()-1.
+     */
+    public void selectContact(int contact) { }
+
     /**
      * Are the two objects currently intersecting
      */
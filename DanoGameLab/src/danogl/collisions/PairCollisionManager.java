@@ -20,6 +20,8 @@ class PairCollisionManager {
     public PairCollisionManager() {
         registerSinglePairCollisionHandler(
                 new AABBPairCollisionHandler());
+        registerSinglePairCollisionHandler(
+                new HeightmapPairCollisionHandler());
     }
 
     public void registerSinglePairCollisionHandler(PairCollisionHandler handler) {
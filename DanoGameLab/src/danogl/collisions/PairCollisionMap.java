@@ -0,0 +1,140 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+
+/**
+ * package-private, used by GameObjectCollection to cache the collisions
+ * of pairs of objects. Implemented as an open-addressing table whose keys are
+ * made of the ids of the pair's objects, in ascending order, so that a pair
+ * is found regardless of the order of its objects, and without allocating.
+ * The collision data are also kept in a dense array, so that going over them costs
+ * the number of pairs rather than the capacity of the table, and the table shrinks
+ * back once most of its pairs are removed.
+ * @author Dan Nirel
+ */
+class PairCollisionMap {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private PairCollisionData[] values = new PairCollisionData[INITIAL_CAPACITY];
+    //the collision data in the table, in no particular order. each knows its index
+    private PairCollisionData[] entries = new PairCollisionData[INITIAL_CAPACITY/2];
+    private int size = 0;
+
+    /**
+     * The key of the pair (obj1, obj2), which is also the key of (obj2, obj1).
+     */
+    static long keyOf(GameObject obj1, GameObject obj2) {
+        int id1 = obj1.getId(), id2 = obj2.getId();
+        if(id1 > id2) {
+            int temp = id1;
+            id1 = id2;
+            id2 = temp;
+        }
+        return ((long)id1 << 32) | (id2 & 0xffffffffL);
+    }
+
+    /** The collision data of the pair, or null if there is none */
+    PairCollisionData get(GameObject obj1, GameObject obj2) {
+        long key = keyOf(obj1, obj2);
+        int mask = keys.length-1;
+        for(int slot = slotFor(key, mask) ; values[slot] != null ; slot = (slot+1) & mask) {
+            if(keys[slot] == key)
+                return values[slot];
+        }
+        return null;
+    }
+
+    /** Map the pair of the collision data's objects to the collision data */
+    void put(PairCollisionData collisionData) {
+        if(2*(size+1) > keys.length)
+            resize(2*keys.length);
+        insert(keyOf(collisionData.go1(), collisionData.go2()), collisionData);
+    }
+
+    /** Remove the collision data of the pair, returning whether there was any */
+    boolean remove(GameObject obj1, GameObject obj2) {
+        long key = keyOf(obj1, obj2);
+        int mask = keys.length-1;
+        int slot = slotFor(key, mask);
+        for(; values[slot] == null || keys[slot] != key ; slot = (slot+1) & mask) {
+            if(values[slot] == null)
+                return false;
+        }
+        removeEntry(values[slot]);
+        values[slot] = null;
+        size--;
+        //shift back the entries of the same probe sequence, so that lookups don't stop early
+        for(int next = (slot+1) & mask ; values[next] != null ; next = (next+1) & mask) {
+            int home = slotFor(keys[next], mask);
+            if(((next-home) & mask) >= ((next-slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = null;
+                slot = next;
+            }
+        }
+        //a table that is mostly empty would make put and remove probe longer for nothing
+        if(keys.length > INITIAL_CAPACITY && 8*size < keys.length)
+            resize(keys.length/2);
+        return true;
+    }
+
+    /**
+     * The collision data at the given index, between 0 and size()-1. The indices of
+     * the pairs change when the map is modified, so it must not be modified meanwhile.
+     */
+    PairCollisionData entryAt(int index) {
+        return entries[index];
+    }
+
+    /** The number of pairs in the map */
+    int size() { return size; }
+
+    /** The number of slots in the table */
+    int capacity() { return keys.length; }
+
+    private void insert(long key, PairCollisionData collisionData) {
+        int mask = keys.length-1;
+        int slot = slotFor(key, mask);
+        for(; values[slot] != null ; slot = (slot+1) & mask) {
+            if(keys[slot] == key) {
+                collisionData.mapIndex = values[slot].mapIndex;
+                entries[collisionData.mapIndex] = collisionData;
+                values[slot] = collisionData;
+                return;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = collisionData;
+        collisionData.mapIndex = size;
+        entries[size] = collisionData;
+        size++;
+    }
+
+    private void removeEntry(PairCollisionData collisionData) {
+        var last = entries[size-1];
+        entries[collisionData.mapIndex] = last;
+        last.mapIndex = collisionData.mapIndex;
+        entries[size-1] = null;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        PairCollisionData[] oldValues = values;
+        keys = new long[newCapacity];
+        values = new PairCollisionData[newCapacity];
+        //the table is at most half full
+        entries = new PairCollisionData[newCapacity/2];
+        size = 0;
+        for(int i = 0 ; i < oldKeys.length ; i++) {
+            if(oldValues[i] != null)
+                insert(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int slotFor(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,257 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * A broadphase that buckets the objects of a layer into a uniform grid of square cells,
+ * and only pairs objects that share a cell and whose bounds overlap.
+ * The cost of a frame thus grows with the number of objects and with their local density,
+ * instead of with the product of the layers' sizes.
+ * <br>The cell size should be on the order of the size of a typical colliding object:
+ * cells that are too small make large objects span many cells, and cells that are too
+ * large put many objects in each cell.
+ * <br>The grid is a flat open-addressing table, reused between frames, so that
+ * building it does not allocate once it has grown to the size of the world.
+ * <br>Objects whose bounds span too many cells (or are not finite) are not put in the grid;
+ * they are kept in a separate list and checked against every object of the other layer.
+ * @author Dan Nirel
+ */
+public class SpatialHashBroadphase implements Broadphase {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_ENTRY = -1;
+    //an object spanning more cells than this along an axis is not put in the grid
+    private static final int MAX_CELLS_PER_AXIS = 64;
+    //cells beyond this distance from the origin are not used, so cell coordinates never overflow
+    private static final double MAX_CELL_COORDINATE = 1 << 30;
+
+    private final float cellSize;
+
+    //the cells: an open-addressing table from a cell's key to the first entry in it.
+    //a cell is valid only if its stamp is the stamp of the current build.
+    private long[] cellKeys = new long[INITIAL_CAPACITY];
+    private int[] cellHeads = new int[INITIAL_CAPACITY];
+    private int[] cellStamps = new int[INITIAL_CAPACITY];
+    private int cellsInUse = 0;
+    private int stamp = 0;
+
+    //the entries: singly-linked lists of indices into the indexed layer
+    private int[] entryObjIndex = new int[INITIAL_CAPACITY];
+    private int[] entryNext = new int[INITIAL_CAPACITY];
+    private int entryCount = 0;
+
+    //indices of the indexed layer's objects that are too large for the grid
+    private int[] oversized = new int[16];
+    private int oversizedCount = 0;
+
+    //the bounds of the indexed layer's objects: minX, minY, maxX, maxY
+    private float[] bounds = new float[4*INITIAL_CAPACITY];
+    private Rectangle2D.Float rect = new Rectangle2D.Float();
+
+    /**
+     * Construct a spatial-hash broadphase.
+     * @param cellSize the width and height of a grid cell, in world coordinates.
+     */
+    public SpatialHashBroadphase(float cellSize) {
+        if(!(cellSize > 0))
+            throw new IllegalArgumentException("Cell size must be positive");
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * The width and height of a grid cell, in world coordinates.
+     */
+    public float getCellSize() { return cellSize; }
+
+    @Override
+    public void findPairs(int layer1Id, ModifiableList<GameObject> layerObjs1,
+                          int layer2Id, ModifiableList<GameObject> layerObjs2,
+                          BiConsumer<GameObject, GameObject> handlePair) {
+        if(layerObjs1.size() == 0 || layerObjs2.size() == 0)
+            return;
+        boolean sameLayer = layerObjs1 == layerObjs2;
+        buildGrid(layerObjs2);
+
+        for(int ind1 = 0 ; ind1 < layerObjs1.size() ; ind1++) {
+            var obj1 = layerObjs1.get(ind1);
+            float minX, minY, maxX, maxY;
+            if(sameLayer) {
+                minX = bounds[4*ind1];
+                minY = bounds[4*ind1+1];
+                maxX = bounds[4*ind1+2];
+                maxY = bounds[4*ind1+3];
+            }
+            else {
+                ColliderBounds.worldBounds(obj1, rect);
+                minX = rect.x;
+                minY = rect.y;
+                maxX = rect.x + rect.width;
+                maxY = rect.y + rect.height;
+            }
+            if(!fitsInGrid(minX, minY, maxX, maxY)) {
+                //too large for the grid: check against every object of the other layer
+                for(int ind2 = sameLayer ? ind1+1 : 0 ; ind2 < layerObjs2.size() ; ind2++)
+                    reportIfOverlapping(obj1, minX, minY, maxX, maxY, layerObjs2, ind2, handlePair);
+                continue;
+            }
+            for(int i = 0 ; i < oversizedCount ; i++) {
+                int ind2 = oversized[i];
+                if(!sameLayer || ind2 > ind1)
+                    reportIfOverlapping(obj1, minX, minY, maxX, maxY, layerObjs2, ind2, handlePair);
+            }
+            int cellX1 = cellOf(minX), cellX2 = cellOf(maxX);
+            int cellY1 = cellOf(minY), cellY2 = cellOf(maxY);
+            for(int cellX = cellX1 ; cellX <= cellX2 ; cellX++) {
+                for(int cellY = cellY1 ; cellY <= cellY2 ; cellY++) {
+                    int entry = findCellHead(cellKey(cellX, cellY));
+                    for(; entry != NO_ENTRY ; entry = entryNext[entry]) {
+                        int ind2 = entryObjIndex[entry];
+                        if(sameLayer && ind2 <= ind1)
+                            continue;
+                        int b = 4*ind2;
+                        if(bounds[b] > maxX || bounds[b+2] < minX
+                                || bounds[b+1] > maxY || bounds[b+3] < minY)
+                            continue;
+                        //the pair shares several cells if both span more than one.
+                        //report it only from the cell containing the top-left corner
+                        //of the overlap, which both objects are guaranteed to cover.
+                        if(cellOf(Math.max(minX, bounds[b])) != cellX
+                                || cellOf(Math.max(minY, bounds[b+1])) != cellY)
+                            continue;
+                        var obj2 = layerObjs2.get(ind2);
+                        if(obj1 != obj2)
+                            handlePair.accept(obj1, obj2);
+                    }
+                }
+            }
+        }
+    }
+
+    private void reportIfOverlapping(GameObject obj1, float minX, float minY, float maxX, float maxY,
+                                     ModifiableList<GameObject> layerObjs2, int ind2,
+                                     BiConsumer<GameObject, GameObject> handlePair) {
+        int b = 4*ind2;
+        if(bounds[b] > maxX || bounds[b+2] < minX || bounds[b+1] > maxY || bounds[b+3] < minY)
+            return;
+        var obj2 = layerObjs2.get(ind2);
+        if(obj1 != obj2)
+            handlePair.accept(obj1, obj2);
+    }
+
+    private void buildGrid(ModifiableList<GameObject> layerObjs) {
+        if(stamp == Integer.MAX_VALUE) {
+            Arrays.fill(cellStamps, 0);
+            stamp = 0;
+        }
+        stamp++;
+        cellsInUse = 0;
+        entryCount = 0;
+        oversizedCount = 0;
+        if(bounds.length < 4*layerObjs.size())
+            bounds = new float[Math.max(2*bounds.length, 4*layerObjs.size())];
+
+        for(int ind = 0 ; ind < layerObjs.size() ; ind++) {
+            ColliderBounds.worldBounds(layerObjs.get(ind), rect);
+            int b = 4*ind;
+            bounds[b] = rect.x;
+            bounds[b+1] = rect.y;
+            bounds[b+2] = rect.x + rect.width;
+            bounds[b+3] = rect.y + rect.height;
+            if(!fitsInGrid(bounds[b], bounds[b+1], bounds[b+2], bounds[b+3])) {
+                if(oversizedCount == oversized.length)
+                    oversized = Arrays.copyOf(oversized, 2*oversizedCount);
+                oversized[oversizedCount++] = ind;
+                continue;
+            }
+            int cellX2 = cellOf(bounds[b+2]), cellY2 = cellOf(bounds[b+3]);
+            for(int cellX = cellOf(bounds[b]) ; cellX <= cellX2 ; cellX++) {
+                for(int cellY = cellOf(bounds[b+1]) ; cellY <= cellY2 ; cellY++)
+                    addEntry(cellKey(cellX, cellY), ind);
+            }
+        }
+    }
+
+    private void addEntry(long key, int objIndex) {
+        if(entryCount == entryObjIndex.length) {
+            entryObjIndex = Arrays.copyOf(entryObjIndex, 2*entryCount);
+            entryNext = Arrays.copyOf(entryNext, 2*entryCount);
+        }
+        if(2*(cellsInUse+1) > cellKeys.length)
+            growCells();
+        int slot = slotOf(key);
+        if(cellStamps[slot] != stamp) {
+            cellStamps[slot] = stamp;
+            cellKeys[slot] = key;
+            cellHeads[slot] = NO_ENTRY;
+            cellsInUse++;
+        }
+        entryObjIndex[entryCount] = objIndex;
+        entryNext[entryCount] = cellHeads[slot];
+        cellHeads[slot] = entryCount;
+        entryCount++;
+    }
+
+    private int findCellHead(long key) {
+        int mask = cellKeys.length-1;
+        for(int slot = hash(key) & mask ; cellStamps[slot] == stamp ; slot = (slot+1) & mask) {
+            if(cellKeys[slot] == key)
+                return cellHeads[slot];
+        }
+        return NO_ENTRY;
+    }
+
+    //returns the slot holding the key, or the empty slot where it should be placed
+    private int slotOf(long key) {
+        int mask = cellKeys.length-1;
+        int slot = hash(key) & mask;
+        while(cellStamps[slot] == stamp && cellKeys[slot] != key)
+            slot = (slot+1) & mask;
+        return slot;
+    }
+
+    private void growCells() {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        int[] oldStamps = cellStamps;
+        cellKeys = new long[2*oldKeys.length];
+        cellHeads = new int[2*oldKeys.length];
+        cellStamps = new int[2*oldKeys.length];
+        for(int oldSlot = 0 ; oldSlot < oldKeys.length ; oldSlot++) {
+            if(oldStamps[oldSlot] != stamp)
+                continue;
+            int slot = slotOf(oldKeys[oldSlot]);
+            cellStamps[slot] = stamp;
+            cellKeys[slot] = oldKeys[oldSlot];
+            cellHeads[slot] = oldHeads[oldSlot];
+        }
+    }
+
+    //whether the bounds are finite, near enough to the origin, and span few enough cells
+    private boolean fitsInGrid(float minX, float minY, float maxX, float maxY) {
+        return fitsInGrid(minX, maxX) && fitsInGrid(minY, maxY);
+    }
+
+    private boolean fitsInGrid(float min, float max) {
+        double minCell = Math.floor((double)min/cellSize), maxCell = Math.floor((double)max/cellSize);
+        //false for NaN as well
+        return minCell >= -MAX_CELL_COORDINATE && maxCell <= MAX_CELL_COORDINATE
+                && maxCell - minCell < MAX_CELLS_PER_AXIS;
+    }
+
+    private int cellOf(float coordinate) {
+        return (int)Math.floor(coordinate/cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long)cellX << 32) | (cellY & 0xffffffffL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+}
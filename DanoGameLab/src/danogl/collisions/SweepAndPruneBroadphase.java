@@ -0,0 +1,260 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+
+import java.awt.geom.Rectangle2D;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An incremental sweep-and-prune broadphase.
+ * The objects of every layer are kept sorted along the x-axis across frames.
+ * Since most objects move little (or not at all) between frames, the lists are nearly sorted
+ * at the beginning of every frame, and an insertion sort only shifts the objects that moved
+ * past their neighbours. Pairs are then found by sweeping the sorted lists.
+ * The bounds of static objects are only computed when they are added.
+ * <br>This suits worlds that are long along the x-axis and made mostly of objects that
+ * do not move, such as side-scrolling platformers.
+ * @author Dan Nirel
+ */
+public class SweepAndPruneBroadphase implements Broadphase {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_LAYER_CAPACITY = 8;
+
+    /**
+     * The objects of a single layer, sorted by the left edge of their bounds.
+     */
+    private static class AxisList {
+        GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+        float[] minX = new float[INITIAL_CAPACITY];
+        float[] maxX = new float[INITIAL_CAPACITY];
+        float[] minY = new float[INITIAL_CAPACITY];
+        float[] maxY = new float[INITIAL_CAPACITY];
+        int size = 0;
+        //the widest object in the list, used to skip objects far to the left of a query
+        float maxWidth = 0;
+        List<GameObject> pendingAdditions = new ArrayList<>();
+        Set<GameObject> pendingRemovals = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        void ensureCapacity(int capacity) {
+            if(objects.length >= capacity)
+                return;
+            int newCapacity = Math.max(2*objects.length, capacity);
+            objects = Arrays.copyOf(objects, newCapacity);
+            minX = Arrays.copyOf(minX, newCapacity);
+            maxX = Arrays.copyOf(maxX, newCapacity);
+            minY = Arrays.copyOf(minY, newCapacity);
+            maxY = Arrays.copyOf(maxY, newCapacity);
+        }
+
+        void set(int index, GameObject obj, Rectangle2D.Float bounds) {
+            objects[index] = obj;
+            minX[index] = bounds.x;
+            maxX[index] = bounds.x + bounds.width;
+            minY[index] = bounds.y;
+            maxY[index] = bounds.y + bounds.height;
+        }
+
+        void move(int from, int to) {
+            objects[to] = objects[from];
+            minX[to] = minX[from];
+            maxX[to] = maxX[from];
+            minY[to] = minY[from];
+            maxY[to] = maxY[from];
+        }
+
+        //index of the first object whose minX is not smaller than x
+        int lowerBound(float x) {
+            int low = 0, high = size;
+            while(low < high) {
+                int mid = (low+high) >>> 1;
+                if(minX[mid] < x)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+    }
+
+    //the lists of the layers, in order of their first object. games have few layers,
+    //so ids are looked up by a linear scan, as in LayerManager
+    private AxisList[] axisLists = new AxisList[INITIAL_LAYER_CAPACITY];
+    private int[] layerIds = new int[INITIAL_LAYER_CAPACITY];
+    private int layerCount = 0;
+    private final Rectangle2D.Float rect = new Rectangle2D.Float();
+
+    @Override
+    public void onGameObjectAdded(GameObject obj, int layerId) {
+        //an object that was removed and added again in the same flush (such as a pooled object
+        //that was reset) may have moved, so its old entry is still removed, and it is inserted
+        //again with fresh bounds
+        getAxisList(layerId).pendingAdditions.add(obj);
+    }
+
+    @Override
+    public void onGameObjectRemoved(GameObject obj, int layerId) {
+        var axisList = getAxisList(layerId);
+        for(int i = 0 ; i < axisList.pendingAdditions.size() ; i++) {
+            if(axisList.pendingAdditions.get(i) == obj) {
+                axisList.pendingAdditions.remove(i);
+                return;
+            }
+        }
+        axisList.pendingRemovals.add(obj);
+    }
+
+    @Override
+    public void onFrameStart() {
+        for(int i = 0 ; i < layerCount ; i++) {
+            var axisList = axisLists[i];
+            applyRemovals(axisList);
+            updateAndSort(axisList);
+            applyAdditions(axisList);
+        }
+    }
+
+    @Override
+    public void findPairs(int layer1Id, ModifiableList<GameObject> layerObjs1,
+                          int layer2Id, ModifiableList<GameObject> layerObjs2,
+                          BiConsumer<GameObject, GameObject> handlePair) {
+        var list1 = findAxisList(layer1Id);
+        var list2 = findAxisList(layer2Id);
+        if(list1 == null || list2 == null || list1.size == 0 || list2.size == 0)
+            return;
+        if(list1 == list2)
+            sweepSingleList(list1, handlePair);
+        else
+            sweepTwoLists(list1, list2, handlePair);
+    }
+
+    private AxisList getAxisList(int layerId) {
+        var axisList = findAxisList(layerId);
+        if(axisList != null)
+            return axisList;
+        if(layerCount == axisLists.length) {
+            axisLists = Arrays.copyOf(axisLists, 2*layerCount);
+            layerIds = Arrays.copyOf(layerIds, 2*layerCount);
+        }
+        axisList = new AxisList();
+        axisLists[layerCount] = axisList;
+        layerIds[layerCount] = layerId;
+        layerCount++;
+        return axisList;
+    }
+
+    private AxisList findAxisList(int layerId) {
+        for(int i = 0 ; i < layerCount ; i++) {
+            if(layerIds[i] == layerId)
+                return axisLists[i];
+        }
+        return null;
+    }
+
+    private void applyRemovals(AxisList axisList) {
+        if(axisList.pendingRemovals.isEmpty())
+            return;
+        int newSize = 0;
+        for(int i = 0 ; i < axisList.size ; i++) {
+            if(!axisList.pendingRemovals.contains(axisList.objects[i]))
+                axisList.move(i, newSize++);
+        }
+        Arrays.fill(axisList.objects, newSize, axisList.size, null);
+        axisList.size = newSize;
+        axisList.pendingRemovals.clear();
+    }
+
+    //refreshes the bounds of all non-static objects, then restores the order with an
+    //insertion sort. objects that did not move past a neighbour are not shifted.
+    private void updateAndSort(AxisList axisList) {
+        float maxWidth = 0;
+        for(int i = 0 ; i < axisList.size ; i++) {
+            if(!axisList.objects[i].physics().isStatic()) {
+                ColliderBounds.worldBounds(axisList.objects[i], rect);
+                axisList.set(i, axisList.objects[i], rect);
+            }
+            maxWidth = Math.max(maxWidth, axisList.maxX[i] - axisList.minX[i]);
+        }
+        axisList.maxWidth = maxWidth;
+        insertionSort(axisList, 1);
+    }
+
+    private void applyAdditions(AxisList axisList) {
+        if(axisList.pendingAdditions.isEmpty())
+            return;
+        int oldSize = axisList.size;
+        axisList.ensureCapacity(oldSize + axisList.pendingAdditions.size());
+        for(var obj : axisList.pendingAdditions) {
+            ColliderBounds.worldBounds(obj, rect);
+            axisList.set(axisList.size++, obj, rect);
+            axisList.maxWidth = Math.max(axisList.maxWidth, rect.width);
+        }
+        axisList.pendingAdditions.clear();
+        insertionSort(axisList, oldSize);
+    }
+
+    //sorts the list by minX, assuming its first startIndex elements are already sorted
+    private static void insertionSort(AxisList axisList, int startIndex) {
+        for(int i = Math.max(startIndex, 1) ; i < axisList.size ; i++) {
+            if(axisList.minX[i-1] <= axisList.minX[i])
+                continue;
+            var obj = axisList.objects[i];
+            float minX = axisList.minX[i], maxX = axisList.maxX[i];
+            float minY = axisList.minY[i], maxY = axisList.maxY[i];
+            int j = i;
+            for(; j > 0 && axisList.minX[j-1] > minX ; j--)
+                axisList.move(j-1, j);
+            axisList.objects[j] = obj;
+            axisList.minX[j] = minX;
+            axisList.maxX[j] = maxX;
+            axisList.minY[j] = minY;
+            axisList.maxY[j] = maxY;
+        }
+    }
+
+    private static void sweepSingleList(AxisList list, BiConsumer<GameObject, GameObject> handlePair) {
+        for(int i = 0 ; i < list.size ; i++) {
+            for(int k = i+1 ; k < list.size && list.minX[k] <= list.maxX[i] ; k++) {
+                if(overlapY(list, i, list, k) && list.objects[i] != list.objects[k])
+                    handlePair.accept(list.objects[i], list.objects[k]);
+            }
+        }
+    }
+
+    //every pair that overlaps along x is reported by whichever of its objects begins first
+    //(or by the object of list1 on a tie), while scanning the other list forward
+    private static void sweepTwoLists(AxisList list1, AxisList list2,
+                                      BiConsumer<GameObject, GameObject> handlePair) {
+        int i = 0, j = 0;
+        while(i < list1.size && j < list2.size) {
+            if(list1.minX[i] <= list2.minX[j]) {
+                //objects of list1 that end before list2[j] could begin cannot overlap anything left
+                if(list1.minX[i] + list1.maxWidth < list2.minX[j]) {
+                    i = Math.max(i+1, list1.lowerBound(list2.minX[j] - list1.maxWidth));
+                    continue;
+                }
+                for(int k = j ; k < list2.size && list2.minX[k] <= list1.maxX[i] ; k++) {
+                    if(overlapY(list1, i, list2, k) && list1.objects[i] != list2.objects[k])
+                        handlePair.accept(list1.objects[i], list2.objects[k]);
+                }
+                i++;
+            }
+            else {
+                if(list2.minX[j] + list2.maxWidth < list1.minX[i]) {
+                    j = Math.max(j+1, list2.lowerBound(list1.minX[i] - list2.maxWidth));
+                    continue;
+                }
+                for(int k = i ; k < list1.size && list1.minX[k] <= list2.maxX[j] ; k++) {
+                    if(overlapY(list1, k, list2, j) && list1.objects[k] != list2.objects[j])
+                        handlePair.accept(list1.objects[k], list2.objects[j]);
+                }
+                j++;
+            }
+        }
+    }
+
+    private static boolean overlapY(AxisList list1, int index1, AxisList list2, int index2) {
+        return list1.minY[index1] <= list2.maxY[index2] && list2.minY[index2] <= list1.maxY[index1];
+    }
+}
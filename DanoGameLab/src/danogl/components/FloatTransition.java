@@ -0,0 +1,102 @@
+package danogl.components;
+
+import danogl.GameObject;
+
+/**
+ * Transition a float over a range. Behaves like a {@link Transition} of Float,
+ * but the value is interpolated and passed to the callback as a primitive,
+ * so a running transition does not allocate.
+ * @author Dan Nirel
+ */
+public class FloatTransition extends PrimitiveTransition {
+
+    /************* Inner Types **************/
+    /**
+     * Interpolates between two floats
+     */
+    @FunctionalInterface
+    public interface FloatInterpolator {
+        /**
+         * Interpolate between two values
+         * @param val1 initial value
+         * @param val2 final value
+         * @param t a range parameter, where 0 represents initial value, 1 represents the final
+         *          value, and in-between values are a mix of the two. The legal range of this
+         *          variable is [0,1].
+         * @return A value in the range between val1 and val2
+         */
+        float interpolate(float val1, float val2, float t);
+    }
+
+    /**
+     * Receives the values of a FloatTransition
+     */
+    @FunctionalInterface
+    public interface FloatConsumer {
+        /**
+         * Apply a value of the transition
+         * @param value the current value
+         */
+        void accept(float value);
+    }
+
+    /************* Constants **************/
+    /**
+     * A built-in linear interpolator. The transition will advance from the
+     * initial value to the final in a straight line.
+     */
+    public static final FloatInterpolator LINEAR_INTERPOLATOR = (n1,n2,t)->(1-t)*n1+t*n2;
+    /**
+     * A built-in cubic interpolator. Will start slowly from the initial value,
+     * accelerate, then slow when approaching its goal.
+     */
+    public static final FloatInterpolator CUBIC_INTERPOLATOR = (n1,n2,t)
+            ->(2*n1-2*n2)*t*t*t + (3*n2-3*n1)*t*t + n1;
+
+    /************* Fields **************/
+    private final FloatConsumer setValueCallback;
+    private final float initialValue;
+    private final float finalValue;
+    private final FloatInterpolator interpolator;
+
+    /************* Methods **************/
+
+    /**
+     * Create a new FloatTransition. After creating the transition it will immediately
+     * be applied. There might not be any need for the reference to the created object.
+     * @param gameObjectToUpdateThrough The transition will leech onto this object to get
+     *                                  its update method called.
+     * @param setValueCallback Each value of the transition will be sent to this callback.
+     * @param initialValue The value to start from.
+     * @param finalValue A final value (the other edge value).
+     * @param interpolator A function to interpolate between the edge values, such as
+     *                     {@link #LINEAR_INTERPOLATOR}.
+     * @param transitionTime The time for a single transition from edge to edge, in seconds.
+     * @param transitionType Type of transition.
+     * @param onReachingFinalValue A function to be called every time the transition reached the final value.
+     * @see Transition
+     */
+    public FloatTransition(
+            GameObject gameObjectToUpdateThrough,
+            FloatConsumer setValueCallback,
+            float initialValue,
+            float finalValue,
+            FloatInterpolator interpolator,
+            float transitionTime,
+            Transition.TransitionType transitionType,
+            Runnable onReachingFinalValue) {
+        super(gameObjectToUpdateThrough, transitionTime, transitionType, onReachingFinalValue);
+        if(setValueCallback == null || interpolator == null)
+            throw new NullPointerException("None of Transition's parameters may be null except onReachingFinalValue");
+        this.setValueCallback = setValueCallback;
+        this.initialValue = initialValue;
+        this.finalValue = finalValue;
+        this.interpolator = interpolator;
+        start();
+    }
+
+    @Override
+    void applyValue(float t) {
+        setValueCallback.accept(interpolator.interpolate(initialValue, finalValue, t));
+    }
+}
@@ -15,10 +15,22 @@ public class GameObjectPhysics {
      * this object's velocity will not be affected by the collision.
      */
     public static final float IMMOVABLE_MASS = Float.MAX_VALUE;
+    /**
+     * The number of consecutive frames a non-static object must spend at rest
+     * before it is put to sleep.
+     */
+    public static final int FRAMES_AT_REST_BEFORE_SLEEPING = 30;
 
     private Collider collider;
     private Vector2 dirToPrevent = null;
     private float mass = 1f;
+    private boolean isStatic = false;
+    private boolean isSleeping = false;
+    private int framesAtRest = 0;
+    //the bounds of the object when it fell asleep, to notice when it is moved from outside
+    private float sleepingX, sleepingY, sleepingWidth, sleepingHeight;
+    //the number of layers of GameObjectCollections the object is in, or queued for
+    private int layerMemberships = 0;
 
     /**
      * Returns the object's collider
@@ -67,4 +79,102 @@ public class GameObjectPhysics {
     public void setMass(float mass) {
         this.mass = mass;
     }
+
+    /**
+     * Is the GameObject static. See {@link #setStatic(boolean)}.
+     */
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    /**
+     * Marks the GameObject as static: an object that never moves or changes on its own,
+     * such as a piece of terrain. Static objects are not updated by the GameManager
+     * (so neither are their components), and a GameObjectCollection never checks two
+     * static objects for collisions with each other.
+     * They can still be moved explicitly, for example with setTopLeftCorner.
+     * <br>A collection only updates the objects that were not static when they were added to it,
+     * so this must be set before the object is added to a GameObjectCollection.
+     * @throws IllegalStateException If the object is in a GameObjectCollection (or queued for
+     * addition to one) and isStatic differs from its current value.
+     */
+    public void setStatic(boolean isStatic) {
+        if(isStatic != this.isStatic && layerMemberships > 0)
+            throw new IllegalStateException(
+                    "Cannot change whether a GameObject is static while it is in a GameObjectCollection");
+        this.isStatic = isStatic;
+        if(isStatic)
+            isSleeping = false;
+    }
+
+    /**
+     * Is the GameObject sleeping. A non-static object falls asleep after spending
+     * {@link #FRAMES_AT_REST_BEFORE_SLEEPING} frames at rest: without velocity, and either
+     * without acceleration or with its acceleration cancelled by a collision.
+     * A sleeping object skips the integration of its movement, and does not start collisions
+     * with static or other sleeping objects. The collisions it is already in are still handled.
+     * Its components are still updated.
+     * It wakes up as soon as it gains a velocity or an acceleration, or when it
+     * enters or exits a collision. Moving or resizing it through the GameObject's setters
+     * (or its reset) wakes it up immediately; changing its Transform directly wakes it up
+     * in its next update, so call {@link #wakeUp()} to have the change take part in the
+     * collisions of the current frame.
+     */
+    public boolean isSleeping() {
+        return isSleeping;
+    }
+
+    /**
+     * Is the GameObject neither static nor sleeping.
+     */
+    public boolean isActive() {
+        return !isStatic && !isSleeping;
+    }
+
+    /**
+     * Wakes the GameObject up, if it is sleeping.
+     * @see #isSleeping()
+     */
+    public void wakeUp() {
+        isSleeping = false;
+        framesAtRest = 0;
+    }
+
+    /**
+     * Records that the GameObject was added to, or removed from, a layer of a GameObjectCollection.
+     * Called by the collection, so that {@link #setStatic(boolean)} can reject changes while the
+     * object is in one.
+     * @param isAdded true if the object was added, false if it was removed.
+     */
+    public void onLayerMembershipChanged(boolean isAdded) {
+        layerMemberships += isAdded ? 1 : -1;
+    }
+
+    /**
+     * Updates the sleeping state of the GameObject according to its motion,
+     * before its movement in this frame is integrated. Called by GameObject.update.
+     * @param transform the transform of the GameObject
+     */
+    public void updateSleepState(Transform transform) {
+        if(isStatic)
+            return;
+        var topLeftCorner = transform.getTopLeftCorner();
+        var dimensions = transform.getDimensions();
+        boolean isAtRest = transform.getVelocity().isZero() &&
+                (transform.getAcceleration().isZero() || !transform.isAccelerationEnabled());
+        boolean wasMoved = isSleeping &&
+                (topLeftCorner.x() != sleepingX || topLeftCorner.y() != sleepingY ||
+                 dimensions.x() != sleepingWidth || dimensions.y() != sleepingHeight);
+        if(!isAtRest || wasMoved) {
+            wakeUp();
+            return;
+        }
+        if(!isSleeping && ++framesAtRest >= FRAMES_AT_REST_BEFORE_SLEEPING) {
+            isSleeping = true;
+            sleepingX = topLeftCorner.x();
+            sleepingY = topLeftCorner.y();
+            sleepingWidth = dimensions.x();
+            sleepingHeight = dimensions.y();
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package danogl.components;
+
+import danogl.GameObject;
+
+/**
+ * package-private.
+ * The common part of the transitions over primitive values: advances a t parameter
+ * between 0 and 1 exactly like {@link Transition} does, and hands it to the subclass,
+ * which interpolates and applies the value without boxing it.
+ * @see FloatTransition
+ * @see Vector2Transition
+ * @author Dan Nirel
+ */
+abstract class PrimitiveTransition implements Component {
+    private final GameObject gameObjectToUpdateThrough;
+    private final float transitionTime;
+    private final Transition.TransitionType transitionType;
+    private final Runnable onReachingFinalValue;
+    private float t = 0;
+    private int tAdvancementFactor = 1;
+
+    PrimitiveTransition(
+            GameObject gameObjectToUpdateThrough,
+            float transitionTime,
+            Transition.TransitionType transitionType,
+            Runnable onReachingFinalValue) {
+        if(gameObjectToUpdateThrough == null || transitionType == null)
+            throw new NullPointerException("None of Transition's parameters may be null except onReachingFinalValue");
+        this.gameObjectToUpdateThrough = gameObjectToUpdateThrough;
+        this.transitionTime = transitionTime;
+        this.transitionType = transitionType;
+        this.onReachingFinalValue = onReachingFinalValue;
+    }
+
+    /**
+     * Starts the transition by adding it to the GameObject it updates through.
+     * Called by the subclass constructor once the subclass is fully initialized.
+     */
+    void start() {
+        gameObjectToUpdateThrough.addComponent(this);
+    }
+
+    /**
+     * Interpolates the value at t and applies it.
+     * @param t the range parameter, in [0,1]
+     */
+    abstract void applyValue(float t);
+
+    @Override
+    public void update(float deltaTime) {
+        t += tAdvancementFactor * deltaTime/transitionTime;
+        t = Math.max(Math.min(1, t), 0);
+        applyValue(t);
+        if(t >= 1.0) {
+            if(onReachingFinalValue != null)
+                onReachingFinalValue.run();
+            switch(transitionType) {
+                case TRANSITION_BACK_AND_FORTH:
+                    tAdvancementFactor *= -1;
+                    break;
+                case TRANSITION_LOOP:
+                    t = 0;
+                    break;
+                case TRANSITION_ONCE:
+                    gameObjectToUpdateThrough.removeComponent(this);
+                    return;
+            }
+        }
+        if(t <= 0) //then going back and forth
+            tAdvancementFactor *= -1;
+    }
+}
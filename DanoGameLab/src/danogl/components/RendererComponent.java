@@ -48,6 +48,19 @@ public class RendererComponent implements Component {
                 isFlippedHorizontally, isFlippedVertically, opaqueness);
     }
 
+    /**
+     * Return the component to the state it had when it was constructed with the given
+     * Renderable: not rotated, not flipped, and opaque.
+     * @param renderable the new image. Can be null.
+     */
+    public void reset(Renderable renderable) {
+        this.renderable = renderable;
+        renderableDegreesCounterclockwise = 0;
+        isFlippedHorizontally = false;
+        isFlippedVertically = false;
+        opaqueness = 1;
+    }
+
     /**
      * @return The current Renderable.
      */
@@ -148,8 +161,8 @@ public class RendererComponent implements Component {
      * @param afterFadeIn a function to execute when the fadeIn is over
      */
     public void fadeIn(float fadeInTime, Runnable afterFadeIn) {
-        new Transition<>(gameObject, this::setOpaqueness, getOpaqueness(), 1f,
-                Transition.LINEAR_INTERPOLATOR_FLOAT, fadeInTime,
+        new FloatTransition(gameObject, this::setOpaqueness, getOpaqueness(), 1f,
+                FloatTransition.LINEAR_INTERPOLATOR, fadeInTime,
                 Transition.TransitionType.TRANSITION_ONCE,
                 afterFadeIn);
     }
@@ -160,8 +173,8 @@ public class RendererComponent implements Component {
      * @param afterFadeOut a function to execute when the fadeOut is over
      */
     public void fadeOut(float fadeOutTime, Runnable afterFadeOut) {
-        new Transition<>(gameObject, this::setOpaqueness, getOpaqueness(), 0f,
-                Transition.LINEAR_INTERPOLATOR_FLOAT, fadeOutTime,
+        new FloatTransition(gameObject, this::setOpaqueness, getOpaqueness(), 0f,
+                FloatTransition.LINEAR_INTERPOLATOR, fadeOutTime,
                 Transition.TransitionType.TRANSITION_ONCE,
                 afterFadeOut);
     }
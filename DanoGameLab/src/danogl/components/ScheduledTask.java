@@ -3,16 +3,30 @@ package danogl.components;
 import danogl.GameObject;
 
 /**
- * A component for scheduling a task for execution at a later time
+ * A component for scheduling a task for execution at a later time.
+ * A task constructed with a {@link TaskScheduler} is not a component: it is registered
+ * with the scheduler at an absolute due time, and is not touched until it is due,
+ * which is much cheaper when many tasks are pending.
  * @author Dan Nirel
  */
 public class ScheduledTask implements Component {
+    //values of heapIndex of a task that is not in its scheduler's heap
+    static final int NOT_SCHEDULED = -1;
+    static final int DUE = -2;
+
     private final GameObject gameObjectToUpdateThrough;
     private final float waitTime;
     private final boolean repeat;
     private final Runnable onElapsed;
+    //null when the task is a component of gameObjectToUpdateThrough
+    private final TaskScheduler scheduler;
 
     private double timePassed = 0;
+    //whether a task that is a component is still one of gameObjectToUpdateThrough's components
+    private boolean isComponent = false;
+    //used by the scheduler
+    double dueTime;
+    int heapIndex = NOT_SCHEDULED;
 
     /**
      * Create a scheduled task. No other calls to the object are necessary.
@@ -30,21 +44,65 @@ public class ScheduledTask implements Component {
      */
     public ScheduledTask(GameObject gameObjectToUpdateThrough, float waitTime,
                          boolean repeat, Runnable onElapsed) {
-        if(gameObjectToUpdateThrough == null || onElapsed == null)
+        this(null, gameObjectToUpdateThrough, waitTime, repeat, onElapsed);
+    }
+
+    /**
+     * Create a task scheduled by a scheduler. No other calls to the object are necessary.
+     * @param scheduler The scheduler that runs the task, usually the one of the
+     *                  GameObjectCollection (see GameObjectCollection.scheduler()).
+     * @param owner The GameObject the task belongs to. The task does not become its component,
+     *              but if the owner is no longer in the game when the task is due,
+     *              the task is cancelled.
+     * @param waitTime The delay until the task is executed, in seconds.
+     * @param repeat Should the task be executed once, or every waitTime?
+     * @param onElapsed The task to execute.
+     */
+    public ScheduledTask(TaskScheduler scheduler, GameObject owner, float waitTime,
+                         boolean repeat, Runnable onElapsed) {
+        if(owner == null || onElapsed == null)
             throw new NullPointerException("Invalid parameters for ScheduledTask");
-        this.gameObjectToUpdateThrough = gameObjectToUpdateThrough;
+        this.gameObjectToUpdateThrough = owner;
         this.waitTime = waitTime;
         this.repeat = repeat;
         this.onElapsed = onElapsed;
-        gameObjectToUpdateThrough.addComponent(this);
+        this.scheduler = scheduler;
+        if(scheduler == null)
+            addAsComponent();
+        else
+            scheduler.schedule(this);
     }
 
     /**
      * Reset the clock, make the task start counting time from now instead of since
      * the call to the constructor or the last call to reset.
+     * A task that was cancelled, or that was executed once and does not repeat,
+     * is scheduled again.
      */
     public void reset() {
         timePassed = 0;
+        if(scheduler != null)
+            scheduler.schedule(this);
+        else if(!isComponent)
+            addAsComponent();
+    }
+
+    /**
+     * Cancel the task, so it is not executed (again).
+     */
+    public void cancel() {
+        if(scheduler == null)
+            removeAsComponent();
+        else
+            scheduler.cancel(this);
+    }
+
+    /**
+     * Is the task going to be executed (again): false once the task was cancelled,
+     * or was executed and does not repeat, until it is reset.
+     */
+    public boolean isScheduled() {
+        return scheduler == null ? isComponent : scheduler.isScheduled(this);
     }
 
     @Override
@@ -56,7 +114,33 @@ public class ScheduledTask implements Component {
             if(repeat)
                 timePassed = 0;
             else
-                gameObjectToUpdateThrough.removeComponent(this);
+                removeAsComponent();
         }
     }
+
+    private void addAsComponent() {
+        gameObjectToUpdateThrough.addComponent(this);
+        isComponent = true;
+    }
+
+    private void removeAsComponent() {
+        gameObjectToUpdateThrough.removeComponent(this);
+        isComponent = false;
+    }
+
+    GameObject getOwner() {
+        return gameObjectToUpdateThrough;
+    }
+
+    float getWaitTime() {
+        return waitTime;
+    }
+
+    boolean isRepeating() {
+        return repeat;
+    }
+
+    void run() {
+        onElapsed.run();
+    }
 }
@@ -0,0 +1,174 @@
+package danogl.components;
+
+import danogl.GameObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Runs {@link ScheduledTask}s at their due times from a single clock, instead of
+ * every task counting time as a component of its GameObject.
+ * Pending tasks are kept in a binary min-heap ordered by their absolute due time,
+ * so an update only looks at the tasks that are due: a frame in which no task is due
+ * costs a single comparison, regardless of the number of pending tasks.
+ * A GameObjectCollection owns a scheduler (see GameObjectCollection.scheduler()) and
+ * advances it every frame.
+ * @author Dan Nirel
+ */
+public class TaskScheduler {
+    private static final int INITIAL_CAPACITY = 16;
+
+    //the pending tasks, a binary min-heap by due time. every task knows its index.
+    private ScheduledTask[] heap = new ScheduledTask[INITIAL_CAPACITY];
+    private int size = 0;
+    private double time = 0;
+    private final Predicate<GameObject> isOwnerAlive;
+    //the tasks that are due in the current update, reused between updates
+    private final ArrayList<ScheduledTask> dueTasks = new ArrayList<>();
+
+    /**
+     * Construct a scheduler that runs every task when it is due.
+     */
+    public TaskScheduler() {
+        this(owner -> true);
+    }
+
+    /**
+     * Construct a scheduler that runs a task only if its owner is still alive when the task is due.
+     * @param isOwnerAlive tells whether a task's GameObject is still in the game. A task
+     *                     whose owner is not is cancelled instead of running, the way the
+     *                     components of a removed GameObject are no longer updated.
+     */
+    public TaskScheduler(Predicate<GameObject> isOwnerAlive) {
+        if(isOwnerAlive == null)
+            throw new NullPointerException("isOwnerAlive cannot be null");
+        this.isOwnerAlive = isOwnerAlive;
+    }
+
+    /**
+     * The time, in seconds, the scheduler has advanced since it was constructed.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * The number of tasks waiting to run.
+     */
+    public int getPendingTaskCount() {
+        return size;
+    }
+
+    /**
+     * Advances the clock and runs the tasks that are due, in the order of their due times.
+     * A repeating task is due again waitTime after it ran. A task scheduled or rescheduled
+     * while the due tasks run is not run before the next update, even if its wait time is 0,
+     * the same way a ScheduledTask component never runs twice in a frame.
+     * @param deltaTime the time, in seconds, since the previous update
+     */
+    public void update(float deltaTime) {
+        time += deltaTime;
+        if(size == 0 || heap[0].dueTime > time)
+            return;
+        while(size > 0 && heap[0].dueTime <= time) {
+            var task = heap[0];
+            removeAt(0);
+            dueTasks.add(task);
+        }
+        for(int i = 0 ; i < dueTasks.size() ; i++) {
+            var task = dueTasks.get(i);
+            //the task might have been rescheduled or cancelled by a task that ran before it
+            if(task.heapIndex != ScheduledTask.DUE)
+                continue;
+            task.heapIndex = ScheduledTask.NOT_SCHEDULED;
+            if(!isOwnerAlive.test(task.getOwner()))
+                continue;
+            if(task.isRepeating())
+                schedule(task);
+            task.run();
+        }
+        dueTasks.clear();
+    }
+
+    /**
+     * Adds a task, due waitTime from now. A task that is already pending is moved.
+     */
+    void schedule(ScheduledTask task) {
+        cancel(task);
+        task.dueTime = time + task.getWaitTime();
+        if(size == heap.length)
+            heap = Arrays.copyOf(heap, size * 2);
+        heap[size] = task;
+        task.heapIndex = size;
+        size++;
+        siftUp(task.heapIndex);
+    }
+
+    /**
+     * Removes a task, if it is pending.
+     */
+    void cancel(ScheduledTask task) {
+        if(task.heapIndex >= 0)
+            removeAt(task.heapIndex);
+        task.heapIndex = ScheduledTask.NOT_SCHEDULED;
+    }
+
+    /**
+     * Whether the task is pending.
+     */
+    boolean isScheduled(ScheduledTask task) {
+        return task.heapIndex >= 0 || task.heapIndex == ScheduledTask.DUE;
+    }
+
+    private void removeAt(int index) {
+        var removed = heap[index];
+        size--;
+        if(index != size) {
+            //move the last task to the hole, and from there to wherever it belongs
+            var moved = heap[size];
+            heap[index] = moved;
+            moved.heapIndex = index;
+            heap[size] = null;
+            siftDown(index);
+            if(heap[index] == moved)
+                siftUp(index);
+        }
+        else
+            heap[size] = null;
+        //removed tasks are marked as due, the caller decides what they become
+        removed.heapIndex = ScheduledTask.DUE;
+    }
+
+    private void siftUp(int index) {
+        var task = heap[index];
+        while(index > 0) {
+            int parent = (index - 1) >>> 1;
+            if(heap[parent].dueTime <= task.dueTime)
+                break;
+            heap[index] = heap[parent];
+            heap[index].heapIndex = index;
+            index = parent;
+        }
+        heap[index] = task;
+        task.heapIndex = index;
+    }
+
+    private void siftDown(int index) {
+        var task = heap[index];
+        while(true) {
+            int child = 2*index + 1;
+            if(child >= size)
+                break;
+            if(child + 1 < size && heap[child + 1].dueTime < heap[child].dueTime)
+                child++;
+            if(task.dueTime <= heap[child].dueTime)
+                break;
+            heap[index] = heap[child];
+            heap[index].heapIndex = index;
+            index = child;
+        }
+        heap[index] = task;
+        task.heapIndex = index;
+    }
+}
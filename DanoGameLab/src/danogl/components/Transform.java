@@ -26,6 +26,19 @@ public class Transform implements Component {
         this.dimensions = new MutableVector2(dimensions);
     }
 
+    /**
+     * Return the transform to the state it had when it was constructed with the given
+     * arguments: no velocity, no acceleration, and acceleration enabled.
+     */
+    public void reset(Vector2 topLeftCorner, Vector2 dimensions) {
+        this.topLeftCorner.setXY(topLeftCorner);
+        this.dimensions.setXY(dimensions);
+        velocity.setXY(Vector2.ZERO);
+        velocityToApply.setXY(Vector2.ZERO);
+        acceleration.setXY(Vector2.ZERO);
+        isAccelerationEnabled = true;
+    }
+
     /**
      * Returns the GameObject's top-left corner
      */
@@ -68,9 +81,10 @@ public class Transform implements Component {
             throw new IllegalArgumentException(
                     "Dimensions must be non-negative. "+
                             "To flip image, see setIsflippedHorizontally()/setIsflippedVertically()");
-        var oldCenter = getCenter();
+        float centerX = topLeftCorner.x() + 0.5f*dimensions.x();
+        float centerY = topLeftCorner.y() + 0.5f*dimensions.y();
         this.dimensions.setXY(x, y);
-        setCenter(oldCenter);
+        setCenter(centerX, centerY);
     }
 
     /**
@@ -216,11 +230,16 @@ public class Transform implements Component {
                     velocity.x() + acceleration.x() * deltaTime,
                     velocity.y() + acceleration.y() * deltaTime);
             //using "midpoint"/"improved Euler" integration
-            velocityToApply.selfAdd(getVelocity()).selfMult(0.5f);
+            velocityToApply.setXY(
+                    0.5f*(velocityToApply.x() + velocity.x()),
+                    0.5f*(velocityToApply.y() + velocity.y()));
         }
+        //plain arithmetic rather than selfAdd/selfMult, which allocate a
+        //method reference on every call
         if(!velocityToApply.isZero()) {
-            velocityToApply.selfMult(deltaTime);
-            topLeftCorner.selfAdd(velocityToApply);
+            topLeftCorner.setXY(
+                    topLeftCorner.x() + velocityToApply.x()*deltaTime,
+                    topLeftCorner.y() + velocityToApply.y()*deltaTime);
         }
         velocityToApply.setXY(velocity);
     }
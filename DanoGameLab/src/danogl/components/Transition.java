@@ -7,7 +7,9 @@ import danogl.util.Vector2;
 import java.util.function.Consumer;
 
 /**
- * Transition a value over a range
+ * Transition a value over a range.
+ * Values of primitive types are boxed on every update; {@link FloatTransition} and
+ * {@link Vector2Transition} transition floats and vectors without allocating.
  * @param <T> The value's type
  * @author Dan Nirel
  */
@@ -0,0 +1,79 @@
+package danogl.components;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * Transition a Vector2 over a range. Behaves like a {@link Transition} of Vector2,
+ * but each axis is interpolated as a primitive and the two axes are passed to the
+ * callback separately, so a running transition does not allocate.
+ * @author Dan Nirel
+ */
+public class Vector2Transition extends PrimitiveTransition {
+
+    /************* Inner Types **************/
+    /**
+     * Receives the values of a Vector2Transition
+     */
+    @FunctionalInterface
+    public interface Vector2Consumer {
+        /**
+         * Apply a value of the transition
+         * @param x the current x value
+         * @param y the current y value
+         */
+        void accept(float x, float y);
+    }
+
+    /************* Fields **************/
+    private final Vector2Consumer setValueCallback;
+    private final float initialX, initialY;
+    private final float finalX, finalY;
+    private final FloatTransition.FloatInterpolator interpolator;
+
+    /************* Methods **************/
+
+    /**
+     * Create a new Vector2Transition. After creating the transition it will immediately
+     * be applied. There might not be any need for the reference to the created object.
+     * @param gameObjectToUpdateThrough The transition will leech onto this object to get
+     *                                  its update method called.
+     * @param setValueCallback Each value of the transition will be sent to this callback.
+     * @param initialValue The value to start from. Its coordinates are copied, so later
+     *                     changes to a mutable vector do not affect the transition.
+     * @param finalValue A final value (the other edge value). Copied like initialValue.
+     * @param interpolator A function to interpolate each axis between the edge values, such as
+     *                     {@link FloatTransition#LINEAR_INTERPOLATOR}.
+     * @param transitionTime The time for a single transition from edge to edge, in seconds.
+     * @param transitionType Type of transition.
+     * @param onReachingFinalValue A function to be called every time the transition reached the final value.
+     * @see Transition
+     */
+    public Vector2Transition(
+            GameObject gameObjectToUpdateThrough,
+            Vector2Consumer setValueCallback,
+            Vector2 initialValue,
+            Vector2 finalValue,
+            FloatTransition.FloatInterpolator interpolator,
+            float transitionTime,
+            Transition.TransitionType transitionType,
+            Runnable onReachingFinalValue) {
+        super(gameObjectToUpdateThrough, transitionTime, transitionType, onReachingFinalValue);
+        if(setValueCallback == null || initialValue == null || finalValue == null
+                || interpolator == null)
+            throw new NullPointerException("None of Transition's parameters may be null except onReachingFinalValue");
+        this.setValueCallback = setValueCallback;
+        this.initialX = initialValue.x();
+        this.initialY = initialValue.y();
+        this.finalX = finalValue.x();
+        this.finalY = finalValue.y();
+        this.interpolator = interpolator;
+        start();
+    }
+
+    @Override
+    void applyValue(float t) {
+        setValueCallback.accept(interpolator.interpolate(initialX, finalX, t),
+                interpolator.interpolate(initialY, finalY, t));
+    }
+}
@@ -0,0 +1,203 @@
+package danogl.gui;
+
+import java.awt.image.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An archive of images that were already read, keyed and premultiplied by an offline packer,
+ * so that reading them at runtime involves no decoding and no per-pixel processing.
+ * The archive is memory-mapped: reading an image copies its pixels from the mapping
+ * into the image's raster in a single bulk operation.
+ * <p>
+ * An archive is created with the packer, for example:
+ * <pre>java danogl.gui.AssetPack assets/assets.pack -t assets/fox/fox1.png assets/tiles/dirt.png</pre>
+ * where -t marks the following image as read with isTopLeftPixelTransparency.
+ * It is used by an ImageReader after a call to {@link ImageReader#loadAssetPack(String)}.
+ * An image whose file changed in size since it was packed is read from the file instead,
+ * but the archive should be created again whenever the images change.
+ * <p>
+ * Format: a big-endian header of the magic number, the version and the number of entries,
+ * followed by the entries (path length, UTF-8 path, transparency flag, source file length,
+ * width, height, offset of the pixels), followed by the premultiplied ARGB pixels of the images.
+ * @author Dan Nirel
+ */
+public class AssetPack {
+    private static final int MAGIC = 0x44474c50; //"DGLP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int ENTRY_BYTES_WITHOUT_PATH = Integer.BYTES + 1 + Long.BYTES + 2 * Integer.BYTES + Long.BYTES;
+    private static final ColorModel PREMULTIPLIED_ARGB =
+            new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB_PRE).getColorModel();
+    private static final int[] ARGB_MASKS = {0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000};
+
+    private static class Entry {
+        final long sourceLength;
+        final int width, height;
+        final long offset;
+
+        Entry(long sourceLength, int width, int height, long offset) {
+            this.sourceLength = sourceLength;
+            this.width = width;
+            this.height = height;
+            this.offset = offset;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    //the whole archive, as ints. only absolute gets are used, so it is shared between threads
+    private final IntBuffer pixels;
+
+    /**
+     * Map an archive created by the packer.
+     * @param packPath Path of the archive file.
+     * @throws IOException If the file cannot be read or is not a valid archive.
+     */
+    public AssetPack(String packPath) throws IOException {
+        ByteBuffer mapped;
+        try(var channel = FileChannel.open(Path.of(packPath), StandardOpenOption.READ)) {
+            //the mapping remains valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if(mapped.getInt() != MAGIC || mapped.getInt() != VERSION)
+                throw new IOException("Not an asset pack of this version: " + packPath);
+            int entryCount = mapped.getInt();
+            for(int i = 0 ; i < entryCount ; i++) {
+                var pathBytes = new byte[mapped.getInt()];
+                mapped.get(pathBytes);
+                boolean isTopLeftPixelTransparency = mapped.get() != 0;
+                var entry = new Entry(mapped.getLong(), mapped.getInt(), mapped.getInt(), mapped.getLong());
+                if(entry.offset % Integer.BYTES != 0 ||
+                        entry.offset + (long)entry.width * entry.height * Integer.BYTES > mapped.capacity())
+                    throw new IOException("Corrupt asset pack: " + packPath);
+                entries.put(key(new String(pathBytes, StandardCharsets.UTF_8), isTopLeftPixelTransparency), entry);
+            }
+        }
+        catch(RuntimeException e) { //a truncated header
+            throw new IOException("Corrupt asset pack: " + packPath, e);
+        }
+        pixels = mapped.position(0).asIntBuffer();
+    }
+
+    /**
+     * The number of images in the archive.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Read an image from the archive, as ImageReader would have read it from its file.
+     * @return The image, in premultiplied ARGB, or null if the archive does not contain it or
+     * its file changed since it was packed.
+     */
+    BufferedImage readImage(String path, boolean isTopLeftPixelTransparency) {
+        var entry = entries.get(key(path, isTopLeftPixelTransparency));
+        if(entry == null)
+            return null;
+        var file = new File(path).getAbsoluteFile();
+        if(file.isFile() && file.length() != entry.sourceLength)
+            return null;
+        var data = new int[entry.width * entry.height];
+        pixels.get((int)(entry.offset / Integer.BYTES), data);
+        var raster = Raster.createPackedRaster(
+                new DataBufferInt(data, data.length), entry.width, entry.height, entry.width, ARGB_MASKS, null);
+        return new BufferedImage(PREMULTIPLIED_ARGB, raster, true, null);
+    }
+
+    /**
+     * Create an archive of the given images.
+     * @param packPath Path of the archive file to create.
+     * @param imagePaths Paths of the images, as they will be passed to ImageReader.readImage.
+     * @param isTopLeftPixelTransparency For every image, the flag it will be read with.
+     * @throws IOException If an image cannot be read or the archive cannot be written.
+     */
+    public static void write(String packPath, List<String> imagePaths,
+                             List<Boolean> isTopLeftPixelTransparency) throws IOException {
+        if(imagePaths.size() != isTopLeftPixelTransparency.size())
+            throw new IllegalArgumentException("Every image needs a transparency flag");
+        var imageReader = new ImageReader(null);
+        var images = new ArrayList<BufferedImage>();
+        var pathsBytes = new ArrayList<byte[]>();
+        long offset = HEADER_BYTES;
+        for(int i = 0 ; i < imagePaths.size() ; i++) {
+            var image = imageReader.decodeImage(imagePaths.get(i), isTopLeftPixelTransparency.get(i));
+            if(image == null)
+                throw new IOException("Unsupported image format: " + imagePaths.get(i));
+            images.add(toPremultiplied(image));
+            pathsBytes.add(imagePaths.get(i).getBytes(StandardCharsets.UTF_8));
+            offset += ENTRY_BYTES_WITHOUT_PATH + pathsBytes.get(i).length;
+        }
+        offset = (offset + Integer.BYTES - 1) / Integer.BYTES * Integer.BYTES;
+        try(var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(packPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(images.size());
+            long headerEnd = offset;
+            for(int i = 0 ; i < images.size() ; i++) {
+                var image = images.get(i);
+                out.writeInt(pathsBytes.get(i).length);
+                out.write(pathsBytes.get(i));
+                out.writeBoolean(isTopLeftPixelTransparency.get(i));
+                out.writeLong(new File(imagePaths.get(i)).getAbsoluteFile().length());
+                out.writeInt(image.getWidth());
+                out.writeInt(image.getHeight());
+                out.writeLong(offset);
+                offset += (long)image.getWidth() * image.getHeight() * Integer.BYTES;
+            }
+            while(out.size() < headerEnd)
+                out.writeByte(0);
+            for(var image : images) {
+                for(int pixel : ((DataBufferInt)image.getRaster().getDataBuffer()).getData())
+                    out.writeInt(pixel);
+            }
+        }
+    }
+
+    /**
+     * The offline packer.
+     * Usage: java danogl.gui.AssetPack packFile [-t] image [[-t] image ...]
+     * where -t marks the following image as read with isTopLeftPixelTransparency.
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: java danogl.gui.AssetPack packFile [-t] image [[-t] image ...]");
+            System.exit(1);
+        }
+        var imagePaths = new ArrayList<String>();
+        var transparency = new ArrayList<Boolean>();
+        boolean nextIsTransparent = false;
+        for(int i = 1 ; i < args.length ; i++) {
+            if(args[i].equals("-t")) {
+                nextIsTransparent = true;
+                continue;
+            }
+            imagePaths.add(args[i]);
+            transparency.add(nextIsTransparent);
+            nextIsTransparent = false;
+        }
+        write(args[0], imagePaths, transparency);
+        System.out.printf("Packed %d images into %s%n", imagePaths.size(), args[0]);
+    }
+
+    private static String key(String path, boolean isTopLeftPixelTransparency) {
+        return (isTopLeftPixelTransparency ? "t:" : "o:") + path;
+    }
+
+    private static BufferedImage toPremultiplied(BufferedImage image) {
+        int width = image.getWidth(), height = image.getHeight();
+        var premultiplied = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        premultiplied.setRGB(0, 0, width, height, image.getRGB(0, 0, width, height, null, 0, width), 0, width);
+        return premultiplied;
+    }
+}
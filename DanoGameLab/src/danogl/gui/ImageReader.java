@@ -1,21 +1,71 @@
 package danogl.gui;
 
+import danogl.gui.rendering.CompatibleImages;
 import danogl.gui.rendering.ImageRenderable;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
- * Used to read images from disk or from within a jar
+ * Used to read images from disk or from within a jar.
+ * Read images are cached by their path and transparency flag, so reading the same image again
+ * returns the same ImageRenderable without any I/O or decoding. The cache is bounded by the
+ * total size of its images, and evicts the least recently read images first.
  * @author Dan Nirel
  */
 public class ImageReader {
     private static final int COLOR_DIS_EPSILON = 100;
+    private static final long DEFAULT_CACHE_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final long MIN_PIXELS_FOR_PARALLEL_BANDS = 256 * 256;
+    private static final int BANDS_PER_THREAD = 4;
+
+    //an action on a band of rows of an image, see forEachBand
+    @FunctionalInterface
+    private interface BandAction {
+        void run(int firstRow, int rows);
+    }
+
+    private static class CacheKey {
+        final String path;
+        final boolean isTopLeftPixelTransparency;
+
+        CacheKey(String path, boolean isTopLeftPixelTransparency) {
+            this.path = path;
+            this.isTopLeftPixelTransparency = isTopLeftPixelTransparency;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof CacheKey))
+                return false;
+            var other = (CacheKey)o;
+            return isTopLeftPixelTransparency == other.isTopLeftPixelTransparency && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31*path.hashCode() + (isTopLeftPixelTransparency ? 1 : 0);
+        }
+    }
+
+    //in least-recently-read order. guarded by itself
+    private final Map<CacheKey, ImageRenderable> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheBudgetBytes = DEFAULT_CACHE_BUDGET_BYTES;
+    private long cachedBytes = 0;
+    private long cacheHits = 0, cacheMisses = 0;
 
     private WindowController windowController;
     private ResourceReader resReader = new ResourceReader();
+    //carries over from image to image. guarded by this
     private boolean imageAlreadyContainsAlpha = false;
 
     /** Construct an ImageReader. Usually used by the engine itself */
@@ -27,48 +77,237 @@ public class ImageReader {
      * Read an image from disk or internally from the jar. The image may contain an alpha channel. If it doesn't,
      * background color may still be removed using the second parameter.
      * If the call fails, an error message will be displayed and the window will be closed.
+     * The returned ImageRenderable may be shared with previous and future calls with the same
+     * arguments, so it should not be modified.
      * @param path Relative or absolute path
      * @param isTopLeftPixelTransparency If true, it is assumed the top-left corner is part of
      *                                   the background. All pixels with this color will be invisible.
      * @return An ImageRenderable of the desired image.
      */
     public ImageRenderable readImage(String path, boolean isTopLeftPixelTransparency) {
-        BufferedImage im = null;
-        ResourceReader resReader = new ResourceReader();
-        try(var stream = resReader.readResource(path)) {
-            im = ImageIO.read(stream);
+        var key = new CacheKey(path, isTopLeftPixelTransparency);
+        synchronized(cache) {
+            var cached = cache.get(key);
+            if(cached != null) {
+                cacheHits++;
+                return cached;
+            }
+            cacheMisses++;
+        }
+        //read outside the lock. an image read by two threads at once is cached once
+        var renderable = readUncachedImage(path, isTopLeftPixelTransparency);
+        if(renderable.getImage() == null)
+            return renderable;
+        synchronized(cache) {
+            var cached = cache.get(key);
+            if(cached != null)
+                return cached;
+            cache.put(key, renderable);
+            cachedBytes += sizeInBytes(renderable);
+            evictOverBudget();
+        }
+        return renderable;
+    }
+
+    /**
+     * The number of calls to readImage that were answered from the cache.
+     */
+    public long getCacheHits() {
+        synchronized(cache) {
+            return cacheHits;
+        }
+    }
+
+    /**
+     * The number of calls to readImage that read an image from disk or from the jar.
+     */
+    public long getCacheMisses() {
+        synchronized(cache) {
+            return cacheMisses;
+        }
+    }
+
+    /**
+     * The total size, in bytes, of the cached images.
+     */
+    public long getCachedBytes() {
+        synchronized(cache) {
+            return cachedBytes;
+        }
+    }
+
+    /**
+     * Set the maximal total size, in bytes, of the cached images (64MB by default).
+     * The least recently read images are evicted until the cached images fit. An image larger than
+     * the budget is not kept at all. A budget of 0 disables the cache.
+     */
+    public void setCacheBudget(long cacheBudgetBytes) {
+        synchronized(cache) {
+            this.cacheBudgetBytes = Math.max(cacheBudgetBytes, 0);
+            evictOverBudget();
+        }
+    }
+
+    /**
+     * Forget all cached images. ImageRenderables that were already returned remain valid.
+     */
+    public void clearCache() {
+        synchronized(cache) {
+            cache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    private void evictOverBudget() {
+        Iterator<ImageRenderable> leastRecentlyRead = cache.values().iterator();
+        while(cachedBytes > cacheBudgetBytes && leastRecentlyRead.hasNext()) {
+            cachedBytes -= sizeInBytes(leastRecentlyRead.next());
+            leastRecentlyRead.remove();
+        }
+    }
+
+    private static long sizeInBytes(ImageRenderable renderable) {
+        return (long)renderable.width() * renderable.height() * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Read images from the given archive before looking for their files, so that they are not decoded
+     * and processed at runtime. See {@link AssetPack} for creating the archive.
+     * @param packPath Path of the archive.
+     * @return false if there is no such archive, or it is not valid. Images are then read from their files.
+     */
+    public boolean loadAssetPack(String packPath) {
+        if(!new File(packPath).isFile())
+            return false;
+        try {
+            resReader.setAssetPack(new AssetPack(packPath));
+            return true;
+        }
+        catch(IOException ioe) {
+            return false;
+        }
+    }
+
+    private ImageRenderable readUncachedImage(String path, boolean isTopLeftPixelTransparency) {
+        Image finalImage = null;
+        try {
+            var decodedImage = decodeImage(path, isTopLeftPixelTransparency);
+            //in the format of the screen, so it is not converted on every draw
+            finalImage = decodedImage == null ? null : CompatibleImages.toCompatibleImage(decodedImage);
         }
         catch(IOException ioe) {
             windowController.showMessageBox(
                     String.format("Failed to open image '%s': %s", path, ioe.getMessage()));
             windowController.closeWindow();
         }
-        Image finalImage = isTopLeftPixelTransparency ? addTransparency(im) : im;
         return new ImageRenderable(finalImage);
     }
 
-    private Image addTransparency(BufferedImage im) {
-        BufferedImage transparentImage =
-                new BufferedImage(im.getWidth(),im.getHeight(),BufferedImage.TYPE_INT_ARGB);
+    /**
+     * Reads the image from the asset pack, if any, or otherwise decodes it from its file
+     * and adds the transparency. Also used by the packer.
+     */
+    BufferedImage decodeImage(String path, boolean isTopLeftPixelTransparency) throws IOException {
+        var packed = resReader.readPackedImage(path, isTopLeftPixelTransparency);
+        if(packed != null)
+            return packed;
+        BufferedImage im;
+        try(var stream = resReader.readResource(path)) {
+            im = ImageIO.read(stream);
+        }
+        return isTopLeftPixelTransparency ? addTransparency(im) : im;
+    }
+
+    /**
+     * Makes the pixels of the color of the top-left pixel transparent. Also used by the tests.
+     */
+    BufferedImage addTransparency(BufferedImage im) {
+        int width = im.getWidth(), height = im.getHeight();
+        BufferedImage transparentImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         int transparentColor = im.getRGB(0,0);
-        for(int y = 0 ; y < im.getHeight() ; y++) {
-            for (int x = 0; x < im.getWidth(); x++) {
-                int thisPixel = calcPixelAt(im, x, y, transparentColor);
+        int[] pixels = new int[width * height];
+        forEachBand(height, width, (firstRow, rows) -> readPixels(im, firstRow, rows, pixels));
+        int alphaStart = findAlphaStart(pixels);
+        boolean[] edges = findEdges(pixels, width, alphaStart, transparentColor);
+        int[] keyedPixels = new int[pixels.length];
+        forEachBand(height, width, (firstRow, rows) -> {
+            int end = (firstRow + rows) * width;
+            for(int i = firstRow * width ; i < end ; i++) {
+                int thisPixel = pixels[i];
+                if(edges != null && i < alphaStart && edges[i])
+                    thisPixel = recoverEdgePixel(thisPixel, transparentColor);
                 if(transparentColor == thisPixel)
                     thisPixel &= 0x00ffffff; //zero alpha
-                transparentImage.setRGB(x, y, thisPixel);
+                keyedPixels[i] = thisPixel;
             }
-        }
+        });
+        //written through the raster, so the image is not untracked as if its buffer was taken
+        transparentImage.getRaster().setDataElements(0, 0, width, height, keyedPixels);
         return transparentImage;
     }
 
-    private int calcPixelAt(BufferedImage im, int x, int y, int transparentColor) {
-        int pixel = im.getRGB(x, y);
-        if((pixel >> 24) != 0)
-            imageAlreadyContainsAlpha = true;
-        if (imageAlreadyContainsAlpha ||
-                !isAPixelAroundTransparentButWithNonZeroAlpha(im, x, y, transparentColor))
-            return pixel;
+    //imageAlreadyContainsAlpha carries over from image to image, so the images are keyed as if
+    //they were processed one by one: once an image with alpha was read, no pixel is an edge.
+    //otherwise only the pixels before the first one with alpha may be edges of the sprite.
+    //returns the index of that pixel, and sets the flag if there is one
+    private synchronized int findAlphaStart(int[] pixels) {
+        if(imageAlreadyContainsAlpha)
+            return 0;
+        int alphaStart = 0;
+        while(alphaStart < pixels.length && (pixels[alphaStart] >> 24) == 0)
+            alphaStart++;
+        imageAlreadyContainsAlpha = alphaStart < pixels.length;
+        return alphaStart;
+    }
+
+    //calls bandAction(firstRow, rows) for bands of rows that cover the image,
+    //in parallel on the common pool if the image is large
+    private static void forEachBand(int height, int width, BandAction bandAction) {
+        if((long)width * height < MIN_PIXELS_FOR_PARALLEL_BANDS) {
+            bandAction.run(0, height);
+            return;
+        }
+        int bands = Math.min(height, ForkJoinPool.getCommonPoolParallelism() * BANDS_PER_THREAD);
+        int rowsPerBand = (height + bands - 1) / bands;
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int firstRow = band * rowsPerBand;
+            if(firstRow < height)
+                bandAction.run(firstRow, Math.min(rowsPerBand, height - firstRow));
+        });
+    }
+
+    //the same as im.getRGB(0, firstRow, width, rows, pixels, firstRow*width, width),
+    //without converting every pixel through the color model for the usual types of decoded images
+    private static void readPixels(BufferedImage im, int firstRow, int rows, int[] pixels) {
+        int width = im.getWidth();
+        int first = firstRow * width;
+        switch(im.getType()) {
+            case BufferedImage.TYPE_INT_ARGB:
+            case BufferedImage.TYPE_INT_RGB: {
+                var data = (int[])im.getRaster().getDataElements(0, firstRow, width, rows, null);
+                boolean isOpaque = im.getType() == BufferedImage.TYPE_INT_RGB;
+                for(int i = 0 ; i < data.length ; i++)
+                    pixels[first + i] = isOpaque ? 0xff000000 | data[i] : data[i];
+                break;
+            }
+            case BufferedImage.TYPE_4BYTE_ABGR:
+            case BufferedImage.TYPE_3BYTE_BGR: {
+                //the elements of a pixel are in band order: red, green, blue and alpha if any
+                var data = (byte[])im.getRaster().getDataElements(0, firstRow, width, rows, null);
+                boolean hasAlpha = im.getType() == BufferedImage.TYPE_4BYTE_ABGR;
+                int elements = hasAlpha ? 4 : 3;
+                for(int i = 0, e = 0 ; e < data.length ; i++, e += elements) {
+                    int alpha = hasAlpha ? data[e + 3] & 0xff : 0xff;
+                    pixels[first + i] = alpha << 24 | (data[e] & 0xff) << 16 | (data[e + 1] & 0xff) << 8 | data[e + 2] & 0xff;
+                }
+                break;
+            }
+            default:
+                im.getRGB(0, firstRow, width, rows, pixels, first, width);
+        }
+    }
+
+    private static int recoverEdgePixel(int pixel, int transparentColor) {
         if (colorDistance(pixel, transparentColor) < COLOR_DIS_EPSILON)
             return transparentColor;
         //so this is an edge of the sprite, and was probably affected
@@ -89,19 +328,33 @@ public class ImageReader {
         return pixel;
     }
 
-    private boolean isAPixelAroundTransparentButWithNonZeroAlpha(BufferedImage im, int x, int y, int transparentColor) {
-        int width = im.getWidth();
-        int height = im.getHeight();
-        for (int i = -1; i <= 1 ; i++) {
-            for (int j = -1; j <= 1 ; j++) {
-                if(x+i < 0 || y+j < 0 || x+i >= width || y+j >= height)
-                    continue;
-                int pixel = im.getRGB(x+i,y+j);
-                if((pixel>>24)!=0 && pixel == transparentColor)
-                    return true;
+    /**
+     * Marks the pixels before alphaStart that have a pixel of the transparent color around them
+     * (in their 3x3 neighborhood), in one pass over the rows that touch them: every pixel of the
+     * transparent color marks its neighborhood. Also used by the tests.
+     * @return the marks, or null if no pixel is marked since there are no pixels before alphaStart,
+     * or the transparent color has a zero alpha.
+     */
+    static boolean[] findEdges(int[] pixels, int width, int alphaStart, int transparentColor) {
+        //the pixel around has to equal the transparent color and have a non-zero alpha
+        if(alphaStart == 0 || (transparentColor >> 24) == 0)
+            return null;
+        var edges = new boolean[alphaStart];
+        //up to the row after the last row of the prefix
+        int end = (int)Math.min(pixels.length, ((alphaStart - 1) / width + 2L) * width);
+        for(int i = 0 ; i < end ; i++) {
+            if(pixels[i] != transparentColor)
+                continue;
+            int x = i % width, y = i / width;
+            int firstX = Math.max(x - 1, 0), lastX = Math.min(x + 1, width - 1);
+            for(int neighborY = Math.max(y - 1, 0) ; neighborY <= y + 1 ; neighborY++) {
+                for(int neighbor = neighborY*width + firstX ; neighbor <= neighborY*width + lastX ; neighbor++) {
+                    if(neighbor < alphaStart)
+                        edges[neighbor] = true;
+                }
             }
         }
-        return false;
+        return edges;
     }
 
     private static double colorDistance(int c1, int c2){
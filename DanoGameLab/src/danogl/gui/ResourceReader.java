@@ -1,6 +1,7 @@
 package danogl.gui;
 
 import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.*;
 
 /**
@@ -8,6 +9,23 @@ import java.io.*;
  * @author Dan Nirel
  */
 class ResourceReader {
+    private AssetPack assetPack = null;
+
+    /**
+     * Set the archive of images checked before the files and the jar, or null for none.
+     */
+    public void setAssetPack(AssetPack assetPack) {
+        this.assetPack = assetPack;
+    }
+
+    /**
+     * Read an already processed image from the archive.
+     * @return the image, or null if there is no archive or it does not contain the image.
+     */
+    public BufferedImage readPackedImage(String path, boolean isTopLeftPixelTransparency) {
+        return assetPack == null ? null : assetPack.readImage(path, isTopLeftPixelTransparency);
+    }
+
     public InputStream readResource(String path) throws IOException {
         InputStream stream;
         try {
@@ -26,7 +26,20 @@ public class AnimationRenderable implements Renderable {
     }
 
     /**
-     * Initialize the animation using file-paths of images on disk
+     * Initialize an animation with the clips of another animation. The clips are shared, but
+     * the new animation has its own phase, starting from the first clip. This is how many objects
+     * can play the same animation without reading or copying its images again.
+     * @param animation The animation whose clips and time between clips are used.
+     */
+    public AnimationRenderable(AnimationRenderable animation) {
+        this.clips = animation.clips;
+        this.timeBetweenClips = animation.timeBetweenClips;
+    }
+
+    /**
+     * Initialize the animation using file-paths of images on disk.
+     * The images are read through the cache of the ImageReader, so animations of the same
+     * images share them.
      * @param imagePaths Paths of images on disk.
      * @param imageReader To read the images with.
      * @param useTransparency Should the top-left pixel of every image be considered
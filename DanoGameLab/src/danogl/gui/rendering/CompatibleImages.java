@@ -0,0 +1,44 @@
+package danogl.gui.rendering;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Creates images in the format of the screen, so that drawing them does not convert their pixels
+ * on every draw. Without a screen (in a headless environment), plain ARGB or RGB images are used.
+ * @author Dan Nirel
+ */
+public class CompatibleImages {
+    private static final GraphicsConfiguration screenConfiguration = GraphicsEnvironment.isHeadless() ?
+            null :
+            GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+
+    private CompatibleImages() { }
+
+    /**
+     * Create an empty image in the format of the screen.
+     * @param transparency One of the constants of {@link Transparency}.
+     */
+    public static BufferedImage createImage(int width, int height, int transparency) {
+        if(screenConfiguration == null)
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE ?
+                    BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        return screenConfiguration.createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+     * Copy an image to the format of the screen, if it is not in that format already.
+     * @return the image itself if no conversion is needed, or its copy.
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        if(screenConfiguration == null ||
+                image.getColorModel().equals(screenConfiguration.getColorModel(image.getTransparency())))
+            return image;
+        var compatibleImage = createImage(image.getWidth(), image.getHeight(), image.getTransparency());
+        var g = compatibleImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatibleImage;
+    }
+}
@@ -3,6 +3,7 @@ package danogl.gui.rendering;
 import danogl.util.Vector2;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
 /**
@@ -12,6 +13,7 @@ import java.awt.image.BufferedImage;
 public class ImageRenderable implements Renderable {
     private Image image;
     private ConfigureGraphics configureGraphics = new ConfigureGraphics();
+    private SpriteCache spriteCache = null;
 
     /**
      * Constructor. Typically, an instance of this class will be created via
@@ -27,30 +29,63 @@ public class ImageRenderable implements Renderable {
         if(image == null || opaqueness <= 0)
             return;
 
-        int topLeftCornerX = (int)topLeftCorner.x();
-        int topLeftCornerY = (int)topLeftCorner.y();
-        int dimX = (int)dimensions.x();
-        int dimY = (int)dimensions.y();
+        configureGraphics.init(g, topLeftCorner, dimensions, 0, opaqueness);
+        configureGraphics.setOpaqueness();
+        if(spriteCache != null && (degreesCounterClockwise != 0 ||
+                (int)dimensions.x() != width() || (int)dimensions.y() != height())) {
+            spriteCache.drawImage(g, image,
+                    topLeftCorner.x() + dimensions.x()/2, topLeftCorner.y() + dimensions.y()/2,
+                    (int)dimensions.x(), (int)dimensions.y(), degreesCounterClockwise,
+                    isFlippedHorizontally, isFlippedVertically);
+        }
+        else {
+            drawTransformed(g, image, topLeftCorner.x(), topLeftCorner.y(), dimensions.x(), dimensions.y(),
+                    degreesCounterClockwise, isFlippedHorizontally, isFlippedVertically);
+        }
+        configureGraphics.rollbackChanges();
+    }
+
+    /**
+     * Set a cache of resized and rotated variants of the image, used whenever the image is
+     * rendered resized or rotated. A cache may be shared by many renderables.
+     * @param spriteCache the cache, or null to transform the image on every render (the default).
+     */
+    public void setSpriteCache(SpriteCache spriteCache) {
+        this.spriteCache = spriteCache;
+    }
+
+    /**
+     * Draws the image resized, flipped and rotated, without changing the opaqueness.
+     * Used by render when the image is not cached, to create the variants of a SpriteCache,
+     * and to draw the images it cannot cache, so that all of them draw alike.
+     * The image is drawn at whole pixels, and rotated around the exact center of its bounds.
+     */
+    static void drawTransformed(Graphics2D g, Image image, float topLeftCornerX, float topLeftCornerY,
+                                float width, float height, double degreesCounterClockwise,
+                                boolean isFlippedHorizontally, boolean isFlippedVertically) {
+        int x = (int)topLeftCornerX;
+        int y = (int)topLeftCornerY;
+        int dimX = (int)width;
+        int dimY = (int)height;
+        double centerX = topLeftCornerX + width/2.0, centerY = topLeftCornerY + height/2.0;
         if(isFlippedHorizontally) {
             dimX *= -1;
-            topLeftCornerX -= dimX;
+            x -= dimX;
             degreesCounterClockwise *= -1;
         }
         if(isFlippedVertically) {
             dimY *= -1;
-            topLeftCornerY -= dimY;
+            y -= dimY;
             degreesCounterClockwise *= -1;
         }
-
-        configureGraphics.init(g, topLeftCorner, dimensions, degreesCounterClockwise, opaqueness);
-        configureGraphics.setRotation();
-        configureGraphics.setOpaqueness();
-
-        g.drawImage(image,
-                topLeftCornerX, topLeftCornerY,
-                dimX, dimY, null);
-
-        configureGraphics.rollbackChanges();
+        AffineTransform originalTransform = null;
+        if(degreesCounterClockwise != 0) {
+            originalTransform = g.getTransform();
+            g.rotate(Math.toRadians(-degreesCounterClockwise), centerX, centerY);
+        }
+        g.drawImage(image, x, y, dimX, dimY, null);
+        if(originalTransform != null)
+            g.setTransform(originalTransform);
     }
 
     /**
@@ -0,0 +1,189 @@
+package danogl.gui.rendering;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of scaled and rotated variants of images, so that an image rendered resized or rotated
+ * is drawn as an untransformed copy of a variant instead of through Java2D's transformed-image path.
+ * Sizes are quantized to sizeStep pixels and angles to angleStep degrees, and a render uses the
+ * variant nearest to it. The variants are images compatible with the Graphics2D they are drawn on,
+ * and the cache evicts the least recently drawn variants beyond its memory budget.
+ * A cache is used by the ImageRenderables it is set to, see
+ * {@link ImageRenderable#setSpriteCache(SpriteCache)}. It should only be used from the rendering thread.
+ * @author Dan Nirel
+ */
+public class SpriteCache {
+    private static final int BYTES_PER_PIXEL = 4;
+    //a variant larger than this fraction of the budget is not cached
+    private static final int MAX_VARIANTS_IN_BUDGET = 4;
+
+    private static class Key {
+        Image image;
+        int width, height, angleIndex;
+        boolean isFlippedHorizontally, isFlippedVertically;
+
+        Key set(Image image, int width, int height, int angleIndex,
+                boolean isFlippedHorizontally, boolean isFlippedVertically) {
+            this.image = image;
+            this.width = width;
+            this.height = height;
+            this.angleIndex = angleIndex;
+            this.isFlippedHorizontally = isFlippedHorizontally;
+            this.isFlippedVertically = isFlippedVertically;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof Key))
+                return false;
+            var other = (Key)o;
+            return image == other.image && width == other.width && height == other.height &&
+                    angleIndex == other.angleIndex &&
+                    isFlippedHorizontally == other.isFlippedHorizontally &&
+                    isFlippedVertically == other.isFlippedVertically;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(image);
+            hash = 31*hash + width;
+            hash = 31*hash + height;
+            hash = 31*hash + angleIndex;
+            return 4*hash + (isFlippedHorizontally ? 2 : 0) + (isFlippedVertically ? 1 : 0);
+        }
+    }
+
+    private final long budgetBytes;
+    private final int sizeStep;
+    private final double angleStep;
+    private final int angleSteps;
+    //in least-recently-drawn order
+    private final Map<Key, BufferedImage> variants = new LinkedHashMap<>(16, 0.75f, true);
+    //reused for lookups, so that a cached variant is found without allocations
+    private final Key lookupKey = new Key();
+    private long cachedBytes = 0;
+    private long hits = 0, misses = 0;
+
+    /**
+     * Construct a cache that keeps a variant for every pixel size and every degree.
+     * @param budgetBytes The maximal total size, in bytes, of the variants.
+     */
+    public SpriteCache(long budgetBytes) {
+        this(budgetBytes, 1, 1);
+    }
+
+    /**
+     * Construct a cache.
+     * @param budgetBytes The maximal total size, in bytes, of the variants.
+     * @param sizeStep The width and height of a variant are multiples of this many pixels.
+     * @param angleStep The angle of a variant is a multiple of this many degrees.
+     *                  Should divide 360.
+     */
+    public SpriteCache(long budgetBytes, int sizeStep, double angleStep) {
+        if(sizeStep < 1 || angleStep <= 0)
+            throw new IllegalArgumentException("Invalid steps for SpriteCache");
+        this.budgetBytes = budgetBytes;
+        this.sizeStep = sizeStep;
+        this.angleStep = angleStep;
+        this.angleSteps = Math.max((int)Math.round(360 / angleStep), 1);
+    }
+
+    /**
+     * Draw the image the way ImageRenderable does, using a cached variant if it fits in the budget.
+     * The parameters are those of {@link Renderable#render}, after the opaqueness was applied to g.
+     */
+    void drawImage(Graphics2D g, Image image, float centerX, float centerY, int width, int height,
+                   double degreesCounterClockwise,
+                   boolean isFlippedHorizontally, boolean isFlippedVertically) {
+        width = quantizeSize(width);
+        height = quantizeSize(height);
+        int angleIndex = (int)Math.floorMod(Math.round(degreesCounterClockwise / angleStep), (long)angleSteps);
+        var variant = variants.get(lookupKey.set(image, width, height, angleIndex,
+                isFlippedHorizontally, isFlippedVertically));
+        if(variant == null) {
+            misses++;
+            variant = createVariant(g, image, width, height, angleIndex * angleStep,
+                    isFlippedHorizontally, isFlippedVertically);
+            if(variant == null) {
+                ImageRenderable.drawTransformed(g, image, centerX - width/2f, centerY - height/2f,
+                        width, height, angleIndex * angleStep, isFlippedHorizontally, isFlippedVertically);
+                return;
+            }
+            variants.put(new Key().set(image, width, height, angleIndex,
+                    isFlippedHorizontally, isFlippedVertically), variant);
+            cachedBytes += sizeInBytes(variant);
+            evictOverBudget();
+        }
+        else
+            hits++;
+        //the corner of the image is truncated as in an untransformed render, and the variant
+        //is centered on the image
+        g.drawImage(variant,
+                (int)(centerX - width/2f) + Math.round((width - variant.getWidth()) / 2f),
+                (int)(centerY - height/2f) + Math.round((height - variant.getHeight()) / 2f), null);
+    }
+
+    /**
+     * The number of draws that used a cached variant.
+     */
+    public long getHits() { return hits; }
+
+    /**
+     * The number of draws that had to create a variant, or could not cache it.
+     */
+    public long getMisses() { return misses; }
+
+    /**
+     * The total size, in bytes, of the cached variants.
+     */
+    public long getCachedBytes() { return cachedBytes; }
+
+    /**
+     * Forget all variants, for example after the images they were made of changed.
+     */
+    public void clear() {
+        variants.clear();
+        cachedBytes = 0;
+    }
+
+    private int quantizeSize(int size) {
+        return Math.max(Math.round((float)size / sizeStep), 1) * sizeStep;
+    }
+
+    //the variant is large enough for the rotated image, which is drawn at its center
+    private BufferedImage createVariant(Graphics2D g, Image image, int width, int height, double degrees,
+                                        boolean isFlippedHorizontally, boolean isFlippedVertically) {
+        double radians = Math.toRadians(degrees);
+        double cos = Math.abs(Math.cos(radians)), sin = Math.abs(Math.sin(radians));
+        int variantWidth = (int)Math.ceil(width*cos + height*sin);
+        int variantHeight = (int)Math.ceil(width*sin + height*cos);
+        if((long)variantWidth * variantHeight * BYTES_PER_PIXEL * MAX_VARIANTS_IN_BUDGET > budgetBytes)
+            return null;
+        var variant = g.getDeviceConfiguration().createCompatibleImage(
+                variantWidth, variantHeight, Transparency.TRANSLUCENT);
+        var variantGraphics = variant.createGraphics();
+        variantGraphics.setRenderingHints(g.getRenderingHints());
+        ImageRenderable.drawTransformed(variantGraphics, image,
+                (variantWidth - width) / 2f, (variantHeight - height) / 2f, width, height,
+                degrees, isFlippedHorizontally, isFlippedVertically);
+        variantGraphics.dispose();
+        return variant;
+    }
+
+    private void evictOverBudget() {
+        Iterator<BufferedImage> leastRecentlyDrawn = variants.values().iterator();
+        while(cachedBytes > budgetBytes && leastRecentlyDrawn.hasNext()) {
+            cachedBytes -= sizeInBytes(leastRecentlyDrawn.next());
+            leastRecentlyDrawn.remove();
+        }
+    }
+
+    private static long sizeInBytes(BufferedImage variant) {
+        return (long)variant.getWidth() * variant.getHeight() * BYTES_PER_PIXEL;
+    }
+}
@@ -0,0 +1,118 @@
+package danogl.gui.rendering;
+
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.image.VolatileImage;
+
+/**
+ * A still image for static content, such as a baked background, that is drawn from a copy
+ * in video memory (a {@link VolatileImage}) when possible.
+ * The copy is created on the first render and drawn again from the image whenever its contents
+ * are lost (for example when the display mode changes) or the image changed (see {@link #invalidate()}).
+ * A render that resizes, rotates or flips the image draws the image itself, as does a render on
+ * a Graphics2D that cannot create accelerated volatile images, such as in a headless environment.
+ * @author Dan Nirel
+ */
+public class VolatileImageRenderable implements Renderable {
+    //attempts to draw a copy whose contents were lost during the draw, before drawing the image instead
+    private static final int MAX_DRAW_ATTEMPTS = 2;
+
+    private final Image image;
+    private final ImageRenderable imageRenderable;
+    private final ConfigureGraphics configureGraphics = new ConfigureGraphics();
+    private VolatileImage volatileImage = null;
+    private boolean isCopyInvalid = true;
+    private boolean isVolatileUnsupported = false;
+
+    /**
+     * Constructor.
+     * @param image The image. Changes to it are only drawn after a call to invalidate.
+     */
+    public VolatileImageRenderable(Image image) {
+        this.image = image;
+        this.imageRenderable = new ImageRenderable(image);
+    }
+
+    /**
+     * Mark the copy in video memory as out of date, after the image changed.
+     * The copy is drawn again on the next render.
+     */
+    public void invalidate() {
+        isCopyInvalid = true;
+    }
+
+    /**
+     * Release the copy in video memory. A later render creates it again.
+     */
+    public void flush() {
+        if(volatileImage != null) {
+            volatileImage.flush();
+            volatileImage = null;
+        }
+        isCopyInvalid = true;
+    }
+
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                       double degreesCounterClockwise,
+                       boolean isFlippedHorizontally, boolean isFlippedVertically,
+                       double opaqueness) {
+        if(image == null || opaqueness <= 0)
+            return;
+        int width = image.getWidth(null), height = image.getHeight(null);
+        if(isVolatileUnsupported || degreesCounterClockwise != 0 ||
+                isFlippedHorizontally || isFlippedVertically ||
+                (int)dimensions.x() != width || (int)dimensions.y() != height) {
+            imageRenderable.render(g, topLeftCorner, dimensions, degreesCounterClockwise,
+                    isFlippedHorizontally, isFlippedVertically, opaqueness);
+            return;
+        }
+        configureGraphics.init(g, topLeftCorner, dimensions, 0, opaqueness);
+        configureGraphics.setOpaqueness();
+        var gc = g.getDeviceConfiguration();
+        int attempts = 0;
+        do {
+            if(!validateCopy(gc, width, height)) {
+                isVolatileUnsupported = true;
+                break;
+            }
+            g.drawImage(volatileImage, (int)topLeftCorner.x(), (int)topLeftCorner.y(), null);
+            attempts++;
+        } while(volatileImage.contentsLost() && attempts < MAX_DRAW_ATTEMPTS);
+        //the contents were lost again, or volatile images are not supported
+        if(isVolatileUnsupported || volatileImage.contentsLost()) {
+            isCopyInvalid = true;
+            g.drawImage(image, (int)topLeftCorner.x(), (int)topLeftCorner.y(), null);
+        }
+        configureGraphics.rollbackChanges();
+    }
+
+    //makes sure the copy exists for gc, and draws it again if needed. false if it cannot be created
+    private boolean validateCopy(GraphicsConfiguration gc, int width, int height) {
+        int validation = volatileImage == null ? VolatileImage.IMAGE_INCOMPATIBLE : volatileImage.validate(gc);
+        if(validation == VolatileImage.IMAGE_INCOMPATIBLE) {
+            flush();
+            try {
+                volatileImage = gc.createCompatibleVolatileImage(width, height, Transparency.TRANSLUCENT);
+            }
+            catch(RuntimeException e) {
+                volatileImage = null;
+            }
+            //a copy that is not in video memory is no faster than the image (e.g., when headless)
+            if(volatileImage != null && !volatileImage.getCapabilities().isAccelerated())
+                flush();
+            if(volatileImage == null)
+                return false;
+            volatileImage.validate(gc);
+        }
+        if(validation != VolatileImage.IMAGE_OK || isCopyInvalid) {
+            var copyGraphics = volatileImage.createGraphics();
+            copyGraphics.setComposite(AlphaComposite.Src);
+            copyGraphics.drawImage(image, 0, 0, null);
+            copyGraphics.dispose();
+            isCopyInvalid = false;
+        }
+        return true;
+    }
+}
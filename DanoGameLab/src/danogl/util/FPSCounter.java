@@ -3,6 +3,7 @@ package danogl.util;
 import danogl.GameObject;
 import danogl.components.CoordinateSpace;
 import danogl.components.ScheduledTask;
+import danogl.components.TaskScheduler;
 import danogl.gui.rendering.TextRenderable;
 
 import java.awt.*;
@@ -25,12 +26,24 @@ public class FPSCounter {
      * @return
      */
     public static GameObject create(Vector2 topLeftCorner, int height, Color color) {
+        return create(topLeftCorner, height, color, null);
+    }
+
+    /**
+     * Create a GameObject that displays the frames-per-second, whose refreshes are scheduled
+     * by the given scheduler instead of by a component of the object.
+     * @param scheduler usually the scheduler of the GameObjectCollection the counter is added to,
+     *                  or null for a component.
+     * @see #create(Vector2, int, Color)
+     */
+    public static GameObject create(Vector2 topLeftCorner, int height, Color color,
+                                    TaskScheduler scheduler) {
         GameObject fpsCounter = new GameObject(topLeftCorner, Vector2.DOWN.mult(height), null);
         Counter framesCounter = new Counter();
         TextRenderable fpsStringRenderer = new TextRenderable("");
         fpsStringRenderer.setColor(color);
         new ScheduledTask(
-                fpsCounter, TIME_BETWEEN_FPS_REFRESHES, true,
+                scheduler, fpsCounter, TIME_BETWEEN_FPS_REFRESHES, true,
                 ()->{
                     int fps = (int)(framesCounter.value() / TIME_BETWEEN_FPS_REFRESHES);
                     framesCounter.reset();
@@ -0,0 +1,116 @@
+package danogl.util;
+
+import java.util.Arrays;
+
+/**
+ * A package-private class required for the implementation of ModifiableList.
+ * Maps objects, by identity, to non-negative ints.
+ * Implemented as an open-addressing table, so that lookups do not box
+ * or allocate.
+ * @author Dan Nirel
+ */
+class IdentityIndex {
+    private static final int INITIAL_CAPACITY = 16;
+    /** Returned by {@link #get(Object)} for keys that are not in the index */
+    static final int NOT_FOUND = -1;
+
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /** The value mapped to key, or NOT_FOUND */
+    int get(Object key) {
+        int mask = keys.length-1;
+        for(int slot = slotFor(key, mask) ; keys[slot] != null ; slot = (slot+1) & mask) {
+            if(keys[slot] == key)
+                return values[slot];
+        }
+        return NOT_FOUND;
+    }
+
+    /** Whether key is in the index */
+    boolean contains(Object key) { return get(key) != NOT_FOUND; }
+
+    /** Map key to value, replacing any previous value. key cannot be null. */
+    void put(Object key, int value) {
+        if(2*(size+1) > keys.length)
+            resize(2*keys.length);
+        int mask = keys.length-1;
+        int slot = slotFor(key, mask);
+        for(; keys[slot] != null ; slot = (slot+1) & mask) {
+            if(keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /** Remove key from the index. Returns whether it was there. */
+    boolean remove(Object key) {
+        int mask = keys.length-1;
+        int slot = slotFor(key, mask);
+        for(; keys[slot] != key ; slot = (slot+1) & mask) {
+            if(keys[slot] == null)
+                return false;
+        }
+        keys[slot] = null;
+        size--;
+        //shift back the entries of the same probe sequence, so that lookups don't stop early
+        for(int next = (slot+1) & mask ; keys[next] != null ; next = (next+1) & mask) {
+            int home = slotFor(keys[next], mask);
+            //move the entry if its home is not cyclically within (slot, next]
+            if(((next-home) & mask) >= ((next-slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                keys[next] = null;
+                slot = next;
+            }
+        }
+        return true;
+    }
+
+    /** The number of keys in the index */
+    int size() { return size; }
+
+    /** The number of slots of the table */
+    int capacity() { return keys.length; }
+
+    /**
+     * Remove all keys. A table that is mostly empty is replaced by one sized for its keys,
+     * so that clearing costs O(size) rather than O(the largest size the index ever had).
+     */
+    void clear() {
+        if(size == 0)
+            return;
+        if(8*size < keys.length) {
+            int capacity = INITIAL_CAPACITY;
+            while(capacity < 2*size)
+                capacity *= 2;
+            keys = new Object[capacity];
+            values = new int[capacity];
+        }
+        else
+            Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new Object[newCapacity];
+        values = new int[newCapacity];
+        size = 0;
+        for(int i = 0 ; i < oldKeys.length ; i++) {
+            if(oldKeys[i] != null)
+                put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int slotFor(Object key, int mask) {
+        int h = System.identityHashCode(key) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -3,7 +3,9 @@ package danogl.util;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -55,38 +57,80 @@ public class ModifiableList<E> implements Iterable<E> {
     }
 
     private List<E> list = new ArrayList<>();
+    //may contain nulls in place of elements that were removed before being flushed
     private List<E> toAdd = new ArrayList<>();
     private List<E> toRemove = new ArrayList<>();
     private MyIterator iterator = new MyIterator();
     private Reverse reverseIterable;
     private boolean allowDuplicates;
+    private boolean preserveOrder;
+
+    //used only when duplicates are not allowed:
+    //the position of every element in list, the position of every element in toAdd,
+    //and the elements of toRemove
+    private IdentityIndex listPositions;
+    private IdentityIndex toAddPositions;
+    private IdentityIndex toRemoveSet;
 
     /**
-     * Creates a new modfiable list
+     * Creates a new modfiable list that keeps its elements in the order they were added.
      * @param allowDuplicates whether the list should allow duplicate elements
-     *                        (elements that are "equal" according to equals)
+     * @see #ModifiableList(boolean, boolean)
      */
     public ModifiableList(boolean allowDuplicates) {
+        this(allowDuplicates, true);
+    }
+
+    /**
+     * Creates a new modfiable list.
+     * <br>A list that does not allow duplicates identifies its elements by identity
+     * (==) rather than by equals, and keeps an index of their positions, so that
+     * add, remove and contains take constant time, and applying k removals
+     * takes O(k) (or a single O(n) compaction, if the order is preserved).
+     * Such a list does not accept null elements.
+     * @param allowDuplicates whether the list should allow duplicate elements
+     *                        (elements that are "equal" according to equals)
+     * @param preserveOrder whether removals should preserve the order of the remaining
+     *                      elements. If false, a removed element is replaced by the last element
+     *                      of the list, which is cheaper for large lists whose order
+     *                      is irrelevant. Only affects lists that do not allow duplicates.
+     */
+    public ModifiableList(boolean allowDuplicates, boolean preserveOrder) {
         this.allowDuplicates = allowDuplicates;
+        this.preserveOrder = preserveOrder;
+        if(!allowDuplicates) {
+            listPositions = new IdentityIndex();
+            toAddPositions = new IdentityIndex();
+            toRemoveSet = new IdentityIndex();
+        }
     }
 
     /**
      * Add an element to the list. The element is not added immediately;
      * it's stored in a temporary buffer whose contents is only added to the list
      * on the next call to {@link #flushChanges()}.
+     * An element that was removed since the last call to flushChanges can be added again,
+     * in which case flushChanges removes it and then adds it back (at the end of the list).
      * @return true if the element was successfully added, or false
      * if the list does not allow duplicates and the element was already added.
      */
     public boolean add(E item) {
-        if(!allowDuplicates && (toAdd.contains(item) || list.contains(item)))
+        if(allowDuplicates) {
+            toAdd.add(item);
+            return true;
+        }
+        Objects.requireNonNull(item);
+        if(toAddPositions.contains(item) || (listPositions.contains(item) && !toRemoveSet.contains(item)))
             return false;
+        toAddPositions.put(item, toAdd.size());
         toAdd.add(item);
         return true;
     }
 
     /**
      * Remove an element from the list. More specifically, it removes the first
-     * element in the list that "equals" the specified item.
+     * element in the list that "equals" the specified item (or that is the specified item,
+     * if the list does not allow duplicates).
      * The element is not removed immediately;
      * it's stored in a temporary buffer whose contents is only removed from the list
      * on the next call to {@link #flushChanges()}. If the element in question was
@@ -98,21 +142,133 @@ public class ModifiableList<E> implements Iterable<E> {
      * recently, before a call to flushChanges, the method will return false and have no effect.
      */
     public boolean remove(E item) {
-        boolean removedFromToAdd = toAdd.remove(item);
-        if(!list.contains(item) || toRemove.contains(item))
+        if(allowDuplicates) {
+            boolean removedFromToAdd = toAdd.remove(item);
+            if(!list.contains(item) || toRemove.contains(item))
+                return removedFromToAdd;
+            toRemove.add(item);
+            return true;
+        }
+        if(item == null)
+            return false;
+        boolean removedFromToAdd = false;
+        int toAddPosition = toAddPositions.get(item);
+        if(toAddPosition != IdentityIndex.NOT_FOUND) {
+            //leave a hole rather than shifting the elements that follow
+            toAdd.set(toAddPosition, null);
+            toAddPositions.remove(item);
+            removedFromToAdd = true;
+        }
+        if(!listPositions.contains(item) || toRemoveSet.contains(item))
             return removedFromToAdd;
+        toRemoveSet.put(item, 0);
         toRemove.add(item);
         return true;
     }
 
+    /**
+     * Remove all the elements of the list, including elements added since the last call
+     * to {@link #flushChanges()}. Like {@link #remove}, the elements are only removed from
+     * the list on the next call to flushChanges.
+     */
+    public void clear() {
+        for(int i = 0 ; i < list.size() ; i++)
+            remove(list.get(i));
+        toAdd.clear();
+        if(!allowDuplicates)
+            toAddPositions.clear();
+    }
+
     /**
      * Applies to the list the modifications made to it since the last call to this method.
      */
     public void flushChanges() {
-        list.removeAll(toRemove);
-        toRemove.clear();
-        list.addAll(toAdd);
-        toAdd.clear();
+        flushChanges(null, null);
+    }
+
+    /**
+     * Applies to the list the modifications made to it since the last call to this method,
+     * and notifies the supplied callbacks of the elements that were actually removed and added.
+     * @param onRemoved called for every element removed from the list. Can be null.
+     * @param onAdded called for every element added to the list. Can be null.
+     */
+    public void flushChanges(Consumer<E> onRemoved, Consumer<E> onAdded) {
+        if(allowDuplicates) {
+            list.removeAll(toRemove);
+            if(onRemoved != null)
+                toRemove.forEach(onRemoved);
+            toRemove.clear();
+            list.addAll(toAdd);
+            if(onAdded != null)
+                toAdd.forEach(onAdded);
+            toAdd.clear();
+            return;
+        }
+
+        if(!toRemove.isEmpty()) {
+            if(preserveOrder)
+                compactRemoved();
+            else
+                swapRemoveRemoved();
+            if(onRemoved != null)
+                toRemove.forEach(onRemoved);
+            //removed one by one, so that a flush costs O(k) even if the index once grew large
+            for(E item : toRemove)
+                toRemoveSet.remove(item);
+            toRemove.clear();
+        }
+
+        if(!toAdd.isEmpty()) {
+            for(E item : toAdd) {
+                if(item == null)
+                    continue;
+                listPositions.put(item, list.size());
+                list.add(item);
+            }
+            if(onAdded != null) {
+                for(E item : toAdd) {
+                    if(item != null)
+                        onAdded.accept(item);
+                }
+            }
+            for(E item : toAdd) {
+                if(item != null)
+                    toAddPositions.remove(item);
+            }
+            toAdd.clear();
+        }
+    }
+
+    //removes the elements of toRemove in a single pass, shifting the remaining elements back
+    private void compactRemoved() {
+        int newSize = 0;
+        for(int i = 0 ; i < list.size() ; i++) {
+            E item = list.get(i);
+            if(toRemoveSet.contains(item)) {
+                listPositions.remove(item);
+                continue;
+            }
+            if(newSize != i) {
+                list.set(newSize, item);
+                listPositions.put(item, newSize);
+            }
+            newSize++;
+        }
+        list.subList(newSize, list.size()).clear();
+    }
+
+    //replaces every removed element with the list's last element
+    private void swapRemoveRemoved() {
+        for(E item : toRemove) {
+            int position = listPositions.get(item);
+            int lastPosition = list.size()-1;
+            E last = list.remove(lastPosition);
+            if(position != lastPosition) {
+                list.set(position, last);
+                listPositions.put(last, position);
+            }
+            listPositions.remove(item);
+        }
     }
 
     /**
@@ -139,7 +295,12 @@ public class ModifiableList<E> implements Iterable<E> {
      * would still remain after the removal is applied.
      */
     public boolean contains(E item) {
-        return (list.contains(item) || toAdd.contains(item)) && !toRemove.contains(item);
+        if(allowDuplicates)
+            return (list.contains(item) || toAdd.contains(item)) && !toRemove.contains(item);
+        if(item == null)
+            return false;
+        return toAddPositions.contains(item)
+                || (listPositions.contains(item) && !toRemoveSet.contains(item));
     }
 
     @Override
@@ -171,13 +332,19 @@ public class ModifiableList<E> implements Iterable<E> {
      */
     public E findFirst(Predicate<E> predicate) {
         for(E el : this) {
-            if(!toRemove.contains(el) && predicate.test(el))
+            if(!isPendingRemoval(el) && predicate.test(el))
                 return el;
         }
         for(E el : toAdd) {
-            if(predicate.test(el))
+            if((allowDuplicates || el != null) && predicate.test(el))
                 return el;
         }
         return null;
     }
+
+    private boolean isPendingRemoval(E item) {
+        if(toRemove.isEmpty())
+            return false;
+        return allowDuplicates ? toRemove.contains(item) : toRemoveSet.contains(item);
+    }
 }
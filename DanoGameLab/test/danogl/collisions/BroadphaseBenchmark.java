@@ -0,0 +1,133 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.ModifiableList;
+import danogl.util.Vector2;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that every broadphase reports exactly the overlapping pairs AllPairsBroadphase reports,
+ * including for objects too large for a spatial hash's grid, and compares their speed on a long
+ * strip of static objects (as in a side-scroller) paired with a layer of small moving objects.
+ * Run with: java -cp &lt;classes&gt; danogl.collisions.BroadphaseBenchmark
+ * @author Dan Nirel
+ */
+public class BroadphaseBenchmark {
+    private static final int[] WORLD_SIZES = {10_000, 50_000, 200_000};
+    private static final int MOVING_OBJECTS = 1000;
+    private static final float OBJECT_SIZE = 30;
+    private static final float CELL_SIZE = 60;
+    private static final int LAYER1 = 1, LAYER2 = 2;
+
+    public static void main(String[] args) {
+        checkPairSets();
+        for(int worldSize : WORLD_SIZES)
+            benchmark(worldSize);
+        System.out.println("BroadphaseBenchmark passed");
+    }
+
+    //every broadphase must report the same unordered pairs as AllPairsBroadphase, each pair once
+    private static void checkPairSets() {
+        var random = new Random(1);
+        var objects = createObjects(random, 10_000, 10_000 * OBJECT_SIZE / 4);
+        var others = createObjects(random, 2000, 10_000 * OBJECT_SIZE / 4);
+        //objects that span many cells, or the whole world
+        objects.add(new GameObject(new Vector2(-100, -100), new Vector2(100_000, 500), null));
+        objects.add(new GameObject(new Vector2(-1e38f, 0), new Vector2(3e38f, 10), null));
+        others.add(new GameObject(new Vector2(-1e30f, -1e30f), new Vector2(1e30f, 2e30f), null));
+        objects.flushChanges();
+        others.flushChanges();
+
+        Broadphase[] broadphases = {
+                new AllPairsBroadphase(), new SpatialHashBroadphase(CELL_SIZE), new SweepAndPruneBroadphase()};
+        Set<Long> expectedSame = null, expectedOther = null;
+        for(var broadphase : broadphases) {
+            register(broadphase, objects, LAYER1);
+            register(broadphase, others, LAYER2);
+            broadphase.onFrameStart();
+            var same = findPairs(broadphase, objects, LAYER1, objects, LAYER1);
+            var other = findPairs(broadphase, objects, LAYER1, others, LAYER2);
+            if(expectedSame == null) {
+                expectedSame = same;
+                expectedOther = other;
+                continue;
+            }
+            if(!same.equals(expectedSame) || !other.equals(expectedOther))
+                throw new AssertionError(broadphase.getClass().getSimpleName() +
+                        " does not report the pairs AllPairsBroadphase reports");
+        }
+        System.out.printf("pair sets equal: %d pairs in a layer, %d between layers%n",
+                expectedSame.size(), expectedOther.size());
+    }
+
+    private static void benchmark(int worldSize) {
+        var random = new Random(worldSize);
+        float worldWidth = worldSize * OBJECT_SIZE / 4;
+        var world = createObjects(random, worldSize, worldWidth);
+        var moving = createObjects(random, MOVING_OBJECTS, worldWidth);
+        for(int i = 0 ; i < world.size() ; i++)
+            world.get(i).physics().setStatic(true);
+
+        Broadphase[] broadphases = {
+                new AllPairsBroadphase(), new SpatialHashBroadphase(CELL_SIZE), new SweepAndPruneBroadphase()};
+        for(var broadphase : broadphases) {
+            register(broadphase, world, LAYER1);
+            register(broadphase, moving, LAYER2);
+            int[] pairs = new int[1];
+            int frames = broadphase instanceof AllPairsBroadphase ? 2 : 20;
+            long start = 0;
+            for(int frame = -frames ; frame < frames ; frame++) { //the first half warms up
+                if(frame == 0) {
+                    start = System.nanoTime();
+                    pairs[0] = 0;
+                }
+                for(int i = 0 ; i < moving.size() ; i++)
+                    moving.get(i).transform().setTopLeftCornerX(moving.get(i).getTopLeftCorner().x() + 1);
+                broadphase.onFrameStart();
+                broadphase.findPairs(LAYER2, moving, LAYER1, world, (go1, go2) -> pairs[0]++);
+            }
+            double msPerFrame = (System.nanoTime() - start) / 1e6 / frames;
+            System.out.printf("%,9d objects: %-26s %9.3f ms per frame (%d pairs per frame)%n",
+                    worldSize, broadphase.getClass().getSimpleName(), msPerFrame, pairs[0] / frames);
+        }
+    }
+
+    private static ModifiableList<GameObject> createObjects(Random random, int count, float worldWidth) {
+        var objects = new ModifiableList<GameObject>(false);
+        for(int i = 0 ; i < count ; i++) {
+            var size = new Vector2(OBJECT_SIZE * (0.5f + random.nextFloat()), OBJECT_SIZE * (0.5f + random.nextFloat()));
+            objects.add(new GameObject(
+                    new Vector2(random.nextFloat() * worldWidth, random.nextFloat() * 20 * OBJECT_SIZE), size, null));
+        }
+        objects.flushChanges();
+        return objects;
+    }
+
+    private static void register(Broadphase broadphase, ModifiableList<GameObject> objects, int layerId) {
+        for(int i = 0 ; i < objects.size() ; i++)
+            broadphase.onGameObjectAdded(objects.get(i), layerId);
+    }
+
+    private static Set<Long> findPairs(Broadphase broadphase,
+                                       ModifiableList<GameObject> objects1, int layer1Id,
+                                       ModifiableList<GameObject> objects2, int layer2Id) {
+        var pairs = new HashSet<Long>();
+        var rect1 = new java.awt.geom.Rectangle2D.Float();
+        var rect2 = new java.awt.geom.Rectangle2D.Float();
+        broadphase.findPairs(layer1Id, objects1, layer2Id, objects2, (go1, go2) -> {
+            ColliderBounds.worldBounds(go1, rect1);
+            ColliderBounds.worldBounds(go2, rect2);
+            //AllPairsBroadphase reports every pair, so compare only pairs whose bounds overlap
+            if(rect1.x > rect2.x + rect2.width || rect2.x > rect1.x + rect1.width ||
+                    rect1.y > rect2.y + rect2.height || rect2.y > rect1.y + rect1.height)
+                return;
+            long key = ((long)Math.min(go1.getId(), go2.getId()) << 32) | Math.max(go1.getId(), go2.getId());
+            if(!pairs.add(key))
+                throw new AssertionError(broadphase.getClass().getSimpleName() + " reported a pair twice");
+        });
+        return pairs;
+    }
+}
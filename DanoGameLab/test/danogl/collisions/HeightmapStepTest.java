@@ -0,0 +1,67 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.components.GameObjectPhysics;
+import danogl.util.Vector2;
+
+/**
+ * Checks that a box walking on a heightmap into a step one block high is held both by the floor
+ * it stands on and by the wall of the step: it neither sinks into the floor nor walks into the step.
+ * Run with: java -cp &lt;classes&gt; danogl.collisions.HeightmapStepTest
+ * @author Dan Nirel
+ */
+public class HeightmapStepTest {
+    private static final float COLUMN_WIDTH = 30;
+    private static final int COLUMNS = 10;
+    private static final int STEP_COLUMN = 5;
+    private static final float HEIGHTMAP_HEIGHT = 300;
+    private static final float FLOOR_Y = 240, STEP_Y = 210;
+    //the resolver leaves objects overlapping by a pixel, so that they keep colliding
+    private static final float TOLERANCE = 2;
+    private static final float DELTA_TIME = 1/60f;
+
+    public static void main(String[] args) {
+        var collection = new GameObjectCollection();
+
+        var heightmap = new HeightmapCollider(COLUMNS);
+        for(int column = 0 ; column < COLUMNS ; column++)
+            heightmap.setColumn(column, (column < STEP_COLUMN ? FLOOR_Y : STEP_Y) / HEIGHTMAP_HEIGHT, 1);
+        var ground = new GameObject(Vector2.ZERO, new Vector2(COLUMNS*COLUMN_WIDTH, HEIGHTMAP_HEIGHT), null);
+        ground.physics().setCollider(heightmap);
+        ground.physics().setStatic(true);
+        ground.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+        ground.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        collection.addGameObject(ground, Layer.STATIC_OBJECTS);
+
+        var box = new GameObject(new Vector2(40, FLOOR_Y - 40), new Vector2(20, 40), null);
+        box.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        box.transform().setAccelerationY(500);
+        collection.addGameObject(box);
+
+        float wallX = STEP_COLUMN*COLUMN_WIDTH;
+        boolean reachedWall = false;
+        for(int frame = 0 ; frame < 300 ; frame++) {
+            //keep walking right, as a player holding the key would
+            box.transform().setVelocityX(60);
+            for(var obj : collection.nonStaticObjects())
+                obj.update(DELTA_TIME);
+            collection.update(DELTA_TIME);
+            collection.handleCollisions();
+
+            float bottom = box.getTopLeftCorner().y() + box.getDimensions().y();
+            float right = box.getTopLeftCorner().x() + box.getDimensions().x();
+            if(bottom > FLOOR_Y + TOLERANCE)
+                throw new AssertionError(String.format(
+                        "frame %d: the box sank into the floor (bottom at %.1f, floor at %.1f)", frame, bottom, FLOOR_Y));
+            if(right > wallX + TOLERANCE)
+                throw new AssertionError(String.format(
+                        "frame %d: the box walked into the step (right at %.1f, wall at %.1f)", frame, right, wallX));
+            reachedWall |= right >= wallX - TOLERANCE;
+        }
+        if(!reachedWall)
+            throw new AssertionError("the box never reached the step");
+        System.out.printf("box rests at (%.1f, %.1f), against the step and on the floor%n",
+                box.getTopLeftCorner().x(), box.getTopLeftCorner().y());
+        System.out.println("HeightmapStepTest passed");
+    }
+}
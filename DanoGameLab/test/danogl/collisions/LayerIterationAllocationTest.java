@@ -0,0 +1,120 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that iterating a GameObjectCollection through its cursors allocates nothing once the
+ * cursors were opened and closed, including after loops that end early, that nested iterations
+ * do not disturb each other, and that the cost per object stays flat up to 200k objects.
+ * Allocations are measured with the allocated-bytes counter of com.sun.management.ThreadMXBean.
+ * Run with: java -cp &lt;classes&gt; danogl.collisions.LayerIterationAllocationTest
+ * @author Dan Nirel
+ */
+public class LayerIterationAllocationTest {
+    private static final int[] SIZES = {10_000, 200_000};
+    private static final int[] LAYERS = {Layer.BACKGROUND, Layer.STATIC_OBJECTS, Layer.DEFAULT, Layer.UI};
+    private static final int ITERATIONS = 200;
+
+    public static void main(String[] args) {
+        var threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if(!threadBean.isThreadAllocatedMemorySupported())
+            throw new AssertionError("The JVM does not count allocated bytes per thread");
+        checkNestedAndEarlyExit();
+        for(int size : SIZES)
+            measure(threadBean, size);
+        System.out.println("LayerIterationAllocationTest passed");
+    }
+
+    private static void checkNestedAndEarlyExit() {
+        var collection = createCollection(100);
+        int outerCount = 0;
+        try(var outer = collection.openCursor()) {
+            for(var obj : outer) {
+                outerCount++;
+                //an inner loop that ends early, while the outer loop is in progress
+                try(var inner = collection.openCursor()) {
+                    for(var other : inner) {
+                        if(other == obj)
+                            break;
+                    }
+                }
+            }
+        }
+        check(outerCount == 100, "a nested loop disturbed the outer loop");
+        //a loop that ended early must not keep the cursor from being reused
+        GameObject first;
+        try(var objects = collection.openCursor()) {
+            first = objects.next();
+        }
+        try(var objects = collection.openCursor()) {
+            check(objects.next() == first, "a reopened cursor did not start over");
+        }
+        try(var objects = collection.openReverseCursor()) {
+            int count = 0;
+            for(var obj : objects)
+                count++;
+            check(count == 100, "the reverse cursor missed objects");
+        }
+    }
+
+    private static void measure(com.sun.management.ThreadMXBean threadBean, int size) {
+        var collection = createCollection(size);
+        var thread = Thread.currentThread().getId();
+        long checksum = 0;
+        //warm up, so that the measured loops are compiled
+        for(int i = 0 ; i < ITERATIONS ; i++)
+            checksum += iterateOnce(collection);
+        long bytesBefore = threadBean.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for(int i = 0 ; i < ITERATIONS ; i++)
+            checksum += iterateOnce(collection);
+        long nanos = System.nanoTime() - start;
+        long bytes = threadBean.getThreadAllocatedBytes(thread) - bytesBefore;
+        System.out.printf("%,8d objects: %.2f ns per object visited, %d bytes allocated in %d frames (%d)%n",
+                size, nanos / (3.0 * size * ITERATIONS), bytes, ITERATIONS, checksum % 10);
+        check(bytes == 0, "iterating the collection allocated " + bytes + " bytes");
+    }
+
+    //one frame's worth of iteration, as GameManager does it, plus a loop that ends early
+    private static long iterateOnce(GameObjectCollection collection) {
+        long sum = 0;
+        try(var objects = collection.openNonStaticCursor()) {
+            for(var obj : objects)
+                sum += obj.getId();
+        }
+        try(var objects = collection.openCursor()) {
+            for(var obj : objects)
+                sum += obj.getId();
+        }
+        try(var objects = collection.openReverseCursor()) {
+            for(var obj : objects)
+                sum += obj.getId();
+        }
+        try(var objects = collection.openCursor()) {
+            for(var obj : objects) {
+                if(obj.getId() % 7 == 0)
+                    break;
+            }
+        }
+        return sum;
+    }
+
+    private static GameObjectCollection createCollection(int size) {
+        var collection = new GameObjectCollection();
+        for(int i = 0 ; i < size ; i++) {
+            var obj = new GameObject(new Vector2(i, 0), Vector2.ONES, null);
+            obj.physics().setStatic(i % 2 == 0);
+            collection.addGameObject(obj, LAYERS[i % LAYERS.length]);
+        }
+        collection.update(0);
+        return collection;
+    }
+
+    private static void check(boolean condition, String message) {
+        if(!condition)
+            throw new AssertionError(message);
+    }
+}
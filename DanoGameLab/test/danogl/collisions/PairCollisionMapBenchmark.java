@@ -0,0 +1,202 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+/**
+ * Checks PairCollisionMap against a HashMap under random puts, removes and lookups, in both orders
+ * of the pairs' objects, including that its dense entries hold exactly its pairs, and that its
+ * table shrinks back after a spike of pairs. Then times a frame of 100k pair checks against 20k
+ * cached contacts, with 1k contacts entering and 1k exiting and a walk over the entries, as
+ * GameObjectCollection does every frame, and asserts that such a frame allocates nothing.
+ * The same frames are timed on a HashMap of boxed keys, for comparison.
+ * Run with: java -cp &lt;classes&gt; danogl.collisions.PairCollisionMapBenchmark
+ * @author Dan Nirel
+ */
+public class PairCollisionMapBenchmark {
+    private static final int OBJECTS = 2000;
+    private static final int CONTACTS = 20_000;
+    private static final int CHECKS_PER_FRAME = 100_000;
+    private static final int CHANGES_PER_FRAME = 1000;
+    private static final int FRAMES = 500;
+    private static final float FRAME_BUDGET_MS = 1000/60f;
+
+    private static class TestCollisionData extends PairCollisionData {
+        TestCollisionData(GameObject go1, GameObject go2) {
+            super(go1, go2);
+        }
+
+        @Override
+        public boolean areColliding() {
+            return true;
+        }
+    }
+
+    public static void main(String[] args) {
+        var objects = new GameObject[OBJECTS];
+        for(int i = 0 ; i < OBJECTS ; i++)
+            objects[i] = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        checkAgainstHashMap(objects);
+        checkShrinks(objects);
+        benchmark(objects);
+        System.out.println("PairCollisionMapBenchmark passed");
+    }
+
+    private static void checkAgainstHashMap(GameObject[] objects) {
+        var random = new Random(1);
+        var map = new PairCollisionMap();
+        var expected = new HashMap<Long, PairCollisionData>();
+        for(int op = 0 ; op < 200_000 ; op++) {
+            var obj1 = objects[random.nextInt(100)];
+            var obj2 = objects[random.nextInt(100)];
+            if(obj1 == obj2)
+                continue;
+            long key = PairCollisionMap.keyOf(obj1, obj2);
+            check(key == PairCollisionMap.keyOf(obj2, obj1), "the key depends on the order of the objects");
+            switch(random.nextInt(3)) {
+                case 0:
+                    var collisionData = new TestCollisionData(obj1, obj2);
+                    map.put(collisionData);
+                    expected.put(key, collisionData);
+                    break;
+                case 1:
+                    check(map.remove(obj2, obj1) == (expected.remove(key) != null), "remove returned a wrong value");
+                    break;
+                default:
+                    check(map.get(obj1, obj2) == expected.get(key), "get returned a wrong value");
+            }
+            if(op % 1000 == 0)
+                checkEntries(map, expected);
+        }
+        checkEntries(map, expected);
+    }
+
+    private static void checkEntries(PairCollisionMap map, HashMap<Long, PairCollisionData> expected) {
+        check(map.size() == expected.size(), "the size is wrong");
+        var seen = new IdentityHashMap<PairCollisionData, Boolean>();
+        for(int i = 0 ; i < map.size() ; i++) {
+            var collisionData = map.entryAt(i);
+            check(expected.get(PairCollisionMap.keyOf(collisionData.go1(), collisionData.go2())) == collisionData,
+                    "the entries hold a pair that is not in the map");
+            check(seen.put(collisionData, true) == null, "the entries hold a pair twice");
+        }
+    }
+
+    private static void checkShrinks(GameObject[] objects) {
+        var map = new PairCollisionMap();
+        int initialCapacity = map.capacity();
+        for(int i = 0 ; i < CONTACTS ; i++)
+            map.put(new TestCollisionData(objects[i % OBJECTS], objects[(i / OBJECTS + 1 + i) % OBJECTS]));
+        int spikeCapacity = map.capacity();
+        for(int i = 1 ; i < CONTACTS ; i++)
+            map.remove(objects[i % OBJECTS], objects[(i / OBJECTS + 1 + i) % OBJECTS]);
+        check(map.size() == 1 && map.get(objects[0], objects[1]) != null, "the remaining pair was lost");
+        check(map.capacity() == initialCapacity, "the table did not shrink from " + spikeCapacity +
+                " slots after its pairs were removed, it has " + map.capacity());
+    }
+
+    private static void benchmark(GameObject[] objects) {
+        var random = new Random(2);
+        var map = new PairCollisionMap();
+        //a ring of pairs, of which the first CONTACTS are cached at any time
+        int ringSize = 2 * CONTACTS;
+        var ring = new PairCollisionData[ringSize];
+        var ringKeys = new HashSet<Long>();
+        for(int i = 0 ; i < ringSize ; i++) {
+            var obj1 = objects[random.nextInt(OBJECTS)];
+            var obj2 = objects[random.nextInt(OBJECTS)];
+            while(obj2 == obj1 || !ringKeys.add(PairCollisionMap.keyOf(obj1, obj2)))
+                obj2 = objects[random.nextInt(OBJECTS)];
+            ring[i] = new TestCollisionData(obj1, obj2);
+            if(i < CONTACTS)
+                map.put(ring[i]);
+        }
+        //the pairs checked every frame: half are cached, half are not
+        var checked1 = new GameObject[CHECKS_PER_FRAME];
+        var checked2 = new GameObject[CHECKS_PER_FRAME];
+        for(int i = 0 ; i < CHECKS_PER_FRAME ; i++) {
+            var collisionData = ring[random.nextInt(ringSize)];
+            checked1[i] = collisionData.go1();
+            checked2[i] = collisionData.go2();
+        }
+        var threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        var thread = Thread.currentThread().getId();
+        long nanos = 0, bytes = 0, hits = 0;
+        int oldest = 0;
+        for(int frame = -FRAMES ; frame < FRAMES ; frame++) { //the first half warms up
+            long bytesBefore = threadBean.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for(int i = 0 ; i < CHECKS_PER_FRAME ; i++) {
+                if(map.get(checked1[i], checked2[i]) != null)
+                    hits++;
+            }
+            for(int i = 0 ; i < CHANGES_PER_FRAME ; i++) {
+                var exiting = ring[oldest];
+                map.remove(exiting.go1(), exiting.go2());
+                map.put(ring[(oldest + CONTACTS) % ringSize]);
+                oldest = (oldest + 1) % ringSize;
+            }
+            for(int i = 0 ; i < map.size() ; i++) {
+                if(map.entryAt(i).lastHandledFrame == frame)
+                    hits++;
+            }
+            long end = System.nanoTime();
+            if(frame >= 0) {
+                nanos += end - start;
+                bytes += threadBean.getThreadAllocatedBytes(thread) - bytesBefore;
+            }
+        }
+        check(map.size() == CONTACTS, "the map lost contacts");
+        double msPerFrame = nanos / 1e6 / FRAMES;
+        System.out.printf("%,d pair checks and %,d contact changes against %,d contacts: %.3f ms per frame " +
+                        "(%.1f%% of a 60 FPS frame), %.1f ns per check, %d bytes allocated in %d frames (%d)%n",
+                CHECKS_PER_FRAME, 2 * CHANGES_PER_FRAME, CONTACTS, msPerFrame, 100 * msPerFrame / FRAME_BUDGET_MS,
+                nanos / (double)FRAMES / CHECKS_PER_FRAME, bytes, FRAMES, hits % 10);
+        check(bytes == 0, "a frame of pair checks allocated " + bytes + " bytes");
+
+        //the same frames on a HashMap keyed by the boxed pair key, for comparison
+        var hashMap = new HashMap<Long, PairCollisionData>();
+        for(int i = 0 ; i < CONTACTS ; i++)
+            hashMap.put(PairCollisionMap.keyOf(ring[i].go1(), ring[i].go2()), ring[i]);
+        long hashMapNanos = 0, hashMapBytes = 0;
+        oldest = 0;
+        for(int frame = -FRAMES ; frame < FRAMES ; frame++) {
+            long bytesBefore = threadBean.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for(int i = 0 ; i < CHECKS_PER_FRAME ; i++) {
+                if(hashMap.get(PairCollisionMap.keyOf(checked1[i], checked2[i])) != null)
+                    hits++;
+            }
+            for(int i = 0 ; i < CHANGES_PER_FRAME ; i++) {
+                var exiting = ring[oldest];
+                hashMap.remove(PairCollisionMap.keyOf(exiting.go1(), exiting.go2()));
+                var entering = ring[(oldest + CONTACTS) % ringSize];
+                hashMap.put(PairCollisionMap.keyOf(entering.go1(), entering.go2()), entering);
+                oldest = (oldest + 1) % ringSize;
+            }
+            for(var collisionData : hashMap.values()) {
+                if(collisionData.lastHandledFrame == frame)
+                    hits++;
+            }
+            long end = System.nanoTime();
+            if(frame >= 0) {
+                hashMapNanos += end - start;
+                hashMapBytes += threadBean.getThreadAllocatedBytes(thread) - bytesBefore;
+            }
+        }
+        System.out.printf("the same frames on a HashMap<Long, PairCollisionData>: %.3f ms per frame, " +
+                        "%,d bytes allocated per frame (%d)%n",
+                hashMapNanos / 1e6 / FRAMES, hashMapBytes / FRAMES, hits % 10);
+    }
+
+    private static void check(boolean condition, String message) {
+        if(!condition)
+            throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,71 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Checks that a static object that is removed, reset to another position and added again before
+ * the next frame (as pooled objects are) collides at its new position, with every broadphase.
+ * Run with: java -cp &lt;classes&gt; danogl.collisions.ReAddInSameFrameTest
+ * @author Dan Nirel
+ */
+public class ReAddInSameFrameTest {
+    private static final Vector2 SIZE = new Vector2(30, 30);
+    private static final Vector2 OLD_POSITION = new Vector2(0, 0);
+    private static final Vector2 NEW_POSITION = new Vector2(1000, 0);
+
+    private static class CountingObject extends GameObject {
+        int collisions = 0;
+
+        CountingObject(Vector2 topLeftCorner) {
+            super(topLeftCorner, SIZE, null);
+        }
+
+        @Override
+        public void onCollisionEnter(GameObject other, Collision collision) {
+            collisions++;
+        }
+    }
+
+    public static void main(String[] args) {
+        //every collection needs a broadphase of its own
+        List<Supplier<Broadphase>> broadphases = List.of(
+                AllPairsBroadphase::new, () -> new SpatialHashBroadphase(60), SweepAndPruneBroadphase::new);
+        for(var broadphase : broadphases) {
+            check(broadphase.get(), true);
+            check(broadphase.get(), false);
+        }
+        System.out.println("ReAddInSameFrameTest passed");
+    }
+
+    private static void check(Broadphase broadphase, boolean inSameFrame) {
+        var collection = new GameObjectCollection(broadphase);
+        var trunk = new GameObject(OLD_POSITION, SIZE, null);
+        trunk.physics().setStatic(true);
+        collection.addGameObject(trunk, Layer.STATIC_OBJECTS);
+        var box = new CountingObject(NEW_POSITION.add(new Vector2(10, 10)));
+        collection.addGameObject(box);
+        runFrame(collection);
+
+        collection.removeGameObject(trunk, Layer.STATIC_OBJECTS);
+        if(!inSameFrame)
+            runFrame(collection);
+        trunk.reset(NEW_POSITION, SIZE, null);
+        collection.addGameObject(trunk, Layer.STATIC_OBJECTS);
+        runFrame(collection);
+        runFrame(collection);
+
+        if(box.collisions != 1)
+            throw new AssertionError(String.format("%s, re-added %s: %d collisions instead of 1",
+                    broadphase.getClass().getSimpleName(),
+                    inSameFrame ? "in the same frame" : "in a later frame", box.collisions));
+    }
+
+    private static void runFrame(GameObjectCollection collection) {
+        collection.update(1/60f);
+        collection.handleCollisions();
+    }
+}
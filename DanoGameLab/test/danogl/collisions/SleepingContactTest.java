@@ -0,0 +1,78 @@
+package danogl.collisions;
+
+import danogl.GameObject;
+import danogl.components.GameObjectPhysics;
+import danogl.util.Vector2;
+
+/**
+ * Checks that a box that fell asleep on a static ground exits the collision when it is moved
+ * away from outside: through GameObject.setTopLeftCorner, which wakes it at once, and through
+ * its Transform, which wakes it in its next update.
+ * Run with: java -cp &lt;classes&gt; danogl.collisions.SleepingContactTest
+ * @author Dan Nirel
+ */
+public class SleepingContactTest {
+    private static final float DELTA_TIME = 1/60f;
+    private static final Vector2 FAR_AWAY = new Vector2(5000, 5000);
+
+    private static class CountingObject extends GameObject {
+        int enters = 0, exits = 0;
+
+        CountingObject(Vector2 topLeftCorner, Vector2 dimensions) {
+            super(topLeftCorner, dimensions, null);
+        }
+
+        @Override
+        public void onCollisionEnter(GameObject other, Collision collision) {
+            enters++;
+        }
+
+        @Override
+        public void onCollisionExit(GameObject other) {
+            exits++;
+        }
+    }
+
+    public static void main(String[] args) {
+        check(true);
+        check(false);
+        System.out.println("SleepingContactTest passed");
+    }
+
+    private static void check(boolean throughGameObject) {
+        String how = throughGameObject ? "GameObject.setTopLeftCorner" : "Transform.setTopLeftCorner";
+        var collection = new GameObjectCollection();
+        var ground = new GameObject(new Vector2(0, 100), new Vector2(100, 20), null);
+        ground.physics().setStatic(true);
+        ground.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        ground.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+        collection.addGameObject(ground, Layer.STATIC_OBJECTS);
+        var box = new CountingObject(new Vector2(40, 60), new Vector2(20, 20));
+        box.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        box.transform().setAccelerationY(500);
+        collection.addGameObject(box);
+
+        for(int frame = 0 ; frame < 120 ; frame++)
+            runFrame(collection);
+        if(!box.physics().isSleeping() || box.enters != 1 || box.exits != 0)
+            throw new AssertionError("the box did not come to rest on the ground");
+
+        if(throughGameObject)
+            box.setTopLeftCorner(FAR_AWAY);
+        else
+            box.transform().setTopLeftCorner(FAR_AWAY);
+        //a Transform changed directly is noticed in the next update
+        runFrame(collection);
+        runFrame(collection);
+        if(box.exits != 1)
+            throw new AssertionError(how + ": the box moved away from the ground, but exited " +
+                    box.exits + " collisions instead of 1");
+    }
+
+    private static void runFrame(GameObjectCollection collection) {
+        for(var obj : collection.nonStaticObjects())
+            obj.update(DELTA_TIME);
+        collection.update(DELTA_TIME);
+        collection.handleCollisions();
+    }
+}
@@ -0,0 +1,148 @@
+package danogl.components;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Checks that a TaskScheduler runs 100k pending tasks in the order of their due times, each in the
+ * first update that reaches its due time, and that scheduler tasks and component tasks agree on
+ * repeat, cancel, reset and owner removal. Then times a frame with 100k pending tasks, none of
+ * them due, against the same tasks as components.
+ * Run with: java -cp &lt;classes&gt; danogl.components.TaskSchedulerBenchmark
+ * @author Dan Nirel
+ */
+public class TaskSchedulerBenchmark {
+    private static final int TASKS = 100_000;
+    private static final float DELTA_TIME = 1/60f;
+    private static final int FRAMES = 1000;
+
+    public static void main(String[] args) {
+        checkOrdering();
+        checkSemantics(true);
+        checkSemantics(false);
+        checkOwnerRemoval();
+        benchmark();
+        System.out.println("TaskSchedulerBenchmark passed");
+    }
+
+    private static void checkOrdering() {
+        var random = new Random(1);
+        var scheduler = new TaskScheduler();
+        var owner = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        float[] waitTimes = new float[TASKS];
+        var ran = new ArrayList<Integer>();
+        for(int i = 0 ; i < TASKS ; i++) {
+            int task = i;
+            waitTimes[i] = random.nextFloat() * 100;
+            new ScheduledTask(scheduler, owner, waitTimes[i], false, () -> ran.add(task));
+        }
+        check(scheduler.getPendingTaskCount() == TASKS, "the scheduler lost tasks");
+        double previousTime = 0;
+        int checked = 0;
+        while(scheduler.getPendingTaskCount() > 0) {
+            scheduler.update(random.nextFloat() * 0.05f);
+            double time = scheduler.getTime();
+            for( ; checked < ran.size() ; checked++) {
+                float waitTime = waitTimes[ran.get(checked)];
+                check(waitTime <= time && waitTime > previousTime,
+                        String.format("a task due at %f ran in the update that reached %f", waitTime, time));
+                check(checked == 0 || waitTimes[ran.get(checked - 1)] <= waitTime,
+                        "tasks ran out of the order of their due times");
+            }
+            previousTime = time;
+        }
+        check(new HashSet<>(ran).size() == TASKS, "not every task ran exactly once");
+    }
+
+    //a task of a scheduler and a task that is a component must behave the same
+    private static void checkSemantics(boolean withScheduler) {
+        var scheduler = new TaskScheduler();
+        var owner = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        String kind = withScheduler ? "scheduler task" : "component task";
+        int[] runs = new int[2];
+        var once = withScheduler ?
+                new ScheduledTask(scheduler, owner, 0.5f, false, () -> runs[0]++) :
+                new ScheduledTask(owner, 0.5f, false, () -> runs[0]++);
+        var repeating = withScheduler ?
+                new ScheduledTask(scheduler, owner, 0.5f, true, () -> runs[1]++) :
+                new ScheduledTask(owner, 0.5f, true, () -> runs[1]++);
+        check(once.isScheduled() && repeating.isScheduled(), kind + ": a new task is not scheduled");
+
+        advance(scheduler, owner, 2.1f);
+        check(runs[0] == 1, kind + ": a task that does not repeat ran " + runs[0] + " times");
+        check(runs[1] == 4, kind + ": a repeating task ran " + runs[1] + " times in 4 periods");
+        check(!once.isScheduled(), kind + ": a task that ran once is still scheduled");
+        check(repeating.isScheduled(), kind + ": a repeating task is not scheduled");
+
+        repeating.cancel();
+        check(!repeating.isScheduled(), kind + ": a cancelled repeating task is still scheduled");
+        advance(scheduler, owner, 1.1f);
+        check(runs[1] == 4, kind + ": a cancelled task ran");
+
+        once.reset();
+        repeating.reset();
+        check(once.isScheduled() && repeating.isScheduled(), kind + ": a reset task is not scheduled");
+        advance(scheduler, owner, 1.1f);
+        check(runs[0] == 2 && runs[1] == 6, kind + ": reset tasks ran " + runs[0] + " and " + runs[1]
+                + " times instead of 2 and 6");
+    }
+
+    private static void checkOwnerRemoval() {
+        var alive = new HashSet<GameObject>();
+        var scheduler = new TaskScheduler(alive::contains);
+        var owner = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        alive.add(owner);
+        int[] runs = new int[1];
+        var task = new ScheduledTask(scheduler, owner, 0.5f, true, () -> runs[0]++);
+        scheduler.update(0.6f);
+        alive.remove(owner);
+        scheduler.update(0.6f);
+        check(runs[0] == 1 && !task.isScheduled(), "the task of a removed owner was not cancelled");
+    }
+
+    //advances both kinds of tasks by about the given time
+    private static void advance(TaskScheduler scheduler, GameObject owner, float time) {
+        for(float t = 0 ; t < time ; t += 0.1f) {
+            scheduler.update(0.1f);
+            owner.update(0.1f);
+        }
+    }
+
+    private static void benchmark() {
+        var scheduler = new TaskScheduler();
+        var schedulerOwner = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        var componentOwner = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        var random = new Random(2);
+        for(int i = 0 ; i < TASKS ; i++) {
+            //due long after the measured frames
+            float waitTime = 1000 + random.nextFloat() * 1000;
+            new ScheduledTask(scheduler, schedulerOwner, waitTime, false, () -> { });
+            new ScheduledTask(componentOwner, waitTime, false, () -> { });
+        }
+        componentOwner.update(0);
+        long schedulerNanos = 0, componentNanos = 0;
+        for(int frame = -FRAMES ; frame < FRAMES ; frame++) { //the first half warms up
+            long start = System.nanoTime();
+            scheduler.update(DELTA_TIME);
+            long middle = System.nanoTime();
+            componentOwner.update(DELTA_TIME);
+            long end = System.nanoTime();
+            if(frame >= 0) {
+                schedulerNanos += middle - start;
+                componentNanos += end - middle;
+            }
+        }
+        check(scheduler.getPendingTaskCount() == TASKS, "a task ran before it was due");
+        System.out.printf("%,d pending tasks: scheduler %.4f ms per frame, components %.4f ms per frame%n",
+                TASKS, schedulerNanos / 1e6 / FRAMES, componentNanos / 1e6 / FRAMES);
+    }
+
+    private static void check(boolean condition, String message) {
+        if(!condition)
+            throw new AssertionError(message);
+    }
+}
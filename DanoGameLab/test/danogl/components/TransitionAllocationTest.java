@@ -0,0 +1,117 @@
+package danogl.components;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that FloatTransition and Vector2Transition produce the same values as a Transition of
+ * Float and of Vector2 for every transition type, and that objects running them in the steady
+ * state allocate nothing per frame: 1000 objects, each with an angle, a width, a velocity and a
+ * fade transition, moving and resizing every frame.
+ * Allocations are measured with the allocated-bytes counter of com.sun.management.ThreadMXBean.
+ * Run with: java -cp &lt;classes&gt; danogl.components.TransitionAllocationTest
+ * @author Dan Nirel
+ */
+public class TransitionAllocationTest {
+    private static final int OBJECTS = 1000;
+    private static final int WARM_UP_FRAMES = 20_000;
+    private static final int FRAMES = 1000;
+    private static final float DELTA_TIME = 1/60f;
+
+    public static void main(String[] args) {
+        for(var type : Transition.TransitionType.values()) {
+            checkFloatAgainstTransition(type);
+            checkVector2AgainstTransition(type);
+        }
+        measure();
+        System.out.println("TransitionAllocationTest passed");
+    }
+
+    private static void checkFloatAgainstTransition(Transition.TransitionType type) {
+        var obj = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        float[] expected = new float[1], actual = new float[1];
+        int[] expectedFinals = new int[1], actualFinals = new int[1];
+        new Transition<Float>(obj, value -> expected[0] = value, 3f, 17f,
+                Transition.CUBIC_INTERPOLATOR_FLOAT, 0.7f, type, () -> expectedFinals[0]++);
+        new FloatTransition(obj, value -> actual[0] = value, 3f, 17f,
+                FloatTransition.CUBIC_INTERPOLATOR, 0.7f, type, () -> actualFinals[0]++);
+        //added components run from the update after the one that flushes them
+        obj.update(DELTA_TIME);
+        for(int frame = 0 ; frame < 300 ; frame++) {
+            obj.update(DELTA_TIME);
+            check(expected[0] == actual[0], String.format("%s, frame %d: FloatTransition gave %f instead of %f",
+                    type, frame, actual[0], expected[0]));
+            check(expectedFinals[0] == actualFinals[0], type + ": FloatTransition reached its final value "
+                    + actualFinals[0] + " times instead of " + expectedFinals[0]);
+        }
+    }
+
+    private static void checkVector2AgainstTransition(Transition.TransitionType type) {
+        var obj = new GameObject(Vector2.ZERO, Vector2.ONES, null);
+        Vector2[] expected = new Vector2[1];
+        float[] actual = new float[2];
+        new Transition<Vector2>(obj, value -> expected[0] = value, new Vector2(-5, 2), new Vector2(8, 40),
+                Transition.LINEAR_INTERPOLATOR_VECTOR, 1.3f, type, null);
+        new Vector2Transition(obj, (x, y) -> { actual[0] = x; actual[1] = y; },
+                new Vector2(-5, 2), new Vector2(8, 40),
+                FloatTransition.LINEAR_INTERPOLATOR, 1.3f, type, null);
+        //added components run from the update after the one that flushes them
+        obj.update(DELTA_TIME);
+        for(int frame = 0 ; frame < 300 ; frame++) {
+            obj.update(DELTA_TIME);
+            check(Math.abs(expected[0].x() - actual[0]) < 1e-4f && Math.abs(expected[0].y() - actual[1]) < 1e-4f,
+                    String.format("%s, frame %d: Vector2Transition gave (%f, %f) instead of %s",
+                            type, frame, actual[0], actual[1], expected[0]));
+        }
+    }
+
+    private static void measure() {
+        var objects = new GameObject[OBJECTS];
+        for(int i = 0 ; i < OBJECTS ; i++) {
+            var obj = new GameObject(new Vector2(i, 0), new Vector2(10, 10), null);
+            var renderer = obj.renderer();
+            var transform = obj.transform();
+            float period = 1 + i % 7;
+            new FloatTransition(obj, renderer::setRenderableAngle, 0, 360,
+                    FloatTransition.LINEAR_INTERPOLATOR, period, Transition.TransitionType.TRANSITION_LOOP, null);
+            new FloatTransition(obj, transform::setDimensionsX, 5, 15,
+                    FloatTransition.CUBIC_INTERPOLATOR, period,
+                    Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
+            new FloatTransition(obj, renderer::setOpaqueness, 0, 1,
+                    FloatTransition.LINEAR_INTERPOLATOR, period,
+                    Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
+            new Vector2Transition(obj, transform::setVelocity, new Vector2(-20, 0), new Vector2(20, 10),
+                    FloatTransition.CUBIC_INTERPOLATOR, period,
+                    Transition.TransitionType.TRANSITION_BACK_AND_FORTH, null);
+            objects[i] = obj;
+        }
+        var threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if(!threadBean.isThreadAllocatedMemorySupported())
+            throw new AssertionError("The JVM does not count allocated bytes per thread");
+        var thread = Thread.currentThread().getId();
+        //warm up, so that the measured frames are compiled
+        for(int frame = 0 ; frame < WARM_UP_FRAMES ; frame++)
+            updateAll(objects);
+        long bytesBefore = threadBean.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for(int frame = 0 ; frame < FRAMES ; frame++)
+            updateAll(objects);
+        long nanos = System.nanoTime() - start;
+        long bytes = threadBean.getThreadAllocatedBytes(thread) - bytesBefore;
+        System.out.printf("%,d objects with 4 transitions each: %.1f ns per transition, %d bytes allocated in %d frames%n",
+                OBJECTS, nanos / (4.0 * OBJECTS * FRAMES), bytes, FRAMES);
+        check(bytes == 0, "running the transitions allocated " + bytes + " bytes");
+    }
+
+    private static void updateAll(GameObject[] objects) {
+        for(var obj : objects)
+            obj.update(DELTA_TIME);
+    }
+
+    private static void check(boolean condition, String message) {
+        if(!condition)
+            throw new AssertionError(message);
+    }
+}
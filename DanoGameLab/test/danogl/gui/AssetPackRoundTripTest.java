@@ -0,0 +1,93 @@
+package danogl.gui;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that images read through an asset pack have the same pixels as the images read from
+ * their files: packs the images of the pack command in the README, in its order, then reads them
+ * in the same order with a reader that uses the pack and with one that does not.
+ * The order matters, since whether an image already contains alpha carries over from image to image.
+ * Run from the project's root, with: java -cp &lt;classes&gt; danogl.gui.AssetPackRoundTripTest
+ * @author Dan Nirel
+ */
+public class AssetPackRoundTripTest {
+    private static final String README = "README.md";
+    private static final String PACK_COMMAND = "danogl.gui.AssetPack assets/assets.pack";
+    private static final String END_OF_COMMAND = "```";
+
+    public static void main(String[] args) throws IOException {
+        var imagePaths = new ArrayList<String>();
+        var transparency = new ArrayList<Boolean>();
+        readPackCommand(imagePaths, transparency);
+        var pack = File.createTempFile("assets", ".pack");
+        pack.deleteOnExit();
+        AssetPack.write(pack.getPath(), imagePaths, transparency);
+
+        var fileReader = new ImageReader(null);
+        var packReader = new ImageReader(null);
+        check(packReader.loadAssetPack(pack.getPath()), "the pack could not be loaded");
+        check(new AssetPack(pack.getPath()).size() == imagePaths.size(), "the pack lost images");
+        for(int i = 0 ; i < imagePaths.size() ; i++) {
+            var expected = fileReader.decodeImage(imagePaths.get(i), transparency.get(i));
+            var actual = packReader.decodeImage(imagePaths.get(i), transparency.get(i));
+            check(actual.getType() == BufferedImage.TYPE_INT_ARGB_PRE,
+                    imagePaths.get(i) + " was not read from the pack");
+            checkSame(expected, actual, imagePaths.get(i));
+        }
+        System.out.printf("%d images are read from the pack as from their files%n", imagePaths.size());
+        System.out.println("AssetPackRoundTripTest passed");
+    }
+
+    //the arguments of the pack command, as AssetPack.main parses them
+    private static void readPackCommand(List<String> imagePaths, List<Boolean> transparency) throws IOException {
+        var readme = Path.of(README);
+        if(!Files.isRegularFile(readme))
+            throw new AssertionError("No " + README + ", run from the project's root");
+        var text = Files.readString(readme);
+        int start = text.indexOf(PACK_COMMAND);
+        check(start >= 0, "no pack command in " + README);
+        start += PACK_COMMAND.length();
+        var command = text.substring(start, text.indexOf(END_OF_COMMAND, start));
+        boolean nextIsTransparent = false;
+        for(var arg : command.split("[\\s\\\\]+")) {
+            if(arg.isEmpty())
+                continue;
+            if(arg.equals("-t")) {
+                nextIsTransparent = true;
+                continue;
+            }
+            imagePaths.add(arg);
+            transparency.add(nextIsTransparent);
+            nextIsTransparent = false;
+        }
+        check(!imagePaths.isEmpty(), "the pack command has no images");
+    }
+
+    //the pack keeps premultiplied pixels, so fully transparent pixels lose their color
+    private static void checkSame(BufferedImage expected, BufferedImage actual, String what) {
+        check(expected.getWidth() == actual.getWidth() && expected.getHeight() == actual.getHeight(),
+                what + ": the sizes differ");
+        int width = expected.getWidth(), height = expected.getHeight();
+        var premultiplied = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        premultiplied.setRGB(0, 0, width, height, expected.getRGB(0, 0, width, height, null, 0, width), 0, width);
+        for(int y = 0 ; y < height ; y++) {
+            for(int x = 0 ; x < width ; x++) {
+                int expectedPixel = premultiplied.getRGB(x, y), actualPixel = actual.getRGB(x, y);
+                if(expectedPixel != actualPixel)
+                    throw new AssertionError(String.format("%s: pixel (%d, %d) is %08x instead of %08x",
+                            what, x, y, actualPixel, expectedPixel));
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if(!condition)
+            throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,204 @@
+package danogl.gui;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks that ImageReader.addTransparency produces the same pixels as the original per-pixel
+ * getRGB/setRGB implementation, kept below as the reference: on the images of the assets folder,
+ * and on sequences of random images of the usual BufferedImage types, read by one reader, since
+ * whether an image already contains alpha carries over from image to image. Also checks the mask
+ * of the pixels next to the transparent color against the reference's scan of their neighborhoods.
+ * Then times both on a 4096x4096 sheet.
+ * Run from the project's root, with: java -cp &lt;classes&gt; danogl.gui.TransparencyGoldenTest
+ * @author Dan Nirel
+ */
+public class TransparencyGoldenTest {
+    private static final String ASSETS_FOLDER = "assets";
+    private static final int[] TYPES = {
+            BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_INDEXED, BufferedImage.TYPE_INT_ARGB_PRE};
+    //transparent and opaque colors, and colors close to them, so that edges are recovered
+    private static final int[] PALETTE = {0xff00ff00, 0xff10f010, 0x00123456, 0x80ff0000, 0xff0000ff, 0, 0xffffffff};
+    private static final int SEQUENCES = 30;
+    private static final int IMAGES_PER_SEQUENCE = 6;
+    private static final int EDGE_CHECKS = 2000;
+    private static final int SHEET_SIZE = 4096;
+    private static final int SHEET_REPETITIONS = 3;
+
+    //the original implementation, pixel by pixel
+    private static class ReferenceKeyer {
+        private static final int COLOR_DIS_EPSILON = 100;
+        private boolean imageAlreadyContainsAlpha = false;
+
+        BufferedImage addTransparency(BufferedImage im) {
+            BufferedImage transparentImage =
+                    new BufferedImage(im.getWidth(),im.getHeight(),BufferedImage.TYPE_INT_ARGB);
+            int transparentColor = im.getRGB(0,0);
+            for(int y = 0 ; y < im.getHeight() ; y++) {
+                for (int x = 0; x < im.getWidth(); x++) {
+                    int thisPixel = calcPixelAt(im, x, y, transparentColor);
+                    if(transparentColor == thisPixel)
+                        thisPixel &= 0x00ffffff; //zero alpha
+                    transparentImage.setRGB(x, y, thisPixel);
+                }
+            }
+            return transparentImage;
+        }
+
+        private int calcPixelAt(BufferedImage im, int x, int y, int transparentColor) {
+            int pixel = im.getRGB(x, y);
+            if((pixel >> 24) != 0)
+                imageAlreadyContainsAlpha = true;
+            if (imageAlreadyContainsAlpha ||
+                    !isAPixelAroundTransparentButWithNonZeroAlpha(im, x, y, transparentColor))
+                return pixel;
+            if (colorDistance(pixel, transparentColor) < COLOR_DIS_EPSILON)
+                return transparentColor;
+            int a = (pixel >> 24) & 0xff;
+            double r = ((pixel >> 16) & 0xff) * 1.5 - ((transparentColor >> 16) & 0xff)/2;
+            double g = ((pixel >> 8) & 0xff) * 1.5 - ((transparentColor >> 8) & 0xff)/2;
+            double b = (pixel & 0xff) * 1.5 - (transparentColor & 0xff)/2;
+            r = Math.min(Math.max(r, 0), 255);
+            g = Math.min(Math.max(g, 0), 255);
+            b = Math.min(Math.max(b, 0), 255);
+            pixel = (a << 24) + ((int)r << 16) + ((int)g << 8) + (int)b;
+            return pixel;
+        }
+
+        private boolean isAPixelAroundTransparentButWithNonZeroAlpha(BufferedImage im, int x, int y, int transparentColor) {
+            int width = im.getWidth();
+            int height = im.getHeight();
+            for (int i = -1; i <= 1 ; i++) {
+                for (int j = -1; j <= 1 ; j++) {
+                    if(x+i < 0 || y+j < 0 || x+i >= width || y+j >= height)
+                        continue;
+                    int pixel = im.getRGB(x+i,y+j);
+                    if((pixel>>24)!=0 && pixel == transparentColor)
+                        return true;
+                }
+            }
+            return false;
+        }
+
+        private static double colorDistance(int c1, int c2){
+            int rmean = ( ((c1>>16)&0xff) + ((c2>>16)&0xff) ) / 2;
+            int rDif = ((c1>>16)&0xff) - ((c2>>16)&0xff);
+            int gDif = ((c1>> 8)&0xff) - ((c2>> 8)&0xff);
+            int bDif = ((c1>> 0)&0xff) - ((c2>> 0)&0xff);
+            return Math.sqrt((((512+rmean)*rDif*rDif)>>8)
+                    + 4*gDif*gDif + (((767-rmean)*bDif*bDif)>>8));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int images = checkAssets(new File(ASSETS_FOLDER));
+        images += checkRandomSequences();
+        System.out.printf("identical to the reference on %d images%n", images);
+        checkEdges();
+        benchmark();
+        System.out.println("TransparencyGoldenTest passed");
+    }
+
+    private static int checkAssets(File folder) throws IOException {
+        var files = folder.listFiles();
+        if(files == null)
+            throw new AssertionError("No folder " + folder + ", run from the project's root");
+        int images = 0;
+        for(var file : files) {
+            if(file.isDirectory())
+                images += checkAssets(file);
+            else if(file.getName().endsWith(".png")) {
+                var image = ImageIO.read(file);
+                checkSame(new ReferenceKeyer().addTransparency(image),
+                        new ImageReader(null).addTransparency(image), file.getPath());
+                images++;
+            }
+        }
+        return images;
+    }
+
+    //large images are processed in parallel bands, small ones in one pass
+    private static int checkRandomSequences() {
+        var random = new Random(5);
+        int images = 0;
+        for(int sequence = 0 ; sequence < SEQUENCES ; sequence++) {
+            var reference = new ReferenceKeyer();
+            var reader = new ImageReader(null);
+            boolean large = sequence % 3 == 0;
+            for(int i = 0 ; i < IMAGES_PER_SEQUENCE ; i++) {
+                var image = randomImage(random, 1 + random.nextInt(large ? 700 : 40),
+                        1 + random.nextInt(large ? 500 : 40), TYPES[random.nextInt(TYPES.length)],
+                        random.nextBoolean());
+                checkSame(reference.addTransparency(image), reader.addTransparency(image),
+                        String.format("sequence %d, image %d", sequence, i));
+                images++;
+            }
+        }
+        return images;
+    }
+
+    //the edges are only looked for before the first pixel with alpha, so they are never found
+    //when keying: compares the mask with the reference's neighborhood scan on its own
+    private static void checkEdges() {
+        var random = new Random(7);
+        var reference = new ReferenceKeyer();
+        for(int check = 0 ; check < EDGE_CHECKS ; check++) {
+            int width = 1 + random.nextInt(30), height = 1 + random.nextInt(30);
+            var image = randomImage(random, width, height, BufferedImage.TYPE_INT_ARGB, false);
+            int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+            int transparentColor = pixels[random.nextInt(pixels.length)] | 0x01000000;
+            int alphaStart = random.nextInt(pixels.length + 1);
+            boolean[] edges = ImageReader.findEdges(pixels, width, alphaStart, transparentColor);
+            for(int i = 0 ; i < alphaStart ; i++) {
+                boolean expected = reference.isAPixelAroundTransparentButWithNonZeroAlpha(
+                        image, i % width, i / width, transparentColor);
+                if(expected != (edges != null && edges[i]))
+                    throw new AssertionError(String.format("check %d: the edge mark of pixel %d of a %dx%d image is wrong",
+                            check, i, width, height));
+            }
+        }
+    }
+
+    private static void benchmark() {
+        var sheet = randomImage(new Random(1), SHEET_SIZE, SHEET_SIZE, BufferedImage.TYPE_INT_ARGB, false);
+        var reference = new ReferenceKeyer();
+        var reader = new ImageReader(null);
+        for(int repetition = 0 ; repetition < SHEET_REPETITIONS ; repetition++) {
+            long start = System.nanoTime();
+            var expected = reference.addTransparency(sheet);
+            long middle = System.nanoTime();
+            var actual = reader.addTransparency(sheet);
+            long end = System.nanoTime();
+            if(repetition == 0)
+                checkSame(expected, actual, "the sheet");
+            System.out.printf("%dx%d: reference %.0f ms, addTransparency %.0f ms (%d threads)%n",
+                    SHEET_SIZE, SHEET_SIZE, (middle - start) / 1e6, (end - middle) / 1e6,
+                    Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private static BufferedImage randomImage(Random random, int width, int height, int type,
+                                             boolean isTopLeftTransparent) {
+        var image = new BufferedImage(width, height, type);
+        for(int y = 0 ; y < height ; y++) {
+            for(int x = 0 ; x < width ; x++)
+                image.setRGB(x, y, random.nextInt(3) == 0 ? random.nextInt() : PALETTE[random.nextInt(PALETTE.length)]);
+        }
+        image.setRGB(0, 0, isTopLeftTransparent ? 0x00123456 : 0xff00ff00);
+        return image;
+    }
+
+    private static void checkSame(BufferedImage expected, BufferedImage actual, String name) {
+        int width = expected.getWidth(), height = expected.getHeight();
+        if(actual.getType() != expected.getType() || actual.getWidth() != width || actual.getHeight() != height)
+            throw new AssertionError(name + ": the type or size of the image differs");
+        if(!Arrays.equals(expected.getRGB(0, 0, width, height, null, 0, width),
+                actual.getRGB(0, 0, width, height, null, 0, width)))
+            throw new AssertionError(name + ": the pixels differ");
+    }
+}
@@ -0,0 +1,124 @@
+package danogl.gui.rendering;
+
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Checks that VolatileImageRenderable draws the same pixels as drawing its image directly, and as
+ * an ImageRenderable of it when half transparent. Then times drawing a chunk-sized translucent
+ * image as read from disk (4BYTE_ABGR), converted to the format of the screen, and through
+ * VolatileImageRenderable, onto an opaque image in the format of the screen.
+ * Run it with and without -Djava.awt.headless=true: when headless, the compatible image is a
+ * plain ARGB image and VolatileImageRenderable draws the image itself.
+ * Run with: java -cp &lt;classes&gt; danogl.gui.rendering.BlitBenchmark
+ * @author Dan Nirel
+ */
+public class BlitBenchmark {
+    private static final int IMAGE_WIDTH = 1024, IMAGE_HEIGHT = 768;
+    private static final int TARGET_WIDTH = 1280, TARGET_HEIGHT = 960;
+    private static final Vector2 POSITION = new Vector2(100, 50);
+    private static final Vector2 DIMENSIONS = new Vector2(IMAGE_WIDTH, IMAGE_HEIGHT);
+    private static final int WARM_UP_BLITS = 300;
+    private static final int BLITS = 1000;
+
+    public static void main(String[] args) {
+        var abgrImage = randomImage(new Random(1));
+        var compatibleImage = CompatibleImages.createImage(IMAGE_WIDTH, IMAGE_HEIGHT, Transparency.TRANSLUCENT);
+        var g = compatibleImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(abgrImage, 0, 0, null);
+        g.dispose();
+        checkSamePixels(abgrImage);
+        checkSamePixels(compatibleImage);
+
+        var target = CompatibleImages.createImage(TARGET_WIDTH, TARGET_HEIGHT, Transparency.OPAQUE);
+        System.out.printf("%s, %dx%d images onto %dx%d:%n", GraphicsEnvironment.isHeadless() ? "headless" : "screen",
+                IMAGE_WIDTH, IMAGE_HEIGHT, TARGET_WIDTH, TARGET_HEIGHT);
+        report("4BYTE_ABGR image", time(target, new ImageRenderable(abgrImage)));
+        report("compatible image", time(target, new ImageRenderable(compatibleImage)));
+        report("VolatileImageRenderable", time(target, new VolatileImageRenderable(compatibleImage)));
+        System.out.println("BlitBenchmark passed");
+    }
+
+    private static void checkSamePixels(BufferedImage image) {
+        var volatileRenderable = new VolatileImageRenderable(image);
+        //twice, since the first render creates the copy in video memory
+        for(int render = 0 ; render < 2 ; render++) {
+            var expected = drawOnBackground(g -> g.drawImage(image, (int)POSITION.x(), (int)POSITION.y(), null));
+            var actual = drawOnBackground(g -> volatileRenderable.render(g, POSITION, DIMENSIONS,
+                    0, false, false, 1));
+            checkSame(expected, actual, "VolatileImageRenderable, render " + render);
+        }
+        var halfTransparentRenderable = new ImageRenderable(image);
+        var expected = drawOnBackground(g -> halfTransparentRenderable.render(g, POSITION, DIMENSIONS,
+                0, false, false, 0.5));
+        var actual = drawOnBackground(g -> volatileRenderable.render(g, POSITION, DIMENSIONS,
+                0, false, false, 0.5));
+        checkSame(expected, actual, "VolatileImageRenderable, half transparent");
+    }
+
+    private interface Draw {
+        void draw(Graphics2D g);
+    }
+
+    //draws on an opaque target whose background is not a single color, so that blending shows
+    private static BufferedImage drawOnBackground(Draw draw) {
+        var target = CompatibleImages.createImage(TARGET_WIDTH, TARGET_HEIGHT, Transparency.OPAQUE);
+        var g = target.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.CYAN, TARGET_WIDTH, TARGET_HEIGHT, Color.ORANGE));
+        g.fillRect(0, 0, TARGET_WIDTH, TARGET_HEIGHT);
+        draw.draw(g);
+        g.dispose();
+        return target;
+    }
+
+    private static long time(BufferedImage target, Renderable renderable) {
+        var g = target.createGraphics();
+        long nanos = 0;
+        for(int blit = -WARM_UP_BLITS ; blit < BLITS ; blit++) {
+            long start = System.nanoTime();
+            renderable.render(g, POSITION, DIMENSIONS, 0, false, false, 1);
+            //makes sure the draw is done, and not only queued
+            Toolkit.getDefaultToolkit().sync();
+            if(blit >= 0)
+                nanos += System.nanoTime() - start;
+        }
+        g.dispose();
+        return nanos;
+    }
+
+    private static void report(String name, long nanos) {
+        double msPerBlit = nanos / 1e6 / BLITS;
+        System.out.printf("%-24s %.3f ms per blit, %,.0f Mpixels per second%n", name, msPerBlit,
+                (double)IMAGE_WIDTH * IMAGE_HEIGHT / msPerBlit / 1e3);
+    }
+
+    //opaque, translucent and transparent pixels in runs, like a baked chunk
+    private static BufferedImage randomImage(Random random) {
+        var image = new BufferedImage(IMAGE_WIDTH, IMAGE_HEIGHT, BufferedImage.TYPE_4BYTE_ABGR);
+        for(int y = 0 ; y < IMAGE_HEIGHT ; y++) {
+            int x = 0;
+            while(x < IMAGE_WIDTH) {
+                int run = 1 + random.nextInt(64);
+                int alpha = new int[] {0, 0xff, random.nextInt(256)}[random.nextInt(3)];
+                int color = (alpha << 24) | (random.nextInt() & 0xffffff);
+                for(int end = Math.min(x + run, IMAGE_WIDTH) ; x < end ; x++)
+                    image.setRGB(x, y, color);
+            }
+        }
+        return image;
+    }
+
+    private static void checkSame(BufferedImage expected, BufferedImage actual, String what) {
+        for(int y = 0 ; y < expected.getHeight() ; y++) {
+            for(int x = 0 ; x < expected.getWidth() ; x++) {
+                if(expected.getRGB(x, y) != actual.getRGB(x, y))
+                    throw new AssertionError(String.format("%s: pixel (%d, %d) is %08x instead of %08x",
+                            what, x, y, actual.getRGB(x, y), expected.getRGB(x, y)));
+            }
+        }
+    }
+}
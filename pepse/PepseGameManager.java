@@ -2,7 +2,9 @@ package pepse;
 
 import danogl.GameManager;
 import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
+import danogl.collisions.SweepAndPruneBroadphase;
 import danogl.gui.*;
 import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
@@ -13,6 +15,8 @@ import pepse.world.daynight.SunHalo;
 import pepse.world.trees.Tree;
 
 import java.awt.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * the PepseGameManager class. responsible for creating the Pepse game.
@@ -31,6 +35,10 @@ public class PepseGameManager extends GameManager {
      * Constance representing the avatar jump sound path
      */
     private static final String ASSETS_SOUNDS_JUMP_WAV = "assets/sounds/jump.wav";
+    /**
+     * Constance representing the path of the preprocessed images archive, which is used if it exists
+     */
+    private static final String ASSET_PACK_PATH = "assets/assets.pack";
     /**
      * Constance representing the game title
      */
@@ -88,9 +96,27 @@ public class PepseGameManager extends GameManager {
      */
     private static final int AVATAR_INITIAL_X_COORDS = 500;
     /**
-     * Constance representing the initial world factor
+     * Constance representing the width of a world chunk
+     */
+    private static final int WORLD_CHUNK_WIDTH = 16 * Block.SIZE;
+    /**
+     * Constance representing the number of world chunks loaded on every side of the camera
      */
-    private static final int INITIAL_WORLD_FACTOR = 2;
+    private static final int WORLD_LOAD_RADIUS = 4;
+    /**
+     * Constance representing the number of world chunks on every side of the camera after which
+     * chunks are unloaded
+     */
+    private static final int WORLD_UNLOAD_RADIUS = WORLD_LOAD_RADIUS + 1;
+    /**
+     * Constance representing the time, in seconds, adding generated world chunks to the game may take
+     * in a single frame
+     */
+    private static final float WORLD_COMMIT_BUDGET = 0.004f;
+    /**
+     * Constance representing the name of the world generation thread
+     */
+    private static final String WORLD_GENERATION_THREAD_NAME = "world-generation";
     /**
      * Constance representing the camera factor
      */
@@ -117,17 +143,13 @@ public class PepseGameManager extends GameManager {
      */
     private Animals animalsManager;
     /**
-     * the current right side minimum x-coordinate for infinityLoop update
+     * the manager of the world chunks around the camera
      */
-    private int rightSideMinX;
+    private WorldChunkManager worldChunkManager;
     /**
-     * the current left side minimum x-coordinate for infinityLoop update
+     * the executor the world chunks are generated on
      */
-    private int leftSideMinX;
-    /**
-     * InfinityLoop object
-     */
-    private InfinityLoop infinityLoop;
+    private ExecutorService worldGenerationExecutor;
 
     private final Vector2 windowDimensions;
     private UserInputListener inputListener;
@@ -158,12 +180,13 @@ public class PepseGameManager extends GameManager {
     public void initializeGame(ImageReader imageReader, SoundReader soundReader,
                                UserInputListener inputListener, WindowController windowController) {
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
+        setGameObjectsCollection(new GameObjectCollection(new SweepAndPruneBroadphase()));
 
         this.inputListener = inputListener;
         this.imageReader = imageReader;
         this.soundReader = soundReader;
-        this.rightSideMinX = (int) (windowDimensions.x() * INITIAL_WORLD_FACTOR);
-        this.leftSideMinX = -rightSideMinX;
+        // images missing from the archive, or without an archive at all, are read from their files
+        imageReader.loadAssetPack(ASSET_PACK_PATH);
 
         windowController.setTargetFramerate(TARGET_FRAMERATE);
 
@@ -176,15 +199,29 @@ public class PepseGameManager extends GameManager {
         addAnimalsToGame();
         setLayersCollision();
         setCameraInGame(windowController);
-        addInfinityLoopToGame();
+        addWorldChunkManagerToGame();
     }
 
     /**
-     * private method that adds the infinity world object to the game
-     */
-    private void addInfinityLoopToGame() {
-        this.infinityLoop = new InfinityLoop(new RangeMutator[]{trees, terrain, animalsManager},
-                rightSideMinX, leftSideMinX);
+     * private method that adds the world chunk manager to the game, and loads the world around
+     * the camera. the world is generated on background threads, which is possible since every
+     * column of the world depends only on the seed and its position.
+     */
+    private void addWorldChunkManagerToGame() {
+        if (worldGenerationExecutor == null) {
+            int workerCount = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            worldGenerationExecutor = Executors.newFixedThreadPool(workerCount, runnable -> {
+                Thread thread = new Thread(runnable, WORLD_GENERATION_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.worldChunkManager = new WorldChunkManager(
+                new RangeMutator[]{terrain, trees, animalsManager},
+                WORLD_CHUNK_WIDTH, WORLD_LOAD_RADIUS, WORLD_UNLOAD_RADIUS,
+                worldGenerationExecutor, WORLD_COMMIT_BUDGET);
+        worldChunkManager.update(getCamera().getCenter().x());
+        worldChunkManager.commitAll();
     }
 
     /**
@@ -201,9 +238,7 @@ public class PepseGameManager extends GameManager {
      * private method that sets the layer collision
      */
     private void setLayersCollision() {
-        gameObjects().layers().shouldLayersCollide(LEAF_LAYER, GROUND_LAYER, true);
         gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, GROUND_LAYER, true);
-        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, LEAF_LAYER, true);
         gameObjects().layers().shouldLayersCollide(ANIMAL_LAYER, GROUND_LAYER, true);
     }
 
@@ -221,7 +256,6 @@ public class PepseGameManager extends GameManager {
     private void addAnimalsToGame() {
         this.animalsManager = new Animals(gameObjects(), imageReader, SEED,
                 terrain::groundHeightAt, ANIMAL_LAYER);
-        animalsManager.createInRange(leftSideMinX, rightSideMinX);
 
     }
 
@@ -248,7 +282,6 @@ public class PepseGameManager extends GameManager {
      */
     private void addGroundToGame() {
         this.terrain = new Terrain(gameObjects(), GROUND_LAYER, windowDimensions, SEED, imageReader);
-        terrain.createInRange(leftSideMinX, rightSideMinX);
 
     }
 
@@ -258,7 +291,6 @@ public class PepseGameManager extends GameManager {
     private void addTreeToGame() {
         this.trees = new Tree(gameObjects(), terrain::groundHeightAt, TREE_LAYER, LEAF_LAYER,
                 SEED, imageReader);
-        trees.createInRange(leftSideMinX, rightSideMinX);
     }
 
     /**
@@ -285,14 +317,15 @@ public class PepseGameManager extends GameManager {
     }
 
     /**
-     * this method updates the wald to became infinity using the infinityLoop object
+     * this method updates the wald to became infinity using the world chunk manager.
+     * chunks are generated in the background, and only added to the game here.
      *
      * @param deltaTime used in super method
      */
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
-        infinityLoop.update(avatar.getCenter());
+        worldChunkManager.update(getCamera().getCenter().x());
     }
 
 
@@ -36,6 +36,37 @@ public final class ColorSupplier {
                 randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta));
     }
 
+    /**
+     * Returns a color similar to baseColor, with a default delta, that depends only on key.
+     * The same key always gives the same color, regardless of which colors were supplied before.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param key A hash the color is derived from, such as one returned by {@link PositionRandom#hash}.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColorForKey(Color baseColor, long key) {
+        return approximateColorForKey(baseColor, DEFAULT_COLOR_DELTA, key);
+    }
+
+    /**
+     * Returns a color similar to baseColor, with a difference of at most colorDelta,
+     * that depends only on key.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the sampled color and the base color.
+     * @param key A hash the color is derived from, such as one returned by {@link PositionRandom#hash}.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColorForKey(Color baseColor, int colorDelta, long key) {
+        return new Color(
+                channelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta,
+                        PositionRandom.hash(key, 0, 0)),
+                channelInRange(baseColor.getGreen()-colorDelta, baseColor.getGreen()+colorDelta,
+                        PositionRandom.hash(key, 1, 0)),
+                channelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta,
+                        PositionRandom.hash(key, 2, 0)));
+    }
+
     /**
      * This method generates a random value for a color channel within the given range [min, max].
      *
@@ -47,4 +78,17 @@ public final class ColorSupplier {
         int channel = random.nextInt(max-min+1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
+
+    /**
+     * This method derives a value for a color channel within the given range [min, max] from a hash.
+     *
+     * @param min The lower bound of the given range.
+     * @param max The upper bound of the given range.
+     * @param hash The hash the value is derived from.
+     * @return A number in the range [min, max], clipped to [0,255].
+     */
+    private static int channelInRange(int min, int max, long hash) {
+        int channel = PositionRandom.nextInt(hash, max-min+1) + min;
+        return Math.min(255, Math.max(channel, 0));
+    }
 }
@@ -0,0 +1,129 @@
+package pepse.util;
+
+/**
+ * The PositionRandom class provides random values that depend only on a seed, a position and
+ * a feature, instead of on the values drawn before them.
+ * every value is a hash of its key (in the manner of SplitMix64), so the value of a given
+ * position and feature is the same in every run with the same seed, regardless of the order
+ * the positions are generated in, and it can be computed on any thread.
+ */
+public final class PositionRandom {
+
+    /**
+     * Constance representing the golden ratio increment of SplitMix64
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    /**
+     * Constance representing the first multiplier of the SplitMix64 finalizer
+     */
+    private static final long MIX_MULTIPLIER_1 = 0xBF58476D1CE4E5B9L;
+    /**
+     * Constance representing the second multiplier of the SplitMix64 finalizer
+     */
+    private static final long MIX_MULTIPLIER_2 = 0x94D049BB133111EBL;
+    /**
+     * Constance representing the unit of a double in [0, 1) with 53 bits of precision
+     */
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    /**
+     * Constance representing the number of bits dropped to get 53 random bits
+     */
+    private static final int DOUBLE_SHIFT = 11;
+
+    /**
+     * private constructor, the class has only static methods
+     */
+    private PositionRandom() {
+    }
+
+    /**
+     * this method hashes a key made of a seed, a position and a feature
+     *
+     * @param seed     the world seed
+     * @param x        the position, usually an x-coordinate
+     * @param feature  an id of the feature the value is drawn for, so that different features
+     *                 of the same position are independent
+     * @return a 64-bit hash of the key
+     */
+    public static long hash(long seed, long x, long feature) {
+        return hash(seed, x, feature, 0);
+    }
+
+    /**
+     * this method hashes a key made of a seed, a position, a feature and an index,
+     * for features that draw many values at the same position
+     *
+     * @param seed    the world seed
+     * @param x       the position, usually an x-coordinate
+     * @param feature an id of the feature the value is drawn for
+     * @param index   the index of the value within the feature
+     * @return a 64-bit hash of the key
+     */
+    public static long hash(long seed, long x, long feature, long index) {
+        long h = mix(seed + GOLDEN_GAMMA);
+        h = mix(h ^ (x + GOLDEN_GAMMA));
+        h = mix(h ^ (feature + GOLDEN_GAMMA));
+        return mix(h ^ (index + GOLDEN_GAMMA));
+    }
+
+    /**
+     * this method returns a random double of a key
+     *
+     * @param seed    the world seed
+     * @param x       the position, usually an x-coordinate
+     * @param feature an id of the feature the value is drawn for
+     * @return a double in [0, 1)
+     */
+    public static double nextDouble(long seed, long x, long feature) {
+        return toDouble(hash(seed, x, feature));
+    }
+
+    /**
+     * this method returns a random double of a key with an index
+     *
+     * @param seed    the world seed
+     * @param x       the position, usually an x-coordinate
+     * @param feature an id of the feature the value is drawn for
+     * @param index   the index of the value within the feature
+     * @return a double in [0, 1)
+     */
+    public static double nextDouble(long seed, long x, long feature, long index) {
+        return toDouble(hash(seed, x, feature, index));
+    }
+
+    /**
+     * this method returns a random integer of a hash, in the range [0, bound)
+     *
+     * @param hash  a hash returned by one of the hash methods
+     * @param bound the upper bound (exclusive). must be positive.
+     * @return an integer in [0, bound)
+     */
+    public static int nextInt(long hash, int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        return (int) ((hash >>> DOUBLE_SHIFT) % bound);
+    }
+
+    /**
+     * private method that converts a hash to a double in [0, 1)
+     *
+     * @param hash the hash
+     * @return a double in [0, 1)
+     */
+    private static double toDouble(long hash) {
+        return (hash >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+    }
+
+    /**
+     * private method that mixes the bits of a value, using the SplitMix64 finalizer
+     *
+     * @param z the value
+     * @return the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * MIX_MULTIPLIER_1;
+        z = (z ^ (z >>> 27)) * MIX_MULTIPLIER_2;
+        return z ^ (z >>> 31);
+    }
+}
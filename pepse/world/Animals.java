@@ -1,19 +1,21 @@
 package pepse.world;
 
-import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.gui.ImageReader;
+import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.PositionRandom;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 /**
  * The Animals class. creates all the animals in the game
  */
-public class Animals implements RangeMutator {
+public class Animals implements RangeGenerator {
 
     /**
      * Constance representing the animal probability to be created
@@ -23,19 +25,30 @@ public class Animals implements RangeMutator {
      * Constance representing the animal tag
      */
     private static final String ANIMAL_TAG = "animal";
+    /**
+     * Constance representing the feature id of the animals, for the position random
+     */
+    private static final int ANIMAL_FEATURE = 3;
+    /**
+     * Constance representing the maximal number of removed foxes kept for reuse
+     */
+    private static final int MAX_POOLED_FOXES = 16;
 
     /**
      * map contains all animals that were created in a specific x-coordinate
      */
-    private final Map<Integer, GameObject> animalsMap;
+    private final Map<Integer, Fox> animalsMap;
     /**
-     * random object
+     * the removed foxes, kept for reuse
      */
-    private final Random rand;
-
+    private final GameObjectPool<Fox> foxPool;
     private final Function<Float, Float> groundHeightAt;
     private final int animalLayer;
-    private final ImageReader imageReader;
+    /**
+     * the fox animations clips, shared by all foxes
+     */
+    private final Renderable[] foxStandingClips;
+    private final Renderable[] foxMovingClips;
     private final int mySeed;
     private final GameObjectCollection gameObjects;
 
@@ -51,40 +64,75 @@ public class Animals implements RangeMutator {
     public Animals(GameObjectCollection gameObjects, ImageReader imageReader, int mySeed,
                    Function<Float, Float> groundHeightAt, int animalLayer) {
         this.gameObjects = gameObjects;
-        this.imageReader = imageReader;
+        this.foxStandingClips = Fox.readStandingClips(imageReader);
+        this.foxMovingClips = Fox.readMovingClips(imageReader);
         this.mySeed = mySeed;
         this.groundHeightAt = groundHeightAt;
         this.animalLayer = animalLayer;
         this.animalsMap = new HashMap<>();
-        this.rand = new Random(mySeed);
+        this.foxPool = new GameObjectPool<>(MAX_POOLED_FOXES);
     }
 
     /**
-     * this method is responsible for creating animals in the range (miniX, maxX), according to the
+     * this method is responsible for computing the animals in the range (miniX, maxX), according to the
      * probability that decide whether the animal will be created.
+     * the animals of a column depend only on the seed and the column.
      *
-     * @param minX minimum x-coordinate to create the animals
-     * @param maxX maximum x-coordinate to create the animals
+     * @param minX        minimum x-coordinate to create the animals
+     * @param maxX        maximum x-coordinate to create the animals
+     * @param isCancelled unused, since computing the animals of a range is cheap
+     * @return the commit phase, that adds the computed animals to the game
      */
     @Override
-    public void createInRange(int minX, int maxX) {
+    public RangeCommit generateInRange(int minX, int maxX, BooleanSupplier isCancelled) {
         int newMinX = (int) Math.ceil((float) minX / Block.SIZE) * Block.SIZE;
         int newMaxX = (int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
 
+        Map<Integer, Vector2> foxPositions = new TreeMap<>();
         for (int x = newMinX; x < newMaxX; x += Block.SIZE) {
-            if (rand.nextDouble() <= ANIMAL_PROBABILITY) {
-                Vector2 foxPosition = new Vector2(x, groundHeightAt.apply((float) x));
-                GameObject fox = new Fox(foxPosition, imageReader, mySeed + x);
-                fox.physics().preventIntersectionsFromDirection(Vector2.ZERO);
-                fox.setTag(ANIMAL_TAG);
-                gameObjects.addGameObject(fox, animalLayer);
-                animalsMap.put(x, fox);
+            if (PositionRandom.nextDouble(mySeed, x, ANIMAL_FEATURE) <= ANIMAL_PROBABILITY) {
+                foxPositions.put(x, new Vector2(x, groundHeightAt.apply((float) x)));
             }
         }
+        return () -> {
+            for (Map.Entry<Integer, Vector2> entry : foxPositions.entrySet()) {
+                if (!animalsMap.containsKey(entry.getKey())) {
+                    addFox(entry.getKey(), entry.getValue());
+                }
+            }
+        };
     }
 
     /**
-     * this method remove all animals in a given range (minX,maxX)
+     * private method that adds a fox to the game
+     *
+     * @param x           the x-coordinate the fox was created in
+     * @param foxPosition the fox initial location
+     */
+    private void addFox(int x, Vector2 foxPosition) {
+        Fox fox = foxPool.obtain();
+        if (fox == null) {
+            fox = new Fox(foxPosition, foxStandingClips, foxMovingClips, mySeed + x,
+                    gameObjects.scheduler());
+            fox.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+            fox.setTag(ANIMAL_TAG);
+        } else {
+            fox.reset(foxPosition, mySeed + x);
+        }
+        gameObjects.addGameObject(fox, animalLayer);
+        animalsMap.put(x, fox);
+    }
+
+    /**
+     * @return the pool of the removed foxes
+     */
+    public GameObjectPool<Fox> getFoxPool() {
+        return foxPool;
+    }
+
+    /**
+     * this method remove all animals in a given range (minX,maxX).
+     * the removed foxes are kept for reuse by the animals created later.
      *
      * @param minX minimum x-coordinate to remove the animals
      * @param maxX maximum x-coordinate to remove the animals
@@ -95,14 +143,11 @@ public class Animals implements RangeMutator {
         int newMaxX = (int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
 
         for (int col = newMinX; col < newMaxX; col += Block.SIZE) {
-            for (Map.Entry<Integer, GameObject> entry : animalsMap.entrySet()) {
-                if (entry.getKey() == col) {
-                    gameObjects.removeGameObject(entry.getValue(), animalLayer);
-                }
-                animalsMap.remove(entry.getKey());
-                break;
+            Fox animal = animalsMap.remove(col);
+            if (animal != null) {
+                gameObjects.removeGameObject(animal, animalLayer);
+                foxPool.release(animal);
             }
-
         }
     }
 }
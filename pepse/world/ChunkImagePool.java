@@ -0,0 +1,116 @@
+package pepse.world;
+
+import danogl.gui.rendering.CompatibleImages;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ChunkImagePool class is a class for reusing the images the terrain chunks are baked into.
+ * images are obtained by the threads that bake the chunks, and released by the game thread once
+ * no chunk draws them, when a chunk is removed or baked again.
+ */
+public class ChunkImagePool {
+
+    /**
+     * the released images that can be obtained, according to their size
+     */
+    private final Map<Long, ArrayDeque<BufferedImage>> freeImages;
+    /**
+     * the maximal number of free images the pool keeps
+     */
+    private final int maxFreeImages;
+    private int freeImageCount;
+    private long hits;
+    private long misses;
+
+    /**
+     * ChunkImagePool Constructor.
+     *
+     * @param maxFreeImages the maximal number of free images the pool keeps
+     */
+    public ChunkImagePool(int maxFreeImages) {
+        this.freeImages = new HashMap<>();
+        this.maxFreeImages = maxFreeImages;
+    }
+
+    /**
+     * this method obtains a transparent image in the given size. may be called from any thread.
+     *
+     * @param width  the image width
+     * @param height the image height
+     * @return a cleared free image in the given size, or a new one if the pool has none
+     */
+    public BufferedImage obtain(int width, int height) {
+        BufferedImage image = null;
+        synchronized (this) {
+            ArrayDeque<BufferedImage> images = freeImages.get(sizeKey(width, height));
+            if (images != null) {
+                image = images.pollLast();
+            }
+            if (image == null) {
+                misses++;
+            } else {
+                hits++;
+                freeImageCount--;
+            }
+        }
+        if (image == null) {
+            return createImage(width, height);
+        }
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * this method releases an image that is no longer drawn by any chunk. may be called from
+     * any thread.
+     *
+     * @param image the image to release
+     */
+    public synchronized void release(BufferedImage image) {
+        if (freeImageCount >= maxFreeImages) {
+            return;
+        }
+        freeImages.computeIfAbsent(sizeKey(image.getWidth(), image.getHeight()),
+                key -> new ArrayDeque<>()).addLast(image);
+        freeImageCount++;
+    }
+
+    /**
+     * @return the fraction of the obtained images that were reused, or 0 if none were obtained
+     */
+    public synchronized double getHitRate() {
+        long obtains = hits + misses;
+        return obtains == 0 ? 0 : (double) hits / obtains;
+    }
+
+    /**
+     * private method that returns the key of an image size
+     *
+     * @param width  the image width
+     * @param height the image height
+     * @return the size key
+     */
+    private static long sizeKey(int width, int height) {
+        return ((long) width << Integer.SIZE) | (height & 0xffffffffL);
+    }
+
+    /**
+     * private method that creates a transparent image in the screen's pixel format,
+     * so that drawing it does not require a conversion.
+     *
+     * @param width  the image width
+     * @param height the image height
+     * @return the new image
+     */
+    private static BufferedImage createImage(int width, int height) {
+        return CompatibleImages.createImage(width, height, Transparency.TRANSLUCENT);
+    }
+}
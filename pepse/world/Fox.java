@@ -2,6 +2,7 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.components.ScheduledTask;
+import danogl.components.TaskScheduler;
 import danogl.gui.ImageReader;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.Renderable;
@@ -55,15 +56,23 @@ public class Fox extends GameObject {
     /**
      * the standing render of the fox
      */
-    private final Renderable standingRender;
+    private final AnimationRenderable standingRender;
     /**
      * the moving render of the fox
      */
-    private final Renderable movingRender;
+    private final AnimationRenderable movingRender;
     /**
      * Random object
      */
-    private final Random rand;
+    private Random rand;
+    /**
+     * the scheduler of the fox jumps
+     */
+    private final TaskScheduler scheduler;
+    /**
+     * the task that makes the fox jump
+     */
+    private ScheduledTask jumpTask;
 
     /**
      * Fox Constructor.
@@ -71,21 +80,57 @@ public class Fox extends GameObject {
      * @param topLeftCorner Vector2 of the fox initial location
      * @param imageReader   ImageReader object
      * @param seed          an integer seed for the random object
+     * @param scheduler     the scheduler of the fox jumps, usually the game objects collection scheduler
+     */
+    public Fox(Vector2 topLeftCorner, ImageReader imageReader, int seed, TaskScheduler scheduler) {
+        this(topLeftCorner, readStandingClips(imageReader), readMovingClips(imageReader), seed, scheduler);
+    }
+
+    /**
+     * Fox Constructor.
+     * the clips can be shared by many foxes, so that the fox images are read only once.
+     *
+     * @param topLeftCorner Vector2 of the fox initial location
+     * @param standingClips the clips of the fox standing animation
+     * @param movingClips   the clips of the fox moving animation
+     * @param seed          an integer seed for the random object
+     * @param scheduler     the scheduler of the fox jumps, usually the game objects collection scheduler
      */
-    public Fox(Vector2 topLeftCorner, ImageReader imageReader, int seed) {
+    public Fox(Vector2 topLeftCorner, Renderable[] standingClips, Renderable[] movingClips, int seed,
+               TaskScheduler scheduler) {
         super(topLeftCorner, FOX_DEFAULT_DIMENSIONS, null);
-        this.standingRender = getStandingAnimation(imageReader);
-        this.movingRender = getMovingAnimation(imageReader);
+        this.scheduler = scheduler;
+        this.standingRender = new AnimationRenderable(standingClips, TIME_BETWEEN_CLIPS);
+        this.movingRender = new AnimationRenderable(movingClips, TIME_BETWEEN_CLIPS);
         this.rand = new Random(seed);
         this.renderer().setRenderable(standingRender);
         setRandomJumpScheduleTask();
     }
 
     /**
-     * private method that sets random jumping to the fox
+     * this method returns a removed fox to the state of a new fox in the given location,
+     * so that it can be reused instead of creating a new fox. its physics properties and tag are kept.
+     *
+     * @param topLeftCorner Vector2 of the fox initial location
+     * @param seed          an integer seed for the random object
+     */
+    public void reset(Vector2 topLeftCorner, int seed) {
+        reset(topLeftCorner, FOX_DEFAULT_DIMENSIONS, standingRender);
+        standingRender.resetAnimation();
+        movingRender.resetAnimation();
+        this.rand = new Random(seed);
+        setRandomJumpScheduleTask();
+    }
+
+    /**
+     * private method that sets random jumping to the fox.
+     * the jump task of a reused fox may still be pending, so it is cancelled first.
      */
     private void setRandomJumpScheduleTask() {
-        new ScheduledTask(this,
+        if (jumpTask != null) {
+            jumpTask.cancel();
+        }
+        jumpTask = new ScheduledTask(scheduler, this,
                 rand.nextInt(RANDOM_JUMP_BOUND),
                 true,
                 () -> transform().setVelocity(new Vector2(transform().getVelocity().x(), -MOVE_SPEED))
@@ -93,27 +138,29 @@ public class Fox extends GameObject {
     }
 
     /**
-     * private method that render the fox moving animation
+     * this method reads the clips of the fox moving animation
      *
-     * @return moving fox AnimationRenderable object
+     * @param imageReader ImageReader object
+     * @return the moving fox clips
      */
-    private static AnimationRenderable getMovingAnimation(ImageReader imageReader) {
+    public static Renderable[] readMovingClips(ImageReader imageReader) {
         Renderable foxImage1 = imageReader.readImage(ASSETS_FOX_W_1_PNG, true);
         Renderable foxImage2 = imageReader.readImage(ASSETS_FOX_W_2_PNG, true);
         Renderable foxImage3 = imageReader.readImage(ASSETS_FOX_W_3_PNG, true);
-        return new AnimationRenderable(new Renderable[]{foxImage1, foxImage2, foxImage3}, TIME_BETWEEN_CLIPS);
+        return new Renderable[]{foxImage1, foxImage2, foxImage3};
     }
 
     /**
-     * private method that render the fox standing animation
+     * this method reads the clips of the fox standing animation
      *
-     * @return standing fox AnimationRenderable object
+     * @param imageReader ImageReader object
+     * @return the standing fox clips
      */
-    private static AnimationRenderable getStandingAnimation(ImageReader imageReader) {
+    public static Renderable[] readStandingClips(ImageReader imageReader) {
         Renderable foxImage1 = imageReader.readImage(ASSETS_FOX_S_1_PNG, true);
         Renderable foxImage2 = imageReader.readImage(ASSETS_FOX_S_2_PNG, true);
         Renderable foxImage3 = imageReader.readImage(ASSETS_FOX_S_3_PNG, true);
-        return new AnimationRenderable(new Renderable[]{foxImage1, foxImage2, foxImage3}, TIME_BETWEEN_CLIPS);
+        return new Renderable[]{foxImage1, foxImage2, foxImage3};
     }
 
     /**
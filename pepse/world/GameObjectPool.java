@@ -0,0 +1,107 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+import java.util.ArrayDeque;
+
+/**
+ * The GameObjectPool class is a class for reusing game objects that were removed from the game,
+ * instead of constructing new objects, when the world creates and removes the same kinds of objects
+ * over and over.
+ * an object is released to the pool after it is removed from the game objects collection, and
+ * an obtained object must be reset (see GameObject.reset) before it is added to the game again.
+ * the pool is meant to be used only on the game thread.
+ *
+ * @param <T> the type of the pooled objects
+ */
+public class GameObjectPool<T extends GameObject> {
+
+    /**
+     * the released objects, which can be obtained
+     */
+    private final ArrayDeque<T> freeObjects;
+    /**
+     * the maximal number of released objects the pool keeps
+     */
+    private final int maxFreeObjects;
+    /**
+     * the number of times an object was obtained from the pool
+     */
+    private long hits;
+    /**
+     * the number of times the pool had no object to obtain
+     */
+    private long misses;
+
+    /**
+     * GameObjectPool Constructor.
+     *
+     * @param maxFreeObjects the maximal number of released objects the pool keeps. objects
+     *                       released to a full pool are left for the garbage collector.
+     */
+    public GameObjectPool(int maxFreeObjects) {
+        if (maxFreeObjects < 0) {
+            throw new IllegalArgumentException("A pool cannot keep a negative number of objects");
+        }
+        this.freeObjects = new ArrayDeque<>();
+        this.maxFreeObjects = maxFreeObjects;
+    }
+
+    /**
+     * this method obtains a released object from the pool
+     *
+     * @return a released object, which must be reset before it is used, or null if the pool is empty,
+     * in which case a new object should be constructed
+     */
+    public T obtain() {
+        T object = freeObjects.pollLast();
+        if (object == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return object;
+    }
+
+    /**
+     * this method releases an object to the pool. the object must already be removed
+     * from the game objects collection, and must not be used until it is obtained again.
+     *
+     * @param object the object to release
+     */
+    public void release(T object) {
+        if (freeObjects.size() < maxFreeObjects) {
+            freeObjects.addLast(object);
+        }
+    }
+
+    /**
+     * @return the number of released objects the pool keeps
+     */
+    public int getFreeObjectCount() {
+        return freeObjects.size();
+    }
+
+    /**
+     * @return the number of times an object was obtained from the pool
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of times the pool had no object to obtain
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the fraction of the obtain calls that returned a released object, or 0 if
+     * there were none
+     */
+    public double getHitRate() {
+        long obtains = hits + misses;
+        return obtains == 0 ? 0 : (double) hits / obtains;
+    }
+}
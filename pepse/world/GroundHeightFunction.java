@@ -0,0 +1,18 @@
+package pepse.world;
+
+/**
+ * The GroundHeightFunction interface is a function from an x-coordinate to the height of the
+ * ground there, such as Terrain::groundHeightAt. unlike a Function of Floats, it does not box the
+ * coordinate and the height, so it can be called for every particle in every frame.
+ */
+@FunctionalInterface
+public interface GroundHeightFunction {
+
+    /**
+     * this method calculates the height of the ground
+     *
+     * @param x the x-coordinate
+     * @return the y-coordinate of the ground top at x
+     */
+    float groundHeightAt(float x);
+}
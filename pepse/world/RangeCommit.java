@@ -0,0 +1,19 @@
+package pepse.world;
+
+/**
+ * RangeCommit interface for the commit phase of a range computed by a RangeGenerator.
+ * a commit phase is either run once, or discarded once if its range is unloaded before it runs.
+ */
+public interface RangeCommit {
+    /**
+     * this method adds the computed objects to the game. it must run on the game thread.
+     */
+    void run();
+
+    /**
+     * this method releases what the data phase computed, such as pooled images, without adding
+     * anything to the game. it may run on any thread. by default, there is nothing to release.
+     */
+    default void discard() {
+    }
+}
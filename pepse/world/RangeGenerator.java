@@ -0,0 +1,36 @@
+package pepse.world;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * RangeGenerator interface for objects whose creation in a given range is split into two phases:
+ * a data phase, which only computes what should be created and may run on any thread, and a
+ * commit phase, which adds the computed objects to the game and runs on the game thread.
+ */
+public interface RangeGenerator extends RangeMutator {
+    /**
+     * this method computes the objects of the range (start, end), without adding anything to the game.
+     * it may run on any thread, so it must not access the game objects collection, or any state
+     * the commit phase changes.
+     *
+     * @param minX        start index of creation
+     * @param maxX        end index of creation
+     * @param isCancelled true once the range was unloaded, and the commit phase will only be
+     *                    discarded. the data phase may then skip its remaining work.
+     * @return the commit phase of the range, which adds the computed objects to the game, or
+     * releases them if it is discarded
+     */
+    RangeCommit generateInRange(int minX, int maxX, BooleanSupplier isCancelled);
+
+    /**
+     * this method creates the object in the range (start, end), by running both phases
+     * on the calling thread
+     *
+     * @param minX start index of creation
+     * @param maxX end index of creation
+     */
+    @Override
+    default void createInRange(int minX, int maxX) {
+        generateInRange(minX, maxX, () -> false).run();
+    }
+}
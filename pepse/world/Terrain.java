@@ -1,6 +1,5 @@
 package pepse.world;
 
-import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
 import danogl.gui.ImageReader;
@@ -8,15 +7,20 @@ import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
+import pepse.util.PositionRandom;
 
 import java.awt.*;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 /**
  * The Terrain class is a class for creating the ground in the game.
  */
-public class Terrain implements RangeMutator {
+public class Terrain implements RangeGenerator {
 
     /**
      * constance representing the ground tag
@@ -27,15 +31,20 @@ public class Terrain implements RangeMutator {
      */
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
     /**
-     * constance representing the layer of the ground that does not collide with other objects
+     * constance representing the layer of the baked ground images, which do not collide with other objects
      */
-    private static final int NO_COLLISION_GROUND_LAYER = Layer.BACKGROUND + 10;
+    private static final int GROUND_IMAGE_LAYER = Layer.BACKGROUND + 10;
+    /**
+     * constance representing the number of columns baked into a single ground image
+     */
+    private static final int CHUNK_COLUMNS = 16;
     /**
      * constance representing the ground height factor (ratio to take from the ground height)
      */
     private static final float HEIGHT_FRACTION_FACTOR = 1.4f;
     /**
-     * constance representing the number of ground layers that collide with other objects
+     * constance representing the number of ground layers that collide with other objects,
+     * from the top of every column
      */
     private static final int NUMBER_OF_GROUND_COLLISION_LAYERS = 8;
     /**
@@ -54,6 +63,10 @@ public class Terrain implements RangeMutator {
      * constance representing the minimum height gap
      */
     private static final int MIN_HEIGHT_GAP = 0;
+    /**
+     * constance representing the feature id of the ground colors, for the position random
+     */
+    private static final int GROUND_COLOR_FEATURE = 4;
     /**
      * constance representing the number 0
      */
@@ -62,12 +75,38 @@ public class Terrain implements RangeMutator {
      * constance representing the number 2
      */
     private static final int TWO = 2;
+    /**
+     * constance representing the maximal number of baked images of removed chunks kept for reuse
+     */
+    private static final int MAX_POOLED_CHUNK_IMAGES = 8;
+    /**
+     * constance representing the maximal number of chunks whose column heights are cached
+     */
+    private static final int MAX_CACHED_HEIGHT_CHUNKS = 256;
 
 
     /**
-     * blocksMap is a map holding all the blocks in the ground according to their location and layer
+     * chunksMap is a map holding the baked ground images according to their chunk index
+     */
+    private final Map<Integer, TerrainChunk> chunksMap;
+    /**
+     * the chunks that changed since they were last baked
+     */
+    private final Set<TerrainChunk> dirtyChunks;
+    /**
+     * the baked images of removed chunks, kept for reuse
+     */
+    private final ChunkImagePool chunkImagePool;
+    /**
+     * the heights of the columns of the recently used chunks, according to their chunk index,
+     * in least recently used order. guarded by itself, since the ground height is computed by
+     * the generation threads as well.
      */
-    private final Map<Integer, Map<GameObject, Integer>> blocksMap;
+    private final Map<Integer, float[]> heightCache = createHeightCache();
+    /**
+     * the last chunk whose heights were used, which is read without locking the cache
+     */
+    private volatile CachedChunkHeights lastChunkHeights = null;
     private final GameObjectCollection gameObjects;
     private final Vector2 windowDimensions;
     private final int groundLayer;
@@ -90,7 +129,9 @@ public class Terrain implements RangeMutator {
         this.gameObjects = gameObjects;
         this.groundLayer = groundLayer;
         this.seed = seed;
-        this.blocksMap = new HashMap<>();
+        this.chunksMap = new HashMap<>();
+        this.dirtyChunks = new HashSet<>();
+        this.chunkImagePool = new ChunkImagePool(MAX_POOLED_CHUNK_IMAGES);
     }
 
     /**
@@ -112,7 +153,16 @@ public class Terrain implements RangeMutator {
         this.seed = seed;
         this.blockRender = imageReader.readImage("assets/tiles/dirt.png", false);
         this.topBlockRender = imageReader.readImage("assets/tiles/dirt_grass.png", true);
-        this.blocksMap = new HashMap<>();
+        this.chunksMap = new HashMap<>();
+        this.dirtyChunks = new HashSet<>();
+        this.chunkImagePool = new ChunkImagePool(MAX_POOLED_CHUNK_IMAGES);
+    }
+
+    /**
+     * @return the pool of the baked images of removed chunks
+     */
+    public ChunkImagePool getChunkImagePool() {
+        return chunkImagePool;
     }
 
     /**
@@ -126,12 +176,121 @@ public class Terrain implements RangeMutator {
 
     /**
      * this method calculates the ground height at a given x-coordinate
-     * if the ground is too low, it returns the right ratio
+     * if the ground is too low, it returns the right ratio.
+     * the heights of the columns are cached, so the height of a column's x-coordinate is
+     * usually not calculated again.
      *
      * @param x float of the x-coordinate
      * @return calculated height in the x-coordinate
      */
     public float groundHeightAt(float x) {
+        int intX = (int) x;
+        if (intX != x || intX % Block.SIZE != ZERO) {
+            return calculateGroundHeight(x);
+        }
+        int column = intX / Block.SIZE;
+        return chunkHeights(Math.floorDiv(column, CHUNK_COLUMNS))[Math.floorMod(column, CHUNK_COLUMNS)];
+    }
+
+    /**
+     * this method writes the ground heights of the columns in the given range, the same ones
+     * generateInRange creates, to the given array. the heights are copied from the cache, and the
+     * heights of a chunk that is not cached are calculated together, in a single loop.
+     *
+     * @param minX minimum x-coordinate of the range
+     * @param maxX maximum x-coordinate of the range
+     * @param out  the array the heights are written to, from index 0
+     * @return the number of columns in the range, and of heights written
+     * @throws IllegalArgumentException if the array is too short for the columns in the range
+     */
+    public int heightsInRange(int minX, int maxX, float[] out) {
+        int newMinX = (int) Math.ceil((float) minX / Block.SIZE) * Block.SIZE;
+        int newMaxX = (int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
+        int columnCount = Math.max((newMaxX - newMinX) / Block.SIZE, ZERO);
+        if (out.length < columnCount) {
+            throw new IllegalArgumentException("Array of length " + out.length +
+                    " is too short for " + columnCount + " columns");
+        }
+        int column = newMinX / Block.SIZE;
+        int written = ZERO;
+        while (written < columnCount) {
+            int offset = Math.floorMod(column, CHUNK_COLUMNS);
+            int count = Math.min(CHUNK_COLUMNS - offset, columnCount - written);
+            System.arraycopy(chunkHeights(Math.floorDiv(column, CHUNK_COLUMNS)), offset, out, written, count);
+            written += count;
+            column += count;
+        }
+        return columnCount;
+    }
+
+    /**
+     * private method that returns the heights of the columns of a chunk, from the cache,
+     * or calculates and caches them
+     *
+     * @param chunkIndex the chunk index
+     * @return the heights of the chunk's columns, which must not be changed
+     */
+    private float[] chunkHeights(int chunkIndex) {
+        CachedChunkHeights last = lastChunkHeights;
+        if (last != null && last.chunkIndex == chunkIndex) {
+            return last.heights;
+        }
+        float[] heights;
+        synchronized (heightCache) {
+            heights = heightCache.get(chunkIndex);
+        }
+        if (heights != null) {
+            lastChunkHeights = new CachedChunkHeights(chunkIndex, heights);
+            return heights;
+        }
+        // calculated outside the lock. a chunk calculated by two threads at once gets the same heights
+        heights = new float[CHUNK_COLUMNS];
+        float firstX = (float) chunkIndex * CHUNK_COLUMNS * Block.SIZE;
+        for (int i = ZERO; i < CHUNK_COLUMNS; i++) {
+            heights[i] = calculateGroundHeight(firstX + i * Block.SIZE);
+        }
+        synchronized (heightCache) {
+            heightCache.put(chunkIndex, heights);
+        }
+        lastChunkHeights = new CachedChunkHeights(chunkIndex, heights);
+        return heights;
+    }
+
+    /**
+     * the heights of the columns of a chunk, together with its chunk index
+     */
+    private static class CachedChunkHeights {
+        private final int chunkIndex;
+        private final float[] heights;
+
+        private CachedChunkHeights(int chunkIndex, float[] heights) {
+            this.chunkIndex = chunkIndex;
+            this.heights = heights;
+        }
+    }
+
+    /**
+     * private method that creates the cache of the chunks column heights, which evicts the least
+     * recently used chunk when it is full
+     *
+     * @return the heights cache
+     */
+    private static Map<Integer, float[]> createHeightCache() {
+        return new LinkedHashMap<>(MAX_CACHED_HEIGHT_CHUNKS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, float[]> eldest) {
+                return size() > MAX_CACHED_HEIGHT_CHUNKS;
+            }
+        };
+    }
+
+    /**
+     * private method that calculates the ground height at a given x-coordinate
+     *
+     * @param x float of the x-coordinate
+     * @return calculated height in the x-coordinate
+     */
+    private float calculateGroundHeight(float x) {
         float xHeight = randomHeightGenerator(x) * getHeight();
         float maxTreeHeight = TERRAIN_DEPTH * Block.SIZE;
         float heightGap = Math.max(getHeight() - maxTreeHeight - xHeight, MIN_HEIGHT_GAP);
@@ -156,62 +315,136 @@ public class Terrain implements RangeMutator {
     }
 
     /**
-     * this method creates the ground blocks in the given range
+     * this method computes the ground blocks in the given range.
+     * the blocks of every column are baked into the image of a new chunk, which is added to the
+     * game, with its ground collider, by the returned commit phase. once the range is cancelled,
+     * the remaining chunks are not baked.
      *
-     * @param minX minimum x-coordinate of creation
-     * @param maxX maximum x-coordinate of creation
+     * @param minX        minimum x-coordinate of creation
+     * @param maxX        maximum x-coordinate of creation
+     * @param isCancelled true once the range was unloaded
+     * @return the commit phase, that adds the new chunks to the game, or releases their images
+     * to the image pool if it is discarded
      */
-    public void createInRange(int minX, int maxX) {
+    @Override
+    public RangeCommit generateInRange(int minX, int maxX, BooleanSupplier isCancelled) {
         int newMinX = (int) Math.ceil((float) minX / Block.SIZE) * Block.SIZE;
         int newMaxX = (int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
 
+        Map<Integer, TerrainChunk> generatedChunks = new HashMap<>();
+        float[] heights = new float[Math.max((newMaxX - newMinX) / Block.SIZE, ZERO)];
+        heightsInRange(minX, maxX, heights);
         for (int x = newMinX; x < newMaxX; x += Block.SIZE) {
-            float y = groundHeightAt(x);
-            Map<GameObject, Integer> blocksLayerMap = new HashMap<>();
+            TerrainChunk chunk = generatedChunks.computeIfAbsent(getChunkIndex(x), this::createChunk);
+            float y = heights[(x - newMinX) / Block.SIZE];
+            Renderable[] blockRenderables = new Renderable[TERRAIN_DEPTH];
             for (int j = ZERO; j < TERRAIN_DEPTH; j++) {
-                GameObject singleBlock = new Block(new Vector2(x, (y + (j * Block.SIZE))),
-                        new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR)));
-                singleBlock.setTag(GROUND_TAG);
-                setBlockToGameByLayer(j, singleBlock, blocksLayerMap);
-                setGroundRender(j, singleBlock);
+                blockRenderables[j] = getBlockRender(x, j);
+            }
+            chunk.addColumn(x, y, blockRenderables);
+        }
+        for (TerrainChunk chunk : generatedChunks.values()) {
+            if (isCancelled.getAsBoolean()) {
+                break;
             }
-            blocksMap.put(x, blocksLayerMap);
+            chunk.bakeIfDirty();
         }
+        return new RangeCommit() {
+            @Override
+            public void run() {
+                commitChunks(generatedChunks);
+            }
+
+            @Override
+            public void discard() {
+                for (TerrainChunk chunk : generatedChunks.values()) {
+                    chunk.releaseImage();
+                }
+            }
+        };
     }
 
     /**
-     * this private method adds a single block to the game.
-     * in addition it adds the block to the correct column in the blocksMap
+     * private method that adds the generated chunks to the game. a chunk that already exists
+     * takes only the generated columns it is missing, and is baked again.
      *
-     * @param blockNum       an integer of the block number in the tiles column
-     * @param singleBlock    the block GameObject
-     * @param blocksLayerMap the current blocks layer map
+     * @param generatedChunks the generated chunks, according to their chunk index
      */
-    private void setBlockToGameByLayer(int blockNum, GameObject singleBlock,
-                                       Map<GameObject, Integer> blocksLayerMap) {
-        if (blockNum < NUMBER_OF_GROUND_COLLISION_LAYERS) {
-            gameObjects.addGameObject(singleBlock, groundLayer);
-            blocksLayerMap.put(singleBlock, groundLayer);
-        } else {
-            gameObjects.addGameObject(singleBlock, NO_COLLISION_GROUND_LAYER);
-            blocksLayerMap.put(singleBlock, NO_COLLISION_GROUND_LAYER);
+    private void commitChunks(Map<Integer, TerrainChunk> generatedChunks) {
+        for (Map.Entry<Integer, TerrainChunk> entry : generatedChunks.entrySet()) {
+            TerrainChunk chunk = chunksMap.get(entry.getKey());
+            if (chunk == null) {
+                chunksMap.put(entry.getKey(), entry.getValue());
+                gameObjects.addGameObject(entry.getValue(), GROUND_IMAGE_LAYER);
+                gameObjects.addGameObject(entry.getValue().getGroundCollider(), groundLayer);
+            } else {
+                if (chunk.addMissingColumns(entry.getValue())) {
+                    dirtyChunks.add(chunk);
+                }
+                entry.getValue().releaseImage();
+            }
         }
+        bakeDirtyChunks();
     }
 
     /**
-     * privat method that sets the block tiles render image.
+     * private method that returns the block render of a block in the tiles column.
+     * without tiles, the block color depends only on the seed and the block position.
      *
-     * @param blockNum    an integer of the block number in the tiles column
-     * @param singleBlock the block GameObject
+     * @param x        the x-coordinate of the tiles column
+     * @param blockNum an integer of the block number in the tiles column
+     * @return the block render
      */
-    private void setGroundRender(int blockNum, GameObject singleBlock) {
-        if (blockRender != null) {
-            if (blockNum == 0) { // first block has grass on it
-                singleBlock.renderer().setRenderable(topBlockRender);
+    private Renderable getBlockRender(int x, int blockNum) {
+        if (blockRender == null) {
+            return new RectangleRenderable(ColorSupplier.approximateColorForKey(BASE_GROUND_COLOR,
+                    PositionRandom.hash(seed, x, GROUND_COLOR_FEATURE, blockNum)));
+        }
+        if (blockNum == 0) { // first block has grass on it
+            return topBlockRender;
+        }
+        return blockRender;
+    }
+
+    /**
+     * private method that returns the index of the chunk of the column in the given x-coordinate
+     *
+     * @param x the x-coordinate of the column
+     * @return the column's chunk index
+     */
+    private static int getChunkIndex(int x) {
+        return Math.floorDiv(x, CHUNK_COLUMNS * Block.SIZE);
+    }
+
+    /**
+     * private method that creates an empty chunk, which is not added to the game
+     *
+     * @param chunkIndex the chunk index
+     * @return the new chunk
+     */
+    private TerrainChunk createChunk(int chunkIndex) {
+        TerrainChunk chunk = new TerrainChunk(chunkIndex * CHUNK_COLUMNS * Block.SIZE, CHUNK_COLUMNS,
+                NUMBER_OF_GROUND_COLLISION_LAYERS * Block.SIZE, chunkImagePool);
+        chunk.getGroundCollider().setTag(GROUND_TAG);
+        return chunk;
+    }
+
+    /**
+     * private method that bakes again the chunks that changed, and removes the chunks
+     * that were left empty.
+     */
+    private void bakeDirtyChunks() {
+        for (TerrainChunk chunk : dirtyChunks) {
+            if (chunk.isEmpty()) {
+                chunk.releaseImage();
+                gameObjects.removeGameObject(chunk, GROUND_IMAGE_LAYER);
+                gameObjects.removeGameObject(chunk.getGroundCollider(), groundLayer);
+                chunksMap.values().remove(chunk);
             } else {
-                singleBlock.renderer().setRenderable(blockRender);
+                chunk.bakeIfDirty();
             }
         }
+        dirtyChunks.clear();
     }
 
     /**
@@ -225,17 +458,13 @@ public class Terrain implements RangeMutator {
         int newMaxX = (int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
 
         for (int x = newMinX; x < newMaxX; x += Block.SIZE) {
-            for (Map.Entry<Integer, Map<GameObject, Integer>> entry : blocksMap.entrySet()) {
-                if (entry.getKey() == x) {
-                    for (Map.Entry<GameObject, Integer> objectEntry : entry.getValue().entrySet()) {
-                        gameObjects.removeGameObject(objectEntry.getKey(), objectEntry.getValue());
-                    }
-                    blocksMap.remove(entry.getKey());
-                    break;
-                }
+            TerrainChunk chunk = chunksMap.get(getChunkIndex(x));
+            if (chunk == null || !chunk.hasColumn(x)) {
+                continue;
             }
+            chunk.removeColumn(x);
+            dirtyChunks.add(chunk);
         }
+        bakeDirtyChunks();
     }
 }
-
-
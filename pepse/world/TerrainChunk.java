@@ -0,0 +1,271 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.HeightmapCollider;
+import danogl.components.GameObjectPhysics;
+import danogl.gui.rendering.Renderable;
+import danogl.gui.rendering.VolatileImageRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The TerrainChunk class is a class for drawing a fixed-width range of terrain columns.
+ * all the blocks of the chunk are baked into a single image, which is drawn in a single call,
+ * and is baked again only when a column is added to the chunk or removed from it.
+ * the top blocks of the columns collide through a single ground collider object, whose
+ * heightmap collider has a column for every column of the chunk.
+ */
+public class TerrainChunk extends GameObject {
+
+    /**
+     * Constance representing the dimensions of a single block
+     */
+    private static final Vector2 BLOCK_DIMENSIONS = Vector2.ONES.mult(Block.SIZE);
+    /**
+     * Constance representing the multiple the image heights are rounded up to, so that the images
+     * of different chunks have the same size more often, and can be reused
+     */
+    private static final int IMAGE_HEIGHT_QUANTUM = 2 * Block.SIZE;
+    /**
+     * Constance representing the number 0 in float
+     */
+    private static final float ZERO_F = 0f;
+    /**
+     * Constance representing the number 1 in float
+     */
+    private static final float ONE_F = 1f;
+
+    /**
+     * a single column of the chunk: its top y-coordinate and the renderables of its blocks,
+     * from top to bottom
+     */
+    private static class Column {
+        private final float topY;
+        private final Renderable[] blockRenderables;
+
+        private Column(float topY, Renderable[] blockRenderables) {
+            this.topY = topY;
+            this.blockRenderables = blockRenderables;
+        }
+    }
+
+    /**
+     * the columns of the chunk, according to their x-coordinate
+     */
+    private final Map<Integer, Column> columns;
+    /**
+     * the x-coordinate of the chunk's first column
+     */
+    private final int minX;
+    /**
+     * the depth of the colliding part of every column, from its top
+     */
+    private final float collidingDepth;
+    /**
+     * the heightmap of the ground collider
+     */
+    private final HeightmapCollider heightmap;
+    /**
+     * the object the top blocks of the chunk collide through
+     */
+    private final GameObject groundCollider;
+    /**
+     * the pool the baked images are obtained from and released to
+     */
+    private final ChunkImagePool imagePool;
+    /**
+     * the image the chunk was last baked into, or null
+     */
+    private BufferedImage image;
+    /**
+     * the renderable of the image, which draws it from a copy in video memory
+     */
+    private VolatileImageRenderable imageRenderable;
+    /**
+     * true if the columns changed since the last bake
+     */
+    private boolean isDirty;
+
+    /**
+     * TerrainChunk Constructor.
+     * the chunk is empty, and is not drawn until columns are added and it is baked.
+     *
+     * @param minX           the x-coordinate of the chunk's first column
+     * @param columnCount    the number of columns in the chunk
+     * @param collidingDepth the depth of the colliding part of every column, from its top
+     * @param imagePool      the pool the baked images are obtained from and released to
+     */
+    public TerrainChunk(int minX, int columnCount, float collidingDepth, ChunkImagePool imagePool) {
+        super(Vector2.ZERO, Vector2.ZERO, null);
+        this.columns = new TreeMap<>();
+        this.imagePool = imagePool;
+        this.isDirty = false;
+        this.minX = minX;
+        this.collidingDepth = collidingDepth;
+        this.heightmap = new HeightmapCollider(columnCount);
+        physics().setStatic(true);
+
+        // the collider is resized whenever the chunk is baked, so it cannot be static
+        this.groundCollider = new GameObject(new Vector2(minX, ZERO_F),
+                new Vector2(columnCount * Block.SIZE, ONE_F), null);
+        groundCollider.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        groundCollider.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+        groundCollider.physics().setCollider(heightmap);
+    }
+
+    /**
+     * @return the object the top blocks of the chunk collide through
+     */
+    public GameObject getGroundCollider() {
+        return groundCollider;
+    }
+
+    /**
+     * @param x the x-coordinate of a column
+     * @return true if the chunk has a column in the given x-coordinate
+     */
+    public boolean hasColumn(int x) {
+        return columns.containsKey(x);
+    }
+
+    /**
+     * this method adds a column of blocks to the chunk
+     *
+     * @param x                the x-coordinate of the column
+     * @param topY             the y-coordinate of the column's top block
+     * @param blockRenderables the renderables of the column's blocks, from top to bottom
+     */
+    public void addColumn(int x, float topY, Renderable[] blockRenderables) {
+        columns.put(x, new Column(topY, blockRenderables));
+        isDirty = true;
+    }
+
+    /**
+     * this method adds to the chunk the columns of another chunk that it does not have
+     *
+     * @param other a chunk with the same x-coordinate
+     * @return true if any column was added
+     */
+    public boolean addMissingColumns(TerrainChunk other) {
+        boolean isAnyColumnAdded = false;
+        for (Map.Entry<Integer, Column> entry : other.columns.entrySet()) {
+            if (columns.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                isAnyColumnAdded = true;
+            }
+        }
+        isDirty |= isAnyColumnAdded;
+        return isAnyColumnAdded;
+    }
+
+    /**
+     * this method removes a column of blocks from the chunk
+     *
+     * @param x the x-coordinate of the column
+     */
+    public void removeColumn(int x) {
+        if (columns.remove(x) != null) {
+            isDirty = true;
+        }
+    }
+
+    /**
+     * @return true if the chunk has no columns
+     */
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    /**
+     * this method bakes the chunk's blocks into a single image, if the columns changed since
+     * the last bake, and resizes the chunk to the image.
+     * the previous image is released, so a chunk that was already baked must be baked again
+     * only on the game thread.
+     */
+    public void bakeIfDirty() {
+        if (!isDirty) {
+            return;
+        }
+        isDirty = false;
+        releaseImage();
+        if (columns.isEmpty()) {
+            heightmap.clear();
+            return;
+        }
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        float minY = Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (Map.Entry<Integer, Column> entry : columns.entrySet()) {
+            Column column = entry.getValue();
+            minX = Math.min(minX, entry.getKey());
+            maxX = Math.max(maxX, entry.getKey() + Block.SIZE);
+            minY = Math.min(minY, column.topY);
+            maxY = Math.max(maxY, column.topY + column.blockRenderables.length * Block.SIZE);
+        }
+        int imageTop = (int) Math.floor(minY);
+        int width = maxX - minX;
+        int height = (int) Math.ceil(maxY) - imageTop;
+        height = (height + IMAGE_HEIGHT_QUANTUM - 1) / IMAGE_HEIGHT_QUANTUM * IMAGE_HEIGHT_QUANTUM;
+
+        image = imagePool.obtain(width, height);
+        Graphics2D g = image.createGraphics();
+        for (Map.Entry<Integer, Column> entry : columns.entrySet()) {
+            Column column = entry.getValue();
+            for (int row = 0; row < column.blockRenderables.length; row++) {
+                if (column.blockRenderables[row] != null) {
+                    column.blockRenderables[row].render(g, new Vector2(entry.getKey() - minX,
+                            column.topY - imageTop + row * Block.SIZE), BLOCK_DIMENSIONS);
+                }
+            }
+        }
+        g.dispose();
+
+        // setDimensions keeps the center in place, so the corner is set afterwards
+        setDimensions(new Vector2(width, height));
+        setTopLeftCorner(new Vector2(minX, imageTop));
+        // the baked image does not change until it is released, so it is drawn from video memory
+        imageRenderable = new VolatileImageRenderable(image);
+        renderer().setRenderable(imageRenderable);
+        updateGroundCollider();
+    }
+
+    /**
+     * this method releases the image the chunk was baked into to the image pool, and stops drawing
+     * the chunk. must be called on the game thread (which draws the chunks) once the chunk is
+     * removed from the game, or on the thread that baked the chunk if it was never added.
+     */
+    public void releaseImage() {
+        renderer().setRenderable(null);
+        if (imageRenderable != null) {
+            imageRenderable.flush();
+            imageRenderable = null;
+        }
+        if (image != null) {
+            imagePool.release(image);
+            image = null;
+        }
+    }
+
+    /**
+     * private method that fits the ground collider to the colliding part of the columns.
+     */
+    private void updateGroundCollider() {
+        float minY = Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (Column column : columns.values()) {
+            minY = Math.min(minY, column.topY);
+            maxY = Math.max(maxY, column.topY + collidingDepth);
+        }
+        float height = maxY - minY;
+        groundCollider.setDimensions(new Vector2(groundCollider.getDimensions().x(), height));
+        groundCollider.setTopLeftCorner(new Vector2(minX, minY));
+        heightmap.clear();
+        for (Map.Entry<Integer, Column> entry : columns.entrySet()) {
+            float top = (entry.getValue().topY - minY) / height;
+            heightmap.setColumn((entry.getKey() - minX) / Block.SIZE, top,
+                    top + collidingDepth / height);
+        }
+        groundCollider.physics().wakeUp();
+    }
+}
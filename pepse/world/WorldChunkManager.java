@@ -0,0 +1,364 @@
+package pepse.world;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The WorldChunkManager class is a class for creating an infinite world effect in a game.
+ * the x-axis is divided into fixed-width chunks, and the chunks within a load radius around
+ * a center (usually the camera's) are kept loaded. a loaded chunk is unloaded only when it is
+ * farther than the unload radius, which is larger than the load radius, so that moving
+ * back and forth around a chunk boundary does not load and unload the same chunk repeatedly.
+ * <br>if the manager has a generation executor, the data phase of the objects that implement
+ * RangeGenerator runs on the executor, and their commit phases run on the game thread in update,
+ * as long as the commit budget of the current update is not used up.
+ */
+public class WorldChunkManager {
+
+    /**
+     * Constance representing the number of nanoseconds in a second
+     */
+    private static final float NANOS_IN_SECOND = 1e9f;
+
+    /**
+     * a chunk that was loaded, but whose objects were not all added to the game yet
+     */
+    private static class PendingChunk {
+        private final int chunk;
+        /**
+         * the commit phases of the objects, according to the objects order. the commit phase of
+         * an object that is not a RangeGenerator stays null, and the object is created when
+         * it is committed.
+         */
+        private final RangeCommit[] commits;
+        /**
+         * counted down once the data phases ended
+         */
+        private final CountDownLatch generated = new CountDownLatch(1);
+        /**
+         * the exception thrown by one of the data phases, if any
+         */
+        private volatile RuntimeException generationFailure;
+        /**
+         * true if the chunk was unloaded before it was committed
+         */
+        private volatile boolean isCancelled;
+        /**
+         * set by the first of the game thread and the generation thread that finds the chunk both
+         * cancelled and generated, which then discards the commit phases that were not run
+         */
+        private final AtomicBoolean isDiscarded = new AtomicBoolean();
+        /**
+         * the index of the next object to commit
+         */
+        private int nextCommit;
+
+        private PendingChunk(int chunk, int objectCount) {
+            this.chunk = chunk;
+            this.commits = new RangeCommit[objectCount];
+        }
+
+        private boolean isGenerated() {
+            return generated.getCount() == 0;
+        }
+    }
+
+    /**
+     * objects that are created and removed a whole chunk at a time
+     */
+    private final RangeMutator[] objects;
+    private final int chunkWidth;
+    private final int loadRadius;
+    private final int unloadRadius;
+    /**
+     * the executor the data phases run on, or null if chunks are created on the game thread
+     */
+    private final Executor generationExecutor;
+    /**
+     * the time, in nanoseconds, the commit phases may take in a single update
+     */
+    private final long commitBudgetNanos;
+    /**
+     * the loaded chunks that were not committed yet, in the order they were loaded
+     */
+    private final Map<Integer, PendingChunk> pendingChunks;
+
+    /**
+     * true if any chunk is loaded. the loaded chunks are always the chunks between
+     * minLoadedChunk and maxLoadedChunk (inclusive).
+     */
+    private boolean isAnyChunkLoaded;
+    private int minLoadedChunk;
+    private int maxLoadedChunk;
+
+    /**
+     * the number of chunks loaded since the manager was created
+     */
+    private long chunksGenerated;
+    /**
+     * the number of chunks unloaded since the manager was created
+     */
+    private long chunksEvicted;
+
+    /**
+     * WorldChunkManager Constructor.
+     * chunks are created on the game thread, as soon as they are loaded.
+     *
+     * @param objects      objects that implements RangeMutator interface
+     * @param chunkWidth   the width of a chunk
+     * @param loadRadius   the number of chunks on every side of the center chunk that should be loaded
+     * @param unloadRadius the number of chunks on every side of the center chunk after which
+     *                     chunks are unloaded. must not be smaller than loadRadius.
+     */
+    public WorldChunkManager(RangeMutator[] objects, int chunkWidth, int loadRadius, int unloadRadius) {
+        this(objects, chunkWidth, loadRadius, unloadRadius, null, 0);
+    }
+
+    /**
+     * WorldChunkManager Constructor.
+     * the data phases of the chunks run on the given executor, and the commit phases run in update.
+     * the data phases of different chunks may run at the same time, unless the executor is single
+     * threaded, so they must not depend on each other.
+     *
+     * @param objects            objects that implements RangeMutator interface
+     * @param chunkWidth         the width of a chunk
+     * @param loadRadius         the number of chunks on every side of the center chunk that should
+     *                           be loaded
+     * @param unloadRadius       the number of chunks on every side of the center chunk after which
+     *                           chunks are unloaded. must not be smaller than loadRadius.
+     * @param generationExecutor the executor the data phases run on, or null to create chunks on
+     *                           the game thread
+     * @param commitBudget       the time, in seconds, the commit phases may take in a single update.
+     *                           at least one commit phase runs in every update that has any.
+     */
+    public WorldChunkManager(RangeMutator[] objects, int chunkWidth, int loadRadius, int unloadRadius,
+                             Executor generationExecutor, float commitBudget) {
+        if (chunkWidth <= 0 || loadRadius < 0 || unloadRadius < loadRadius) {
+            throw new IllegalArgumentException("Chunks must have a positive width, and the unload radius " +
+                    "must not be smaller than the non-negative load radius");
+        }
+        this.objects = objects;
+        this.chunkWidth = chunkWidth;
+        this.loadRadius = loadRadius;
+        this.unloadRadius = unloadRadius;
+        this.generationExecutor = generationExecutor;
+        this.commitBudgetNanos = (long) (commitBudget * NANOS_IN_SECOND);
+        this.pendingChunks = new LinkedHashMap<>();
+        this.isAnyChunkLoaded = false;
+    }
+
+    /**
+     * this method loads the chunks within the load radius of the given x-coordinate,
+     * and unloads the chunks beyond the unload radius. nothing is loaded or unloaded unless
+     * the center crossed a chunk boundary.
+     * then, the generated chunks are committed until the commit budget is used up.
+     *
+     * @param centerX the x-coordinate the world should be loaded around
+     */
+    public void update(float centerX) {
+        int centerChunk = Math.floorDiv((int) Math.floor(centerX), chunkWidth);
+        if (isAnyChunkLoaded) {
+            while (isAnyChunkLoaded && minLoadedChunk < centerChunk - unloadRadius) {
+                unloadChunk(minLoadedChunk++);
+                isAnyChunkLoaded = minLoadedChunk <= maxLoadedChunk;
+            }
+            while (isAnyChunkLoaded && maxLoadedChunk > centerChunk + unloadRadius) {
+                unloadChunk(maxLoadedChunk--);
+                isAnyChunkLoaded = minLoadedChunk <= maxLoadedChunk;
+            }
+        }
+        if (!isAnyChunkLoaded) {
+            // the center moved too far for any loaded chunk to remain
+            minLoadedChunk = centerChunk;
+            maxLoadedChunk = centerChunk;
+            loadChunk(centerChunk);
+            isAnyChunkLoaded = true;
+        }
+        while (minLoadedChunk > centerChunk - loadRadius) {
+            loadChunk(--minLoadedChunk);
+        }
+        while (maxLoadedChunk < centerChunk + loadRadius) {
+            loadChunk(++maxLoadedChunk);
+        }
+        commitGeneratedChunks(commitBudgetNanos);
+    }
+
+    /**
+     * this method waits for the data phases of all the loaded chunks, and commits them regardless
+     * of the commit budget. useful for loading the world before the game starts.
+     */
+    public void commitAll() {
+        for (PendingChunk pendingChunk : pendingChunks.values()) {
+            try {
+                pendingChunk.generated.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the world to be generated", e);
+            }
+        }
+        commitGeneratedChunks(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return the number of loaded chunks that were not committed yet
+     */
+    public int getPendingChunkCount() {
+        return pendingChunks.size();
+    }
+
+    /**
+     * @return the number of chunks that are currently loaded
+     */
+    public int getLoadedChunkCount() {
+        return isAnyChunkLoaded ? maxLoadedChunk - minLoadedChunk + 1 : 0;
+    }
+
+    /**
+     * @return the number of chunks loaded since the manager was created
+     */
+    public long getChunksGenerated() {
+        return chunksGenerated;
+    }
+
+    /**
+     * @return the number of chunks unloaded since the manager was created
+     */
+    public long getChunksEvicted() {
+        return chunksEvicted;
+    }
+
+    /**
+     * private method that creates the objects of a chunk, or starts its data phases if the manager
+     * has a generation executor
+     *
+     * @param chunk the chunk index
+     */
+    private void loadChunk(int chunk) {
+        chunksGenerated++;
+        if (generationExecutor == null) {
+            for (RangeMutator object : objects) {
+                object.createInRange(chunk * chunkWidth, (chunk + 1) * chunkWidth);
+            }
+            return;
+        }
+        PendingChunk pendingChunk = new PendingChunk(chunk, objects.length);
+        pendingChunks.put(chunk, pendingChunk);
+        generationExecutor.execute(() -> generateChunk(pendingChunk));
+    }
+
+    /**
+     * private method that runs the data phases of a chunk. runs on the generation executor.
+     * if the chunk was unloaded in the meantime, its commit phases are discarded.
+     *
+     * @param pendingChunk the chunk
+     */
+    private void generateChunk(PendingChunk pendingChunk) {
+        try {
+            for (int i = 0; i < objects.length && !pendingChunk.isCancelled; i++) {
+                if (objects[i] instanceof RangeGenerator) {
+                    pendingChunk.commits[i] = ((RangeGenerator) objects[i]).generateInRange(
+                            pendingChunk.chunk * chunkWidth, (pendingChunk.chunk + 1) * chunkWidth,
+                            () -> pendingChunk.isCancelled);
+                }
+            }
+        } catch (RuntimeException e) {
+            pendingChunk.generationFailure = e;
+        } finally {
+            pendingChunk.generated.countDown();
+            if (pendingChunk.isCancelled) {
+                discardCommits(pendingChunk);
+            }
+        }
+    }
+
+    /**
+     * private method that discards the commit phases of an unloaded chunk that were not run.
+     * called by both the game thread and the generation thread once the chunk is cancelled and
+     * generated, and discards the commit phases only once.
+     *
+     * @param pendingChunk the chunk
+     */
+    private void discardCommits(PendingChunk pendingChunk) {
+        if (!pendingChunk.isDiscarded.compareAndSet(false, true)) {
+            return;
+        }
+        for (int i = pendingChunk.nextCommit; i < objects.length; i++) {
+            if (pendingChunk.commits[i] != null) {
+                pendingChunk.commits[i].discard();
+            }
+        }
+    }
+
+    /**
+     * private method that commits the objects of the generated chunks, in the order the chunks
+     * were loaded, until the budget is used up. at least one object is committed if any can be.
+     *
+     * @param budgetNanos the time, in nanoseconds, after which no more objects are committed
+     */
+    private void commitGeneratedChunks(long budgetNanos) {
+        long startTime = System.nanoTime();
+        Iterator<PendingChunk> iterator = pendingChunks.values().iterator();
+        while (iterator.hasNext()) {
+            PendingChunk pendingChunk = iterator.next();
+            if (!pendingChunk.isGenerated()) {
+                continue;
+            }
+            if (pendingChunk.generationFailure != null) {
+                throw pendingChunk.generationFailure;
+            }
+            while (pendingChunk.nextCommit < objects.length) {
+                commitObject(pendingChunk, pendingChunk.nextCommit++);
+                if (System.nanoTime() - startTime >= budgetNanos) {
+                    if (pendingChunk.nextCommit == objects.length) {
+                        iterator.remove();
+                    }
+                    return;
+                }
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * private method that runs the commit phase of a single object of a chunk
+     *
+     * @param pendingChunk the chunk
+     * @param objectIndex  the index of the object
+     */
+    private void commitObject(PendingChunk pendingChunk, int objectIndex) {
+        RangeCommit commit = pendingChunk.commits[objectIndex];
+        if (commit != null) {
+            commit.run();
+        } else {
+            objects[objectIndex].createInRange(pendingChunk.chunk * chunkWidth,
+                    (pendingChunk.chunk + 1) * chunkWidth);
+        }
+    }
+
+    /**
+     * private method that removes the objects of a chunk. if the chunk was not committed yet,
+     * only its committed objects are removed, and the rest are never committed: their commit
+     * phases are discarded, now or once they are generated.
+     *
+     * @param chunk the chunk index
+     */
+    private void unloadChunk(int chunk) {
+        chunksEvicted++;
+        int committedObjects = objects.length;
+        PendingChunk pendingChunk = pendingChunks.remove(chunk);
+        if (pendingChunk != null) {
+            pendingChunk.isCancelled = true;
+            committedObjects = pendingChunk.nextCommit;
+            if (pendingChunk.isGenerated()) {
+                discardCommits(pendingChunk);
+            }
+        }
+        for (int i = 0; i < committedObjects; i++) {
+            objects[i].removeInRange(chunk * chunkWidth, (chunk + 1) * chunkWidth);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package pepse.world.daynight;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
+import danogl.components.FloatTransition;
 import danogl.components.Transition;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
@@ -61,12 +62,12 @@ public class Night {
      *                    fully transparent to fully black
      */
     private static void setNightTransition(GameObject night, float cycleLength) {
-        new Transition<>(
+        new FloatTransition(
                 night,
                 night.renderer()::setOpaqueness,
                 INITIAL_TRANSITION_VALUE,
                 MIDNIGHT_OPACITY,
-                Transition.CUBIC_INTERPOLATOR_FLOAT,
+                FloatTransition.CUBIC_INTERPOLATOR,
                 cycleLength / TWO,
                 Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
                 null);
@@ -3,12 +3,12 @@ package pepse.world.daynight;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
+import danogl.components.FloatTransition;
 import danogl.components.Transition;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.util.Vector2;
 
 import java.awt.*;
-import java.util.function.Consumer;
 
 /**
  * The Sun class is a class for creating a sun object in the game
@@ -77,14 +77,14 @@ public class Sun {
      * @param windowDimensions A Vector2 object representing the dimensions of the game window.
      */
     private static void setSunTransition(GameObject sun, float cycleLength, Vector2 windowDimensions) {
-        Consumer<Float> setSunPosition = getSunTransitionFunction(sun, windowDimensions);
+        FloatTransition.FloatConsumer setSunPosition = getSunTransitionFunction(sun, windowDimensions);
 
-        new Transition<>(
+        new FloatTransition(
                 sun,
                 setSunPosition,
                 INITIAL_DEGREE_VALUE,
                 FINAL_DEGREE_VALUE,
-                Transition.LINEAR_INTERPOLATOR_FLOAT,
+                FloatTransition.LINEAR_INTERPOLATOR,
                 cycleLength,
                 Transition.TransitionType.TRANSITION_LOOP,
                 null);
@@ -95,14 +95,15 @@ public class Sun {
      *
      * @param sun              the sun object
      * @param windowDimensions A Vector2 object representing the dimensions of the game window.
-     * @return Consumer<Float> function of the sun elliptic movement
+     * @return FloatConsumer function of the sun elliptic movement
      */
-    private static Consumer<Float> getSunTransitionFunction(GameObject sun, Vector2 windowDimensions) {
+    private static FloatTransition.FloatConsumer getSunTransitionFunction(GameObject sun,
+                                                                          Vector2 windowDimensions) {
         return angleInSky -> {
             double angleInRadians = Math.toRadians(angleInSky);
-            sun.setCenter(
-                    new Vector2((float) Math.sin(angleInRadians) * A_RADIUS + (windowDimensions.x() / TWO),
-                            (float) Math.cos(angleInRadians) * B_RADIUS + (windowDimensions.y() / TWO)));
+            sun.transform().setCenter(
+                    (float) Math.sin(angleInRadians) * A_RADIUS + (windowDimensions.x() / TWO),
+                    (float) Math.cos(angleInRadians) * B_RADIUS + (windowDimensions.y() / TWO));
         };
     }
 
@@ -22,6 +22,10 @@ public class SunHalo {
      * Constance representing the sun halo size
      */
     private static final int SUN_HALO_SIZE = 230;
+    /**
+     * Constance representing the number two
+     */
+    private static final float TWO = 2;
 
     /**
      * this method creates the sun halo game object. and attach it to track the center the sun object.
@@ -52,7 +56,9 @@ public class SunHalo {
      * @param sun     the sun object
      */
     private static void setSanHaloTransition(GameObject sunHalo, GameObject sun) {
-        Component setSanHaloCenter = deltaTime -> sunHalo.setCenter(sun.getCenter());
+        Component setSanHaloCenter = deltaTime -> sunHalo.transform().setCenter(
+                sun.getTopLeftCorner().x() + sun.getDimensions().x() / TWO,
+                sun.getTopLeftCorner().y() + sun.getDimensions().y() / TWO);
         sunHalo.addComponent(setSanHaloCenter);
     }
 
@@ -0,0 +1,327 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.gui.rendering.Camera;
+import danogl.gui.rendering.Renderable;
+import danogl.util.MutableVector2;
+import danogl.util.Vector2;
+import pepse.world.Block;
+import pepse.world.GroundHeightFunction;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * The FallingLeaves class is a particle system for the leaves that fall from the trees.
+ * a falling leaf is not a game object: its position, phases and fall start time are kept in
+ * parallel primitive arrays, it stops on the ground by looking up the ground height instead of
+ * colliding with it, and all falling leaves are drawn in a single pass.
+ * the bounds of the particle system are the bounds of its leaves, so it is culled like any other
+ * object when none of its leaves is in the camera's view.
+ */
+public class FallingLeaves extends GameObject {
+
+    /**
+     * Constance representing the falling leaves tag
+     */
+    private static final String FALLING_LEAVES_TAG = "fallingLeaves";
+    /**
+     * Constance representing the time, in seconds, a leaf falls and fades out until it disappears
+     */
+    static final float FADEOUT_TIME = 10;
+    /**
+     * Constance representing the leaf initial velocity in the x direction
+     */
+    private static final float LEAF_INITIAL_VELOCITY_X = 30;
+    /**
+     * Constance representing the leaf velocity in the y direction
+     */
+    private static final float LEAF_Y_VELOCITY = 50;
+    /**
+     * Constance representing the leaf final velocity in the x direction
+     */
+    private static final float LEAF_FINAL_VELOCITY_X = -30;
+    /**
+     * Constance representing the leaf falling cycle length
+     */
+    private static final float FALLING_CYCLE_LENGTH = 2;
+    /**
+     * Constance representing the distance a swaying leaf may reach beyond its box
+     */
+    private static final float LEAF_SWAY_MARGIN = Leaf.SIZE / 4;
+    /**
+     * Constance representing the initial capacity of the particle arrays
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * the x-coordinate of the top left corner of the falling leaf, at its full width
+     */
+    private float[] xs;
+    /**
+     * the y-coordinate of the top left corner of the falling leaf
+     */
+    private float[] ys;
+    /**
+     * the phase, in seconds, of the leaf sway angle
+     */
+    private float[] swayPhases;
+    /**
+     * the phase, in seconds, of the leaf width
+     */
+    private float[] sizePhases;
+    /**
+     * the clock time the leaf started falling
+     */
+    private double[] fallStartTimes;
+    /**
+     * the height of the ground below the leaf
+     */
+    private float[] groundYs;
+    /**
+     * the index of the ground column the ground height was looked up for
+     */
+    private int[] groundColumns;
+    /**
+     * whether the leaf has reached the ground
+     */
+    private boolean[] landed;
+    private int leafCount;
+    /**
+     * the particles clock, in seconds since the particle system was created. a double, so that it
+     * keeps its precision however long the game runs
+     */
+    private double clock;
+
+    private final GroundHeightFunction groundHeightAtX;
+    private final MutableVector2 renderCorner = new MutableVector2();
+    private final MutableVector2 renderDimensions = new MutableVector2();
+
+    /**
+     * this method creates the falling leaves particle system and adds it to the game.
+     *
+     * @param gameObjects    the game objects collection
+     * @param layer          an integer representing the layer that the falling leaves are drawn in
+     * @param leafRender     the renderable of a leaf
+     * @param groundHeightAt Terrain function that calculates the ground height
+     * @return the falling leaves particle system
+     */
+    public static FallingLeaves create(GameObjectCollection gameObjects, int layer, Renderable leafRender,
+                                       GroundHeightFunction groundHeightAt) {
+        FallingLeaves fallingLeaves = new FallingLeaves(leafRender, groundHeightAt);
+        gameObjects.addGameObject(fallingLeaves, layer);
+        return fallingLeaves;
+    }
+
+    /**
+     * FallingLeaves Constructor.
+     *
+     * @param leafRender     the renderable of a leaf
+     * @param groundHeightAt Terrain function that calculates the ground height
+     */
+    private FallingLeaves(Renderable leafRender, GroundHeightFunction groundHeightAt) {
+        super(Vector2.ZERO, Vector2.ZERO, leafRender);
+        setTag(FALLING_LEAVES_TAG);
+        this.groundHeightAtX = groundHeightAt;
+        this.xs = new float[INITIAL_CAPACITY];
+        this.ys = new float[INITIAL_CAPACITY];
+        this.swayPhases = new float[INITIAL_CAPACITY];
+        this.sizePhases = new float[INITIAL_CAPACITY];
+        this.fallStartTimes = new double[INITIAL_CAPACITY];
+        this.groundYs = new float[INITIAL_CAPACITY];
+        this.groundColumns = new int[INITIAL_CAPACITY];
+        this.landed = new boolean[INITIAL_CAPACITY];
+    }
+
+    /**
+     * this method starts a falling leaf
+     *
+     * @param x         the x-coordinate of the leaf top left corner, at its full width
+     * @param y         the y-coordinate of the leaf top left corner
+     * @param swayTime  the time, in seconds, of the leaf sway transition, so the leaf keeps swaying
+     *                  from the angle it had on the tree
+     * @param sizeTime  the time, in seconds, of the leaf width transition
+     */
+    public void addLeaf(float x, float y, float swayTime, float sizeTime) {
+        if (leafCount == xs.length) {
+            grow();
+        }
+        int i = leafCount++;
+        xs[i] = x;
+        ys[i] = y;
+        swayPhases[i] = LeafAnimator.cycleTime(swayTime - clock);
+        sizePhases[i] = LeafAnimator.cycleTime(sizeTime - clock);
+        fallStartTimes[i] = clock;
+        landed[i] = false;
+        lookUpGround(i);
+    }
+
+    /**
+     * @return the number of leaves that are falling or lie on the ground
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * this method moves all falling leaves, stops the leaves that reached the ground, removes
+     * the leaves that faded out, and sets the bounds of the particle system to the bounds of the
+     * remaining leaves
+     *
+     * @param deltaTime The time elapsed, in seconds, since the last frame.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        clock += deltaTime;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        int i = 0;
+        while (i < leafCount) {
+            float fallingTime = (float) (clock - fallStartTimes[i]);
+            if (fallingTime >= FADEOUT_TIME) {
+                removeLeaf(i);
+                continue;
+            }
+            if (!landed[i]) {
+                moveLeaf(i, fallingTime, deltaTime);
+            }
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+            i++;
+        }
+        if (leafCount == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+        // the bounds cover every leaf, so the system is culled only when no leaf is in view
+        transform().setTopLeftCorner(minX - LEAF_SWAY_MARGIN, minY - LEAF_SWAY_MARGIN);
+        transform().setDimensions(maxX - minX + Leaf.SIZE + 2 * LEAF_SWAY_MARGIN,
+                maxY - minY + Leaf.SIZE + 2 * LEAF_SWAY_MARGIN);
+    }
+
+    /**
+     * this method draws all falling leaves that are in the camera's view, in a single pass.
+     * the leaves are in world coordinates, so like GameObject.render, it translates them to screen
+     * coordinates.
+     *
+     * @param g      The graphics objects passed to GameManager.render.
+     * @param camera The active camera
+     */
+    @Override
+    public void render(Graphics2D g, Camera camera) {
+        Renderable leafRender = renderer().getRenderable();
+        float viewX = 0, viewY = 0, viewWidth = Float.MAX_VALUE, viewHeight = Float.MAX_VALUE;
+        float factorX = 1, factorY = 1;
+        if (camera != null) {
+            viewX = camera.getTopLeftCorner().x();
+            viewY = camera.getTopLeftCorner().y();
+            viewWidth = camera.getDimensions().x();
+            viewHeight = camera.getDimensions().y();
+            factorX = camera.windowDimensions().x() / viewWidth;
+            factorY = camera.windowDimensions().y() / viewHeight;
+        }
+        for (int i = 0; i < leafCount; i++) {
+            // a swaying leaf stays within a square around its box
+            if (xs[i] + Leaf.SIZE < viewX || xs[i] > viewX + viewWidth ||
+                    ys[i] + Leaf.SIZE < viewY || ys[i] > viewY + viewHeight) {
+                continue;
+            }
+            float width = LeafAnimator.leafWidth(LeafAnimator.cycleTime(clock + sizePhases[i]));
+            renderCorner.setXY((xs[i] + (Leaf.SIZE - width) / 2 - viewX) * factorX,
+                    (ys[i] - viewY) * factorY);
+            renderDimensions.setXY(width * factorX, Leaf.SIZE * factorY);
+            leafRender.render(g, renderCorner, renderDimensions,
+                    LeafAnimator.swayAngle(LeafAnimator.cycleTime(clock + swayPhases[i])), false, false,
+                    1 - (clock - fallStartTimes[i]) / FADEOUT_TIME);
+        }
+    }
+
+    /**
+     * the falling leaves do not collide with other objects
+     *
+     * @param other the item the object collide with
+     * @return false
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+
+    /**
+     * private method that moves a falling leaf, and stops it if it reached the ground
+     *
+     * @param i           the index of the leaf
+     * @param fallingTime the time, in seconds, since the leaf started falling
+     * @param deltaTime   the time elapsed, in seconds, since the last frame
+     */
+    private void moveLeaf(int i, float fallingTime, float deltaTime) {
+        float bottom = ys[i] + Leaf.SIZE;
+        float dx = (LEAF_INITIAL_VELOCITY_X + (LEAF_FINAL_VELOCITY_X - LEAF_INITIAL_VELOCITY_X) *
+                LeafAnimator.backAndForth(fallingTime, FALLING_CYCLE_LENGTH)) * deltaTime;
+        xs[i] += dx;
+        ys[i] += LEAF_Y_VELOCITY * deltaTime;
+        if (Math.floorDiv((int) Math.floor(xs[i]), Block.SIZE) != groundColumns[i]) {
+            lookUpGround(i);
+        }
+        if (ys[i] + Leaf.SIZE < groundYs[i]) {
+            return;
+        }
+        landed[i] = true;
+        if (bottom <= groundYs[i]) {
+            // the leaf reached the top of the ground
+            ys[i] = groundYs[i] - Leaf.SIZE;
+        } else {
+            // the leaf reached the side of a higher column, and stays beside it
+            xs[i] -= dx;
+            ys[i] = bottom - Leaf.SIZE;
+        }
+    }
+
+    /**
+     * private method that looks up the height of the ground below a leaf: the top of the highest
+     * of the two columns the leaf may span
+     *
+     * @param i the index of the leaf
+     */
+    private void lookUpGround(int i) {
+        int column = Math.floorDiv((int) Math.floor(xs[i]), Block.SIZE);
+        groundColumns[i] = column;
+        groundYs[i] = Math.min(groundHeightAtX.groundHeightAt((float) column * Block.SIZE),
+                groundHeightAtX.groundHeightAt((float) (column + 1) * Block.SIZE));
+    }
+
+    /**
+     * private method that removes a leaf, by moving the last leaf to its index
+     *
+     * @param i the index of the leaf
+     */
+    private void removeLeaf(int i) {
+        int last = --leafCount;
+        xs[i] = xs[last];
+        ys[i] = ys[last];
+        swayPhases[i] = swayPhases[last];
+        sizePhases[i] = sizePhases[last];
+        fallStartTimes[i] = fallStartTimes[last];
+        groundYs[i] = groundYs[last];
+        groundColumns[i] = groundColumns[last];
+        landed[i] = landed[last];
+    }
+
+    /**
+     * private method that doubles the capacity of the particle arrays
+     */
+    private void grow() {
+        int capacity = xs.length * 2;
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        swayPhases = Arrays.copyOf(swayPhases, capacity);
+        sizePhases = Arrays.copyOf(sizePhases, capacity);
+        fallStartTimes = Arrays.copyOf(fallStartTimes, capacity);
+        groundYs = Arrays.copyOf(groundYs, capacity);
+        groundColumns = Arrays.copyOf(groundColumns, capacity);
+        landed = Arrays.copyOf(landed, capacity);
+    }
+}
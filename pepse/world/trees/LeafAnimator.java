@@ -0,0 +1,322 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The LeafAnimator class is a class for animating all leaves in the game from a single shared clock.
+ * the sway angle, the width and the opacity of a leaf are functions of the clock and the leaf's
+ * phase, and are evaluated for all leaves in one pass over primitive arrays, instead of by
+ * scheduled tasks and transitions on every leaf.
+ * a leaf that falls is hidden on its tree, and falls as a particle of the FallingLeaves
+ * until it is reborn.
+ */
+public class LeafAnimator extends GameObject {
+
+    /**
+     * Constance representing the leaf animator tag
+     */
+    private static final String LEAF_ANIMATOR_TAG = "leafAnimator";
+    /**
+     * Constance representing the initial leaf degree
+     */
+    private static final float INITIAL_LEAF_DEGREE = 180;
+    /**
+     * Constance representing the final leaf degree
+     */
+    private static final float FINAL_LEAF_DEGREE = 190;
+    /**
+     * Constance representing the leaf movement cycle length
+     */
+    private static final float MOVEMENT_CYCLE_LENGTH = 1;
+    /**
+     * Constance representing the period of the leaf transitions, back and forth
+     */
+    private static final double TRANSITION_PERIOD = 2 * MOVEMENT_CYCLE_LENGTH;
+    /**
+     * Constance representing the minimum leaf size
+     */
+    private static final float MIN_LEAF_SIZE = 20;
+    /**
+     * Constance representing the random maximum value
+     */
+    private static final int RANDOM_BOND = 200;
+    /**
+     * Constance representing the leaf reborn random bond
+     */
+    private static final int REBORN_RANDOM_BOND = 5;
+    /**
+     * Constance representing the leaf fade in time
+     */
+    private static final float FADE_IN_TIME = 3;
+    /**
+     * Constance representing the initial capacity of the leaf arrays
+     */
+    private static final int INITIAL_CAPACITY = 256;
+    /**
+     * Constance representing the state of a leaf that hangs on its tree
+     */
+    private static final byte ATTACHED = 0;
+    /**
+     * Constance representing the state of a leaf whose particle falls and fades out
+     */
+    private static final byte FALLING = 1;
+    /**
+     * Constance representing the state of a faded out leaf that waits to be reborn
+     */
+    private static final byte WAITING = 2;
+
+    /**
+     * random object
+     */
+    private final Random rand = new Random();
+    /**
+     * the particle system the falling leaves are moved to
+     */
+    private final FallingLeaves fallingLeaves;
+
+    /**
+     * the animated leaves. the arrays below hold the animation state of the leaf in the same index.
+     */
+    private Leaf[] leaves;
+    /**
+     * the phase, in seconds, of the leaf sway angle
+     */
+    private float[] swayPhases;
+    /**
+     * the phase, in seconds, of the leaf width
+     */
+    private float[] sizePhases;
+    /**
+     * the state of the leaf, one of ATTACHED, FALLING and WAITING
+     */
+    private byte[] states;
+    /**
+     * the clock time the leaf entered its state
+     */
+    private double[] stateStartTimes;
+    /**
+     * the clock time the leaf leaves its state
+     */
+    private double[] stateEndTimes;
+    private int leafCount;
+    /**
+     * the shared clock, in seconds since the animator was created. a double, so that it keeps
+     * its precision however long the game runs
+     */
+    private double clock;
+
+    /**
+     * this method creates the leaf animator and adds it to the game, so it is updated every frame.
+     *
+     * @param gameObjects   the game objects collection
+     * @param layer         an integer representing the layer that the animator should be added to.
+     *                      the animator has no size, so it may be added to any layer.
+     * @param fallingLeaves the particle system the falling leaves are moved to
+     * @return the leaf animator
+     */
+    public static LeafAnimator create(GameObjectCollection gameObjects, int layer,
+                                      FallingLeaves fallingLeaves) {
+        LeafAnimator leafAnimator = new LeafAnimator(fallingLeaves);
+        gameObjects.addGameObject(leafAnimator, layer);
+        return leafAnimator;
+    }
+
+    /**
+     * LeafAnimator Constructor.
+     *
+     * @param fallingLeaves the particle system the falling leaves are moved to
+     */
+    private LeafAnimator(FallingLeaves fallingLeaves) {
+        super(Vector2.ZERO, Vector2.ZERO, null);
+        setTag(LEAF_ANIMATOR_TAG);
+        this.fallingLeaves = fallingLeaves;
+        this.leaves = new Leaf[INITIAL_CAPACITY];
+        this.swayPhases = new float[INITIAL_CAPACITY];
+        this.sizePhases = new float[INITIAL_CAPACITY];
+        this.states = new byte[INITIAL_CAPACITY];
+        this.stateStartTimes = new double[INITIAL_CAPACITY];
+        this.stateEndTimes = new double[INITIAL_CAPACITY];
+    }
+
+    /**
+     * this method starts animating a leaf that was added to the game. the leaf hangs on its tree,
+     * and starts falling at a random time.
+     *
+     * @param leaf the leaf to animate
+     */
+    public void addLeaf(Leaf leaf) {
+        if (leafCount == leaves.length) {
+            grow();
+        }
+        int index = leafCount++;
+        leaves[index] = leaf;
+        leaf.animatorIndex = index;
+        swayPhases[index] = rand.nextFloat() * 2 * MOVEMENT_CYCLE_LENGTH;
+        sizePhases[index] = rand.nextFloat() * 2 * MOVEMENT_CYCLE_LENGTH;
+        states[index] = ATTACHED;
+        // a new leaf is fully opaque, as if it finished fading in
+        stateStartTimes[index] = clock - FADE_IN_TIME;
+        stateEndTimes[index] = clock + rand.nextInt(RANDOM_BOND);
+    }
+
+    /**
+     * this method stops animating a leaf that is removed from the game
+     *
+     * @param leaf the leaf to stop animating
+     */
+    public void removeLeaf(Leaf leaf) {
+        int index = leaf.animatorIndex;
+        if (index < 0 || index >= leafCount || leaves[index] != leaf) {
+            return;
+        }
+        int last = --leafCount;
+        leaves[index] = leaves[last];
+        swayPhases[index] = swayPhases[last];
+        sizePhases[index] = sizePhases[last];
+        states[index] = states[last];
+        stateStartTimes[index] = stateStartTimes[last];
+        stateEndTimes[index] = stateEndTimes[last];
+        leaves[index].animatorIndex = index;
+        leaves[last] = null;
+        leaf.animatorIndex = -1;
+    }
+
+    /**
+     * @return the number of animated leaves
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * this method advances the clock and animates all leaves
+     *
+     * @param deltaTime The time elapsed, in seconds, since the last frame.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        clock += deltaTime;
+        for (int i = 0; i < leafCount; i++) {
+            if (clock >= stateEndTimes[i]) {
+                nextState(i);
+            }
+            if (states[i] != ATTACHED) {
+                continue;
+            }
+            Leaf leaf = leaves[i];
+            float fadeIn = (float) ((clock - stateStartTimes[i]) / FADE_IN_TIME);
+            leaf.renderer().setOpaqueness(fadeIn < 1 ? fadeIn : 1);
+            leaf.renderer().setRenderableAngle(swayAngle(cycleTime(clock + swayPhases[i])));
+            leaf.transform().setDimensions(leafWidth(cycleTime(clock + sizePhases[i])), Leaf.SIZE);
+        }
+    }
+
+    /**
+     * the leaves do not collide with other objects
+     *
+     * @param other the item the object collide with
+     * @return false
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+
+    /**
+     * private method that moves a leaf to its next state: a hanging leaf starts falling, a falling
+     * leaf waits after it faded out, and a waiting leaf is reborn on its tree.
+     *
+     * @param i the index of the leaf
+     */
+    private void nextState(int i) {
+        Leaf leaf = leaves[i];
+        if (states[i] == ATTACHED) {
+            Vector2 corner = leaf.getTopLeftCorner();
+            fallingLeaves.addLeaf(corner.x() + (leaf.getDimensions().x() - Leaf.SIZE) / 2, corner.y(),
+                    cycleTime(clock + swayPhases[i]), cycleTime(clock + sizePhases[i]));
+            leaf.renderer().setOpaqueness(0);
+            setState(i, FALLING, FallingLeaves.FADEOUT_TIME);
+        } else if (states[i] == FALLING) {
+            setState(i, WAITING, rand.nextInt(REBORN_RANDOM_BOND));
+        } else {
+            setState(i, ATTACHED, rand.nextInt(RANDOM_BOND));
+        }
+    }
+
+    /**
+     * private method that moves a leaf to a new state
+     *
+     * @param i        the index of the leaf
+     * @param state    the new state
+     * @param duration the time, in seconds, the leaf stays in the new state
+     */
+    private void setState(int i, byte state, float duration) {
+        states[i] = state;
+        stateStartTimes[i] = clock;
+        stateEndTimes[i] = clock + duration;
+    }
+
+    /**
+     * this method reduces a time of the leaf transitions to a single period of them, so that it
+     * keeps its precision as a float however long the game runs
+     *
+     * @param time the time, in seconds, of a leaf transition
+     * @return the same point of the transition, as a time from 0 to the period of the transition
+     */
+    static float cycleTime(double time) {
+        double cycleTime = time % TRANSITION_PERIOD;
+        return (float) (cycleTime < 0 ? cycleTime + TRANSITION_PERIOD : cycleTime);
+    }
+
+    /**
+     * this method computes the sway angle of a leaf
+     *
+     * @param time the time, in seconds, of the leaf sway transition
+     * @return the leaf angle, in degrees
+     */
+    static float swayAngle(float time) {
+        return INITIAL_LEAF_DEGREE + (FINAL_LEAF_DEGREE - INITIAL_LEAF_DEGREE) *
+                backAndForth(time, MOVEMENT_CYCLE_LENGTH);
+    }
+
+    /**
+     * this method computes the width of a leaf
+     *
+     * @param time the time, in seconds, of the leaf width transition
+     * @return the leaf width
+     */
+    static float leafWidth(float time) {
+        return Leaf.SIZE + (MIN_LEAF_SIZE - Leaf.SIZE) * backAndForth(time, MOVEMENT_CYCLE_LENGTH);
+    }
+
+    /**
+     * this method computes a linear back and forth transition
+     *
+     * @param time        the time, in seconds, since the transition started
+     * @param cycleLength the time, in seconds, of a single way of the transition
+     * @return the transition value, from 0 to 1 and back
+     */
+    static float backAndForth(float time, float cycleLength) {
+        float t = (time / cycleLength) % 2;
+        return t <= 1 ? t : 2 - t;
+    }
+
+    /**
+     * private method that doubles the capacity of the leaf arrays
+     */
+    private void grow() {
+        int capacity = leaves.length * 2;
+        leaves = Arrays.copyOf(leaves, capacity);
+        swayPhases = Arrays.copyOf(swayPhases, capacity);
+        sizePhases = Arrays.copyOf(sizePhases, capacity);
+        states = Arrays.copyOf(states, capacity);
+        stateStartTimes = Arrays.copyOf(stateStartTimes, capacity);
+        stateEndTimes = Arrays.copyOf(stateEndTimes, capacity);
+    }
+}
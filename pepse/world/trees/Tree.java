@@ -4,18 +4,24 @@ import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.ImageReader;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.Renderable;
+import danogl.gui.rendering.SpriteCache;
 import danogl.util.Vector2;
+import pepse.util.PositionRandom;
 import pepse.world.Block;
-import pepse.world.RangeMutator;
+import pepse.world.GroundHeightFunction;
+import pepse.world.GameObjectPool;
+import pepse.world.RangeCommit;
+import pepse.world.RangeGenerator;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.function.BooleanSupplier;
 
 /**
  * The Tree class is a class for creating all trees in the game.
  */
-public class Tree extends GameObject implements RangeMutator {
+public class Tree extends GameObject implements RangeGenerator {
 
     /**
      * Constance representing the stump tag
@@ -41,6 +47,14 @@ public class Tree extends GameObject implements RangeMutator {
      * Constance representing the leaf probability to create
      */
     private static final double LEAF_PROBABILITY = 0.7;
+    /**
+     * Constance representing the feature id of the trees, for the position random
+     */
+    private static final int TREE_FEATURE = 1;
+    /**
+     * Constance representing the feature id of the leaves, for the position random
+     */
+    private static final int LEAF_FEATURE = 2;
     /**
      * Constance representing the number 2 in float
      */
@@ -53,17 +67,58 @@ public class Tree extends GameObject implements RangeMutator {
      * Constance representing the leaf image path
      */
     private static final String ASSETS_LEAF_PNG = "assets/tiles/cotton_green.png";
+    /**
+     * Constance representing the maximal number of removed leaves kept for reuse
+     */
+    private static final int MAX_POOLED_LEAVES = 1024;
+    /**
+     * Constance representing the maximal number of removed trunks kept for reuse
+     */
+    private static final int MAX_POOLED_TRUNKS = 32;
+    /**
+     * Constance representing the memory budget, in bytes, of the resized and rotated leaf and trunk images
+     */
+    private static final long SPRITE_CACHE_BUDGET = 4L * 1024 * 1024;
+
+    /**
+     * the computed layout of a single tree, before its objects are created
+     */
+    private static class TreeLayout {
+        private final float trunkY;
+        private final List<Vector2> leafCorners;
+
+        private TreeLayout(float trunkY, List<Vector2> leafCorners) {
+            this.trunkY = trunkY;
+            this.leafCorners = leafCorners;
+        }
+    }
 
     /**
      * map contains all trees that were created in a specific x-coordinate
      */
     private final Map<Integer, ArrayList<GameObject>> allTreesMap;
     /**
-     * random object
+     * the seed of the position random
+     */
+    private final int seed;
+    /**
+     * the removed leaves, kept for reuse
      */
-    private final Random rand;
+    private final GameObjectPool<Leaf> leafPool;
+    /**
+     * the removed trunks, kept for reuse
+     */
+    private final GameObjectPool<GameObject> trunkPool;
+    /**
+     * the animator of the leaves of all trees
+     */
+    private final LeafAnimator leafAnimator;
+    /**
+     * the particle system of the falling leaves of all trees
+     */
+    private final FallingLeaves fallingLeaves;
 
-    private final Function<Float, Float> groundHeightAtX;
+    private final GroundHeightFunction groundHeightAtX;
     private final GameObjectCollection gameObjects;
     private final int treeLayer;
     private final int leafLayer;
@@ -81,7 +136,7 @@ public class Tree extends GameObject implements RangeMutator {
      * @param mySeed         an integer for the random object
      * @param imageReader    ImageReader object
      */
-    public Tree(GameObjectCollection gameObjects, Function<Float, Float> groundHeightAt, int TreeLayer,
+    public Tree(GameObjectCollection gameObjects, GroundHeightFunction groundHeightAt, int TreeLayer,
                 int leafLayer, int mySeed, ImageReader imageReader) {
         super(Vector2.ZERO, Vector2.ZERO, null);
         this.gameObjects = gameObjects;
@@ -89,52 +144,102 @@ public class Tree extends GameObject implements RangeMutator {
         this.treeLayer = TreeLayer;
         this.leafLayer = leafLayer;
         this.allTreesMap = new HashMap<>();
-        this.rand = new Random(mySeed);
-        this.trunkRender = imageReader.readImage(ASSETS_TRUNK_PNG, false);
-        this.leafRender = imageReader.readImage(ASSETS_LEAF_PNG, false);
+        this.seed = mySeed;
+        this.leafPool = new GameObjectPool<>(MAX_POOLED_LEAVES);
+        this.trunkPool = new GameObjectPool<>(MAX_POOLED_TRUNKS);
+        // the renderables of the image reader are shared with every other reader of the images, so
+        // the trees draw the images through renderables of their own
+        ImageRenderable trunkImage =
+                new ImageRenderable(imageReader.readImage(ASSETS_TRUNK_PNG, false).getImage());
+        ImageRenderable leafImage =
+                new ImageRenderable(imageReader.readImage(ASSETS_LEAF_PNG, false).getImage());
+        // every leaf is drawn resized and rotated every frame, so the few sizes and angles it takes
+        // are drawn once into cached images, and then copied
+        SpriteCache spriteCache = new SpriteCache(SPRITE_CACHE_BUDGET);
+        trunkImage.setSpriteCache(spriteCache);
+        leafImage.setSpriteCache(spriteCache);
+        this.trunkRender = trunkImage;
+        this.leafRender = leafImage;
+        this.fallingLeaves = FallingLeaves.create(gameObjects, leafLayer, leafRender, groundHeightAt);
+        this.leafAnimator = LeafAnimator.create(gameObjects, leafLayer, fallingLeaves);
     }
 
     /**
-     * this method is responsible for creating trees in the range (miniX, maxX), according to the
+     * this method is responsible for computing the trees in the range (miniX, maxX), according to the
      * probability that decide whether the tree will be created.
+     * the trees of a column depend only on the seed and the column, so a removed column is
+     * created again exactly as it was.
      *
-     * @param minX minimum x-coordinate to create the trees
-     * @param maxX maximum x-coordinate to create the trees
+     * @param minX        minimum x-coordinate to create the trees
+     * @param maxX        maximum x-coordinate to create the trees
+     * @param isCancelled unused, since computing the trees of a range is cheap
+     * @return the commit phase, that plants the computed trees
      */
-    public void createInRange(int minX, int maxX) {
+    @Override
+    public RangeCommit generateInRange(int minX, int maxX, BooleanSupplier isCancelled) {
         int newMinX = (int) Math.ceil((float) minX / Block.SIZE) * Block.SIZE;
         int newMaxX = (int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
 
+        Map<Integer, TreeLayout> treeLayouts = new TreeMap<>();
         for (int col = newMinX; col < newMaxX; col += Block.SIZE) {
-            ArrayList<GameObject> singleTreeMap = new ArrayList<>();
-            if (rand.nextDouble() <= TREE_PROBABILITY) {
-                plantTree(col, singleTreeMap);
-                allTreesMap.put(col, singleTreeMap);
+            if (PositionRandom.nextDouble(seed, col, TREE_FEATURE) <= TREE_PROBABILITY) {
+                treeLayouts.put(col, layoutTree(col));
             }
         }
+        return () -> {
+            for (Map.Entry<Integer, TreeLayout> entry : treeLayouts.entrySet()) {
+                if (!allTreesMap.containsKey(entry.getKey())) {
+                    allTreesMap.put(entry.getKey(), plantTree(entry.getKey(), entry.getValue()));
+                }
+            }
+        };
+    }
+
+    /**
+     * private method that computes the layout of a single tree in the given x-coordinate
+     *
+     * @param treeLocationX the x-coordinate location of the tree
+     * @return the tree layout
+     */
+    private TreeLayout layoutTree(float treeLocationX) {
+        float y = groundHeightAtX.groundHeightAt(treeLocationX);
+        return new TreeLayout(y - TREE_HEIGHT, layoutLeaves(treeLocationX, y - TREE_HEIGHT));
     }
 
     /**
      * private method that create a single tree in the given x-coordinate
      *
      * @param treeLocationX the x-coordinate location of the tree
-     * @param singleTreeMap the tree objects map
+     * @param treeLayout    the tree layout
+     * @return the tree objects
      */
-    private void plantTree(float treeLocationX, ArrayList<GameObject> singleTreeMap) {
-        float y = groundHeightAtX.apply(treeLocationX);
-        addTreeTrunkObjectToTree(treeLocationX, y - TREE_HEIGHT, singleTreeMap);
-        addLeafToTree(treeLocationX, y - TREE_HEIGHT, singleTreeMap);
+    private ArrayList<GameObject> plantTree(float treeLocationX, TreeLayout treeLayout) {
+        ArrayList<GameObject> singleTreeMap = new ArrayList<>();
+        addTreeTrunkObjectToTree(treeLocationX, treeLayout.trunkY, singleTreeMap);
+        for (Vector2 leafCorner : treeLayout.leafCorners) {
+            Leaf leaf = leafPool.obtain();
+            if (leaf == null) {
+                leaf = new Leaf(leafCorner, new Vector2(Leaf.SIZE, Leaf.SIZE), leafRender);
+            } else {
+                leaf.reset(leafCorner);
+            }
+            gameObjects.addGameObject(leaf, leafLayer);
+            leafAnimator.addLeaf(leaf);
+            singleTreeMap.add(leaf);
+        }
+        return singleTreeMap;
     }
 
     /**
-     * private method that add all leaves to the planted tree
+     * private method that computes the top left corners of the leaves of a tree
      *
      * @param treeLocationX the x-coordinate location of the tree
      * @param treeLocationY the y-coordinate location of the tree
-     * @param singleTreeMap the tree objects map
+     * @return the leaves top left corners
      */
-    private void addLeafToTree(float treeLocationX, float treeLocationY,
-                               ArrayList<GameObject> singleTreeMap) {
+    private List<Vector2> layoutLeaves(float treeLocationX, float treeLocationY) {
+        List<Vector2> leafCorners = new ArrayList<>();
+        int leafIndex = 0;
         float numOfLeafOnTheRightOrLeft = (float) (Math.floor(NUM_OF_LEAF_IN_ROW / TWO_F) * Leaf.SIZE);
         float minX = treeLocationX - numOfLeafOnTheRightOrLeft;
         float maxX = treeLocationX + numOfLeafOnTheRightOrLeft + Leaf.SIZE;
@@ -145,43 +250,65 @@ public class Tree extends GameObject implements RangeMutator {
 
         for (float leafX = minX; leafX < maxX; leafX += Leaf.SIZE) {
             for (float leafY = minY; leafY < maxY; leafY += Leaf.SIZE) {
-                if (rand.nextDouble() < LEAF_PROBABILITY) {
-                    GameObject leaf = new Leaf(
-                            new Vector2(leafX, leafY), new Vector2(Leaf.SIZE, Leaf.SIZE), leafRender);
-                    gameObjects.addGameObject(leaf, leafLayer);
-                    singleTreeMap.add(leaf);
+                if (PositionRandom.nextDouble(seed, (long) treeLocationX, LEAF_FEATURE, leafIndex++)
+                        < LEAF_PROBABILITY) {
+                    leafCorners.add(new Vector2(leafX, leafY));
                 }
             }
         }
+        return leafCorners;
     }
 
     /**
-     * this method remove all trees in a given range (minX,maxX)
+     * this method remove all trees in a given range (minX,maxX).
+     * the removed leaves and trunks are kept for reuse by the trees created later.
      *
      * @param minX minimum x-coordinate to remove the trees
      * @param maxX maximum x-coordinate to remove the trees
      */
     public void removeInRange(int minX, int maxX) {
-        float newMinX = (float) Math.ceil((float) minX / Block.SIZE) * Block.SIZE;
-        float newMaxX = (float) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
-
-        for (float col = newMinX; col < newMaxX; col += Block.SIZE) {
-            for (Map.Entry<Integer, ArrayList<GameObject>> entry : allTreesMap.entrySet()) {
-                if (entry.getKey() == col) {
-                    for (GameObject treeObject : entry.getValue()) {
-                        if (treeObject instanceof Leaf) {
-                            gameObjects.removeGameObject(treeObject, leafLayer);
-                        } else {
-                            gameObjects.removeGameObject(treeObject, treeLayer);
-                        }
-                    }
-                    allTreesMap.remove(entry.getKey());
-                    break;
+        int newMinX = (int) Math.ceil((float) minX / Block.SIZE) * Block.SIZE;
+        int newMaxX = (int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE;
+
+        for (int col = newMinX; col < newMaxX; col += Block.SIZE) {
+            ArrayList<GameObject> treeObjects = allTreesMap.remove(col);
+            if (treeObjects == null) {
+                continue;
+            }
+            for (GameObject treeObject : treeObjects) {
+                if (treeObject instanceof Leaf) {
+                    gameObjects.removeGameObject(treeObject, leafLayer);
+                    leafAnimator.removeLeaf((Leaf) treeObject);
+                    leafPool.release((Leaf) treeObject);
+                } else {
+                    gameObjects.removeGameObject(treeObject, treeLayer);
+                    trunkPool.release(treeObject);
                 }
             }
         }
     }
 
+    /**
+     * @return the pool of the removed leaves
+     */
+    public GameObjectPool<Leaf> getLeafPool() {
+        return leafPool;
+    }
+
+    /**
+     * @return the particle system of the falling leaves
+     */
+    public FallingLeaves getFallingLeaves() {
+        return fallingLeaves;
+    }
+
+    /**
+     * @return the pool of the removed trunks
+     */
+    public GameObjectPool<GameObject> getTrunkPool() {
+        return trunkPool;
+    }
+
     /**
      * private method that adds the tree tree trunk to the game
      *
@@ -191,12 +318,19 @@ public class Tree extends GameObject implements RangeMutator {
      */
     private void addTreeTrunkObjectToTree(float treeLocationX, float treeLocationY,
                                           ArrayList<GameObject> singleTreeMap) {
-        GameObject trunk = new GameObject(new Vector2(treeLocationX, treeLocationY),
-                new Vector2(Block.SIZE, TREE_HEIGHT),
-                trunkRender);
-        trunk.physics().preventIntersectionsFromDirection(Vector2.ZERO);
-        trunk.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
-        trunk.setTag(TRUNK_TAG);
+        Vector2 trunkLocation = new Vector2(treeLocationX, treeLocationY);
+        Vector2 trunkDimensions = new Vector2(Block.SIZE, TREE_HEIGHT);
+        GameObject trunk = trunkPool.obtain();
+        if (trunk == null) {
+            trunk = new GameObject(trunkLocation, trunkDimensions, trunkRender);
+            trunk.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+            trunk.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+            trunk.physics().setStatic(true);
+            trunk.setTag(TRUNK_TAG);
+        } else {
+            // the physics properties and the tag are kept by reset
+            trunk.reset(trunkLocation, trunkDimensions, trunkRender);
+        }
         gameObjects.addGameObject(trunk, treeLayer);
         singleTreeMap.add(trunk);
     }
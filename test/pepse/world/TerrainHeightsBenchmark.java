@@ -0,0 +1,164 @@
+package pepse.world;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+
+import java.util.Random;
+
+/**
+ * The TerrainHeightsBenchmark class checks that heightsInRange writes the same heights that
+ * groundHeightAt returns for every column of the range, for ranges that start and end anywhere,
+ * cross chunks and go left of zero, and measures the time of reading the heights of a range
+ * column by column against reading them at once, with the heights cached and not cached.
+ * run with: java -cp &lt;classes&gt; pepse.world.TerrainHeightsBenchmark
+ */
+public class TerrainHeightsBenchmark {
+
+    /**
+     * Constance representing the dimensions of the window
+     */
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1200, 700);
+    /**
+     * Constance representing the seed of the terrain
+     */
+    private static final int SEED = 1234;
+    /**
+     * Constance representing the number of random ranges to check
+     */
+    private static final int CHECKED_RANGES = 2000;
+    /**
+     * Constance representing the width of the measured ranges, about two windows
+     */
+    private static final int MEASURED_RANGE_WIDTH = 2400;
+    /**
+     * Constance representing the number of measured ranges
+     */
+    private static final int MEASURED_RANGES = 20_000;
+
+    /**
+     * runs the checks and the measurements
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        checkAgainstSingleColumns();
+        measure();
+        System.out.println("TerrainHeightsBenchmark passed");
+    }
+
+    /**
+     * checks random ranges of one terrain against the columns of another terrain of the same seed,
+     * so that the heights of the two are cached at different times
+     */
+    private static void checkAgainstSingleColumns() {
+        Terrain bulk = createTerrain();
+        Terrain single = createTerrain();
+        Random random = new Random(1);
+        float[] heights = new float[200];
+        for (int range = 0; range < CHECKED_RANGES; range++) {
+            int minX = random.nextInt(200_000) - 100_000;
+            int maxX = minX + random.nextInt(heights.length * Block.SIZE);
+            int count = bulk.heightsInRange(minX, maxX, heights);
+            int firstX = (int) Math.ceil((float) minX / Block.SIZE) * Block.SIZE;
+            for (int i = 0; i < count; i++) {
+                float x = firstX + i * Block.SIZE;
+                float expected = single.groundHeightAt(x);
+                if (heights[i] != expected) {
+                    throw new AssertionError("range [" + minX + ", " + maxX + "): the height at " + x +
+                            " is " + heights[i] + " instead of " + expected);
+                }
+            }
+            if (count != Math.max(((int) Math.ceil((float) maxX / Block.SIZE) * Block.SIZE - firstX)
+                    / Block.SIZE, 0)) {
+                throw new AssertionError("range [" + minX + ", " + maxX + "): wrong number of columns " + count);
+            }
+        }
+        try {
+            bulk.heightsInRange(0, 10 * Block.SIZE, new float[9]);
+            throw new AssertionError("a short array was accepted");
+        } catch (IllegalArgumentException expected) {
+            // a short array is rejected
+        }
+    }
+
+    /**
+     * measures reading the heights of new ranges, column by column and at once, and reading them
+     * again, once they are cached. every range starts where the previous one ended, as when the
+     * camera moves, so its heights are not cached when it is first read
+     */
+    private static void measure() {
+        float[] heights = new float[MEASURED_RANGE_WIDTH / Block.SIZE + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            Terrain singleTerrain = createTerrain();
+            Terrain bulkTerrain = createTerrain();
+            // the first pass warms up
+            boolean measured = pass == 1;
+            long singleNanos = 0, bulkNanos = 0, cachedSingleNanos = 0, cachedBulkNanos = 0;
+            double checksum = 0;
+            for (int range = 0; range < MEASURED_RANGES; range++) {
+                int minX = range * MEASURED_RANGE_WIDTH;
+                long start = System.nanoTime();
+                checksum += readColumns(singleTerrain, minX, heights);
+                long middle = System.nanoTime();
+                checksum += readRange(bulkTerrain, minX, heights);
+                long end = System.nanoTime();
+                checksum += readColumns(singleTerrain, minX, heights);
+                long cachedMiddle = System.nanoTime();
+                checksum += readRange(bulkTerrain, minX, heights);
+                long cachedEnd = System.nanoTime();
+                singleNanos += middle - start;
+                bulkNanos += end - middle;
+                cachedSingleNanos += cachedMiddle - end;
+                cachedBulkNanos += cachedEnd - cachedMiddle;
+            }
+            if (measured) {
+                System.out.printf("ranges of %d columns (%d): column by column %.2f us, at once %.2f us; " +
+                                "cached: column by column %.2f us, at once %.2f us%n",
+                        heights.length - 1, (long) checksum % 10,
+                        singleNanos / 1e3 / MEASURED_RANGES, bulkNanos / 1e3 / MEASURED_RANGES,
+                        cachedSingleNanos / 1e3 / MEASURED_RANGES, cachedBulkNanos / 1e3 / MEASURED_RANGES);
+            }
+        }
+    }
+
+    /**
+     * reads the heights of a range column by column
+     *
+     * @param terrain the terrain
+     * @param minX    the x-coordinate the range starts at, a multiple of the block size
+     * @param heights the array the heights are written to
+     * @return the sum of the heights
+     */
+    private static double readColumns(Terrain terrain, int minX, float[] heights) {
+        double sum = 0;
+        for (int i = 0; i < heights.length - 1; i++) {
+            heights[i] = terrain.groundHeightAt(minX + i * Block.SIZE);
+            sum += heights[i];
+        }
+        return sum;
+    }
+
+    /**
+     * reads the heights of a range at once
+     *
+     * @param terrain the terrain
+     * @param minX    the x-coordinate the range starts at, a multiple of the block size
+     * @param heights the array the heights are written to
+     * @return the sum of the heights
+     */
+    private static double readRange(Terrain terrain, int minX, float[] heights) {
+        double sum = 0;
+        int count = terrain.heightsInRange(minX, minX + MEASURED_RANGE_WIDTH, heights);
+        for (int i = 0; i < count; i++) {
+            sum += heights[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return a terrain of the benchmark's seed, without blocks
+     */
+    private static Terrain createTerrain() {
+        return new Terrain(new GameObjectCollection(), 0, WINDOW_DIMENSIONS, SEED);
+    }
+}
@@ -0,0 +1,172 @@
+package pepse.world;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.collisions.SweepAndPruneBroadphase;
+import danogl.gui.ImageReader;
+import danogl.util.Vector2;
+import pepse.world.trees.Tree;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The WorldStreamingBenchmark class streams the world of the game around a camera that walks back
+ * and forth and sometimes jumps several chunks away, so that chunks are loaded, unloaded and
+ * cancelled before they are committed, as in the game. it prints the hit rates of the pools of the
+ * leaves, the trunks, the foxes and the baked ground images, and the bytes allocated per frame by
+ * the game thread and by the generation threads.
+ * allocations are measured with the allocated-bytes counter of com.sun.management.ThreadMXBean.
+ * run from the project's root, with: java -cp &lt;classes&gt; pepse.world.WorldStreamingBenchmark
+ */
+public class WorldStreamingBenchmark {
+
+    /**
+     * Constance representing the dimensions of the window
+     */
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1400, 700);
+    /**
+     * Constance representing the seed of the world
+     */
+    private static final int SEED = 0;
+    /**
+     * Constance representing the layers of the world's objects, as in the game
+     */
+    private static final int GROUND_LAYER = Layer.STATIC_OBJECTS;
+    private static final int TREE_LAYER = Layer.STATIC_OBJECTS;
+    private static final int LEAF_LAYER = Layer.STATIC_OBJECTS + 1;
+    private static final int ANIMAL_LAYER = Layer.STATIC_OBJECTS + 3;
+    /**
+     * Constance representing the chunks of the world, as in the game
+     */
+    private static final int CHUNK_WIDTH = 16 * Block.SIZE;
+    private static final int LOAD_RADIUS = 4;
+    private static final int UNLOAD_RADIUS = LOAD_RADIUS + 1;
+    private static final float COMMIT_BUDGET = 0.004f;
+    /**
+     * Constance representing the number of generation threads
+     */
+    private static final int GENERATION_THREADS = 2;
+    /**
+     * Constance representing the duration of a frame, in seconds
+     */
+    private static final float DELTA_TIME = 1 / 50f;
+    /**
+     * Constance representing the number of frames of every pass. the first pass warms up
+     */
+    private static final int FRAMES = 6000;
+    /**
+     * Constance representing the speed of the camera, in pixels per second
+     */
+    private static final float CAMERA_SPEED = 900;
+    /**
+     * Constance representing the number of frames after which the camera turns around
+     */
+    private static final int FRAMES_PER_TURN = 400;
+    /**
+     * Constance representing the number of frames after which the camera jumps away
+     */
+    private static final int FRAMES_PER_JUMP = 150;
+    /**
+     * Constance representing the distance of a jump, in chunks
+     */
+    private static final int JUMP_CHUNKS = 3 * UNLOAD_RADIUS;
+
+    /**
+     * runs a pass that warms up, and a measured pass
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            throw new AssertionError("The JVM does not count allocated bytes per thread");
+        }
+        List<Long> generationThreadIds = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(GENERATION_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "world-generation");
+            thread.setDaemon(true);
+            generationThreadIds.add(thread.getId());
+            return thread;
+        });
+        try {
+            stream(threadBean, executor, generationThreadIds, false);
+            stream(threadBean, executor, generationThreadIds, true);
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.println("WorldStreamingBenchmark passed");
+    }
+
+    /**
+     * streams a new world for the benchmark's frames
+     *
+     * @param threadBean          the thread bean that counts the allocated bytes
+     * @param executor            the executor of the generation threads
+     * @param generationThreadIds the ids of the generation threads
+     * @param isMeasured          true to print the measurements
+     */
+    private static void stream(com.sun.management.ThreadMXBean threadBean, ExecutorService executor,
+                               List<Long> generationThreadIds, boolean isMeasured) {
+        var gameObjects = new GameObjectCollection(new SweepAndPruneBroadphase());
+        var imageReader = new ImageReader(null);
+        var terrain = new Terrain(gameObjects, GROUND_LAYER, WINDOW_DIMENSIONS, SEED, imageReader);
+        var trees = new Tree(gameObjects, terrain::groundHeightAt, TREE_LAYER, LEAF_LAYER, SEED, imageReader);
+        var animals = new Animals(gameObjects, imageReader, SEED, terrain::groundHeightAt, ANIMAL_LAYER);
+        var manager = new WorldChunkManager(new RangeMutator[]{terrain, trees, animals},
+                CHUNK_WIDTH, LOAD_RADIUS, UNLOAD_RADIUS, executor, COMMIT_BUDGET);
+        float centerX = 0;
+        manager.update(centerX);
+        manager.commitAll();
+
+        long gameThreadId = Thread.currentThread().getId();
+        long gameBytes = threadBean.getThreadAllocatedBytes(gameThreadId);
+        long generationBytes = allocatedBytes(threadBean, generationThreadIds);
+        long start = System.nanoTime();
+        float direction = 1;
+        for (int frame = 1; frame <= FRAMES; frame++) {
+            if (frame % FRAMES_PER_TURN == 0) {
+                direction = -direction;
+            }
+            centerX += direction * CAMERA_SPEED * DELTA_TIME;
+            if (frame % FRAMES_PER_JUMP == 0) {
+                centerX += direction * JUMP_CHUNKS * CHUNK_WIDTH;
+            }
+            manager.update(centerX);
+            gameObjects.update(DELTA_TIME);
+        }
+        long nanos = System.nanoTime() - start;
+        gameBytes = threadBean.getThreadAllocatedBytes(gameThreadId) - gameBytes;
+        generationBytes = allocatedBytes(threadBean, generationThreadIds) - generationBytes;
+        manager.commitAll();
+        if (manager.getLoadedChunkCount() < 2 * LOAD_RADIUS + 1 || manager.getPendingChunkCount() != 0) {
+            throw new AssertionError("the world around the camera was not loaded");
+        }
+        if (!isMeasured) {
+            return;
+        }
+        System.out.printf("%d frames: %.3f ms per frame, %d chunks loaded, %d unloaded%n", FRAMES,
+                nanos / 1e6 / FRAMES, manager.getChunksGenerated(), manager.getChunksEvicted());
+        System.out.printf("hit rates: leaves %.3f, trunks %.3f, foxes %.3f, ground images %.3f%n",
+                trees.getLeafPool().getHitRate(), trees.getTrunkPool().getHitRate(),
+                animals.getFoxPool().getHitRate(), terrain.getChunkImagePool().getHitRate());
+        System.out.printf("allocated per frame: game thread %,d bytes, generation threads %,d bytes%n",
+                gameBytes / FRAMES, generationBytes / FRAMES);
+    }
+
+    /**
+     * @param threadBean the thread bean that counts the allocated bytes
+     * @param threadIds  the ids of the threads
+     * @return the bytes the given threads allocated so far
+     */
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threadBean, List<Long> threadIds) {
+        long bytes = 0;
+        for (long threadId : threadIds) {
+            bytes += Math.max(threadBean.getThreadAllocatedBytes(threadId), 0);
+        }
+        return bytes;
+    }
+}
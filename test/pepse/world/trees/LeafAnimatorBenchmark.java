@@ -0,0 +1,138 @@
+package pepse.world.trees;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * The LeafAnimatorBenchmark class checks that animating the leaves from the shared clock matches
+ * the back and forth transitions the leaves used to have, and that a frame costs no memory no
+ * matter how long the game runs, once the particle arrays reached their size, and measures the time of a frame with 10k and 50k leaves.
+ * run with: java -cp &lt;classes&gt; pepse.world.trees.LeafAnimatorBenchmark
+ */
+public class LeafAnimatorBenchmark {
+
+    /**
+     * Constance representing the numbers of leaves to measure
+     */
+    private static final int[] LEAF_COUNTS = {10_000, 50_000};
+    /**
+     * Constance representing the time of a frame
+     */
+    private static final float DELTA_TIME = 1 / 60f;
+    /**
+     * Constance representing the number of frames to measure, ten minutes of game time
+     */
+    private static final int FRAMES = 36_000;
+    /**
+     * Constance representing the number of times the falling leaves may still grow their arrays
+     * after the first minute, until their number settles
+     */
+    private static final int MAX_GROWING_FRAMES = 2;
+
+    /**
+     * runs the checks and the measurements
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        checkBackAndForth();
+        checkLongRun();
+        for (int leafCount : LEAF_COUNTS) {
+            measure(leafCount);
+        }
+        System.out.println("LeafAnimatorBenchmark passed");
+    }
+
+    /**
+     * checks the pure functions of the clock against a back and forth transition of one second
+     */
+    private static void checkBackAndForth() {
+        for (int step = 0; step <= 400; step++) {
+            float time = step / 100f;
+            float cycleTime = time % 2;
+            float expected = cycleTime <= 1 ? cycleTime : 2 - cycleTime;
+            float value = LeafAnimator.backAndForth(time, 1);
+            if (Math.abs(value - expected) > 1e-5f) {
+                throw new AssertionError("backAndForth(" + time + ") is " + value + " instead of " + expected);
+            }
+            check(LeafAnimator.swayAngle(time) >= 180 && LeafAnimator.swayAngle(time) <= 190,
+                    "the sway angle left its range");
+            check(LeafAnimator.leafWidth(time) >= 20 && LeafAnimator.leafWidth(time) <= Leaf.SIZE,
+                    "the leaf width left its range");
+        }
+    }
+
+    /**
+     * checks that a day into the game, the reduced transition times are as precise as at its start
+     */
+    private static void checkLongRun() {
+        double day = 24 * 60 * 60;
+        for (int step = 0; step <= 400; step++) {
+            float time = step / 100f;
+            float late = LeafAnimator.cycleTime(day + time);
+            check(Math.abs(late - LeafAnimator.cycleTime(time)) < 1e-4f,
+                    "a day into the game, the transition time " + time + " became " + late);
+        }
+        check(LeafAnimator.cycleTime(-0.5) == 1.5f, "a negative time was not reduced into the period");
+    }
+
+    /**
+     * animates the given number of leaves for ten minutes of game time, and checks that the
+     * frames after the first minute allocate no memory, except for the few frames in which the
+     * particle arrays of the falling leaves double
+     *
+     * @param leafCount the number of leaves
+     */
+    private static void measure(int leafCount) {
+        var gameObjects = new GameObjectCollection();
+        FallingLeaves fallingLeaves = FallingLeaves.create(gameObjects, Layer.BACKGROUND, null, x -> 500f);
+        LeafAnimator animator = LeafAnimator.create(gameObjects, Layer.BACKGROUND, fallingLeaves);
+        for (int i = 0; i < leafCount; i++) {
+            Leaf leaf = new Leaf(new Vector2(i * Leaf.SIZE, 0), new Vector2(Leaf.SIZE, Leaf.SIZE), null);
+            gameObjects.addGameObject(leaf, Layer.STATIC_OBJECTS);
+            animator.addLeaf(leaf);
+        }
+        gameObjects.update(0);
+
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        // the first minute warms up the compiler
+        int warmUpFrames = FRAMES / 10;
+        long bytes = 0, nanos = 0;
+        int allocatingFrames = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            long bytesBefore = threadBean.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            animator.update(DELTA_TIME);
+            fallingLeaves.update(DELTA_TIME);
+            long end = System.nanoTime();
+            long frameBytes = threadBean.getThreadAllocatedBytes(thread) - bytesBefore;
+            if (frame >= warmUpFrames) {
+                nanos += end - start;
+                bytes += frameBytes;
+                allocatingFrames += frameBytes > 0 ? 1 : 0;
+            }
+        }
+        System.out.printf("%,d leaves: %.3f ms per frame, %d bytes allocated in %d of %,d frames, "
+                        + "%d leaves falling%n", leafCount, nanos / 1e6 / (FRAMES - warmUpFrames), bytes,
+                allocatingFrames, FRAMES - warmUpFrames, fallingLeaves.getLeafCount());
+        check(animator.getLeafCount() == leafCount, "the animator lost leaves");
+        check(allocatingFrames <= MAX_GROWING_FRAMES,
+                allocatingFrames + " frames allocated memory, " + bytes + " bytes in total");
+    }
+
+    /**
+     * throws an AssertionError if a condition does not hold
+     *
+     * @param condition the condition
+     * @param message   the message of the error
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}